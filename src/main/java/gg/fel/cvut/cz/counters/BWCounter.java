@@ -1,7 +1,6 @@
 package gg.fel.cvut.cz.counters;
 
 import java.io.Serializable;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import lombok.NoArgsConstructor;
 
 /**
@@ -10,33 +9,22 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class BWCounter implements IBWCounter, Serializable {
 
-  private transient int currentFrame = 0;
-  private transient final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+  //writers are synchronized, readers only read volatile field
+  private transient volatile int currentFrame = 0;
 
-  public void increaseClocks() {
-    try {
-      lock.writeLock().lock();
-      currentFrame++;
-    } finally {
-      lock.writeLock().unlock();
-    }
+  public synchronized void increaseClocks() {
+    currentFrame++;
   }
 
   public int getCurrentFrame() {
-    try {
-      lock.readLock().lock();
-      return currentFrame;
-    } finally {
-      lock.readLock().unlock();
-    }
+    return currentFrame;
   }
 
-  void decrease() {
-    try {
-      lock.writeLock().lock();
-      currentFrame = Math.max(0, currentFrame - 1);
-    } finally {
-      lock.writeLock().unlock();
-    }
+  synchronized void decrease() {
+    currentFrame = Math.max(0, currentFrame - 1);
+  }
+
+  synchronized void set(int frame) {
+    currentFrame = Math.max(0, frame);
   }
 }
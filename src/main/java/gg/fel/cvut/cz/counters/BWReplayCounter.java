@@ -45,6 +45,20 @@ public class BWReplayCounter implements IBWReplayCounter, Serializable {
     bwCounter.increaseClocks();
   }
 
+  /**
+   * Sets frame, it is kept in length of replay when it is known
+   */
+  @Override
+  public void seek(int frame) {
+
+    //transient length is lost by java serialization
+    if (length != null && length.isPresent()) {
+      bwCounter.set(Math.min(frame, length.get()));
+    } else {
+      bwCounter.set(frame);
+    }
+  }
+
   @Override
   public int getCurrentFrame() {
     return bwCounter.getCurrentFrame();
@@ -9,4 +9,9 @@ public interface IBWReplayCounter extends IBWCounter {
 
   void decreaseClock();
 
+  /**
+   * Moves clock directly to frame
+   */
+  void seek(int frame);
+
 }
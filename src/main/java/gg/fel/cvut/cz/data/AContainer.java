@@ -1,5 +1,6 @@
 package gg.fel.cvut.cz.data;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.collect.ImmutableSet;
 import gg.fel.cvut.cz.api.InGameInterface;
 import gg.fel.cvut.cz.counters.BWReplayCounter;
@@ -7,50 +8,125 @@ import java.io.Serializable;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * Common template class for containers of in-game readonly
+ * Common template class for containers of in-game readonly. Single writer updates container under
+ * write lock, registers publish changes safely, so readers never lock. Lock is created when it is
+ * needed for the first time - containers of static map hold only write-once fields and never lock,
+ * so tens of thousands of them own no lock.
+ * <p>
+ * Update of container must not take lock of other container while it holds its own.
  */
 //TODO from json
 public abstract class AContainer implements InGameInterface, Serializable {
 
+  private static final AtomicReferenceFieldUpdater<AContainer, ReadWriteLock> LOCK = AtomicReferenceFieldUpdater
+      .newUpdater(AContainer.class, ReadWriteLock.class, "lock");
+  private static final AtomicIntegerFieldUpdater<AContainer> INDEX = AtomicIntegerFieldUpdater
+      .newUpdater(AContainer.class, "index");
+  private static final AtomicInteger INDICES = new AtomicInteger();
+
   protected BWReplayCounter bwCounter;
-  protected transient final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
 
   //negative one indicates that data have not been updated yet
-  protected int updatedInFrame = -1;
+  protected volatile int updatedInFrame = -1;
+
+  //created lazily, only by containers which lock
+  private transient volatile ReadWriteLock lock;
+
+  //dense index of container, zero until it is requested
+  private transient volatile int index;
 
   protected AContainer(BWReplayCounter bwCounter) {
     this.bwCounter = bwCounter;
   }
 
+  /**
+   * Lock guarding updates of container
+   */
+  protected ReadWriteLock lock() {
+    ReadWriteLock current = lock;
+    if (current == null) {
+      LOCK.compareAndSet(this, null, new ReentrantReadWriteLock());
+      current = lock;
+    }
+    return current;
+  }
+
+  /**
+   * Returns dense index of container - unique among containers, assigned when it is requested for
+   * the first time. Traversals of update tree use it to mark containers they have met
+   */
+  @JsonIgnore
+  public int getContainerIndex() {
+    int current = index;
+    if (current == 0) {
+      INDEX.compareAndSet(this, 0, INDICES.incrementAndGet());
+      current = index;
+    }
+    return current;
+  }
+
   /**
    * Strategy to select property on timeline given the counter
    */
   protected <T extends Serializable> Optional<T> getPropertyOnTimeLineStrategy(
       IPropertyRegister<T> register) {
-    try {
-      lock.readLock().lock();
-      if (bwCounter == null) {
-        return register.getLatestValue();
-      }
-      return register.getValueInFrame(bwCounter.getCurrentFrame());
-    } finally {
-      lock.readLock().unlock();
+    if (bwCounter == null) {
+      return register.getLatestValue();
     }
+    return register.getValueInFrame(bwCounter.getCurrentFrame());
+  }
+
+  /**
+   * Strategy to select int property on timeline given the counter. Value is read by primitive
+   * accessor of register, it is boxed only to be returned
+   */
+  protected Optional<Integer> getIntOnTimeLineStrategy(IIntPropertyRegister register) {
+    if (bwCounter == null) {
+      return register.hasLatestValue() ? Optional.of(register.getLatestInt()) : Optional.empty();
+    }
+    int frame = bwCounter.getCurrentFrame();
+    return register.hasValueInFrame(frame) ? Optional.of(register.getIntInFrame(frame))
+        : Optional.empty();
+  }
+
+  /**
+   * Strategy to select double property on timeline given the counter, see int variant
+   */
+  protected Optional<Double> getDoubleOnTimeLineStrategy(IDoublePropertyRegister register) {
+    if (bwCounter == null) {
+      return register.hasLatestValue() ? Optional.of(register.getLatestDouble())
+          : Optional.empty();
+    }
+    int frame = bwCounter.getCurrentFrame();
+    return register.hasValueInFrame(frame) ? Optional.of(register.getDoubleInFrame(frame))
+        : Optional.empty();
+  }
+
+  /**
+   * Strategy to select boolean property on timeline given the counter, see int variant
+   */
+  protected Optional<Boolean> getBooleanOnTimeLineStrategy(IBooleanPropertyRegister register) {
+    if (bwCounter == null) {
+      return register.hasLatestValue() ? Optional.of(register.getLatestBoolean())
+          : Optional.empty();
+    }
+    int frame = bwCounter.getCurrentFrame();
+    return register.hasValueInFrame(frame) ? Optional.of(register.getBooleanInFrame(frame))
+        : Optional.empty();
   }
 
   /**
    * Returns refresh time of data contained in container
    */
   public int updatedInFrame() {
-    try {
-      lock.readLock().lock();
-      return updatedInFrame;
-    } finally {
-      lock.readLock().unlock();
-    }
+    return updatedInFrame;
   }
 
   /**
@@ -58,15 +134,10 @@ public abstract class AContainer implements InGameInterface, Serializable {
    */
   protected <V extends Serializable> Optional<Set<V>> getPropertyOnTimeLineStrategyOnSet(
       IPropertyRegister<ImmutableSet<V>> register) {
-    try {
-      lock.readLock().lock();
-      if (bwCounter == null) {
-        return register.getLatestValue().map(vs -> vs);
-      }
-      return register.getValueInFrame(bwCounter.getCurrentFrame()).map(vs -> vs);
-    } finally {
-      lock.readLock().unlock();
+    if (bwCounter == null) {
+      return register.getLatestValue().map(vs -> vs);
     }
+    return register.getValueInFrame(bwCounter.getCurrentFrame()).map(vs -> vs);
   }
 
   /**
@@ -74,15 +145,10 @@ public abstract class AContainer implements InGameInterface, Serializable {
    */
   protected <V extends Serializable, K extends Serializable, T extends Map<? extends V, K> & Serializable> Optional<K> getPropertyOnTimeLineStrategy(
       IPropertyRegister<T> register, V key) {
-    try {
-      lock.readLock().lock();
-      if (bwCounter == null) {
-        return register.getLatestValue().map(t -> t.get(key));
-      }
-      return register.getValueInFrame(bwCounter.getCurrentFrame()).map(t -> t.get(key));
-    } finally {
-      lock.readLock().unlock();
+    if (bwCounter == null) {
+      return register.getLatestValue().map(t -> t.get(key));
     }
+    return register.getValueInFrame(bwCounter.getCurrentFrame()).map(t -> t.get(key));
   }
 
   @Override
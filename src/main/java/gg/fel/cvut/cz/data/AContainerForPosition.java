@@ -1,11 +1,10 @@
 package gg.fel.cvut.cz.data;
 
 import gg.fel.cvut.cz.counters.BWReplayCounter;
-import java.util.Objects;
 
 public abstract class AContainerForPosition extends AContainer {
 
-  private final int x, y;
+  protected final int x, y;
 
   protected AContainerForPosition(BWReplayCounter bwCounter, int x, int y) {
     super(bwCounter);
@@ -28,6 +27,6 @@ public abstract class AContainerForPosition extends AContainer {
 
   @Override
   public int hashCode() {
-    return Objects.hash(x, y);
+    return 31 * x + y;
   }
 }
@@ -27,6 +27,7 @@ public abstract class AContainerForType<T, V extends IGameTypes<T, V>> extends A
 
   @Override
   public int hashCode() {
-    return Objects.hash(type);
+    //same as Objects.hash(type) without varargs array
+    return 31 + Objects.hashCode(type);
   }
 }
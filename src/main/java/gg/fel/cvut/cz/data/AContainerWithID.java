@@ -1,5 +1,6 @@
 package gg.fel.cvut.cz.data;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import gg.fel.cvut.cz.counters.BWReplayCounter;
 import java.util.Objects;
 
@@ -12,6 +13,14 @@ public abstract class AContainerWithID extends AContainer {
     this.id = id;
   }
 
+  /**
+   * Returns id of container given by game
+   */
+  @JsonIgnore
+  public int getContainerId() {
+    return id;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -27,6 +36,7 @@ public abstract class AContainerWithID extends AContainer {
   @Override
   public int hashCode() {
 
-    return Objects.hash(id);
+    //same as Objects.hash(id) without boxing - it is called for each lock of container
+    return 31 + id;
   }
 }
@@ -0,0 +1,24 @@
+package gg.fel.cvut.cz.data;
+
+/**
+ * Property register of primitive boolean values. Values can be read without boxing them.
+ */
+public interface IBooleanPropertyRegister extends IPropertyRegister<Boolean> {
+
+  void addBoolean(boolean propertyValue, int inFrame);
+
+  boolean hasLatestValue();
+
+  /**
+   * Returns latest value. Throws NoSuchElementException when there is no value.
+   */
+  boolean getLatestBoolean();
+
+  boolean hasValueInFrame(int frame);
+
+  /**
+   * Returns value in frame. Throws NoSuchElementException when there is no value in frame.
+   */
+  boolean getBooleanInFrame(int frame);
+
+}
@@ -0,0 +1,24 @@
+package gg.fel.cvut.cz.data;
+
+/**
+ * Property register of primitive double values. Values can be read without boxing them.
+ */
+public interface IDoublePropertyRegister extends IPropertyRegister<Double> {
+
+  void addDouble(double propertyValue, int inFrame);
+
+  boolean hasLatestValue();
+
+  /**
+   * Returns latest value. Throws NoSuchElementException when there is no value.
+   */
+  double getLatestDouble();
+
+  boolean hasValueInFrame(int frame);
+
+  /**
+   * Returns value in frame. Throws NoSuchElementException when there is no value in frame.
+   */
+  double getDoubleInFrame(int frame);
+
+}
@@ -0,0 +1,24 @@
+package gg.fel.cvut.cz.data;
+
+/**
+ * Property register of primitive int values. Values can be read without boxing them.
+ */
+public interface IIntPropertyRegister extends IPropertyRegister<Integer> {
+
+  void addInt(int propertyValue, int inFrame);
+
+  boolean hasLatestValue();
+
+  /**
+   * Returns latest value. Throws NoSuchElementException when there is no value.
+   */
+  int getLatestInt();
+
+  boolean hasValueInFrame(int frame);
+
+  /**
+   * Returns value in frame. Throws NoSuchElementException when there is no value in frame.
+   */
+  int getIntInFrame(int frame);
+
+}
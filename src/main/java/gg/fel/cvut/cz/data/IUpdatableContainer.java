@@ -5,6 +5,7 @@ import gg.fel.cvut.cz.facades.managers.UpdateManager;
 import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
 import gg.fel.cvut.cz.wrappers.Wrapper;
 import java.io.Serializable;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -44,6 +45,14 @@ public interface IUpdatableContainer<T extends Wrapper<?>, L extends AContainer>
    */
   Stream<? extends AContainer> getReferencedContainers(int currentFrame);
 
+  /**
+   * Passes all referenced containers to consumer. Override it to avoid creating stream - it is
+   * called for each container in update tree
+   */
+  default void forEachReferencedContainer(int currentFrame, Consumer<? super AContainer> consumer) {
+    getReferencedContainers(currentFrame).forEach(consumer);
+  }
+
   /**
    * Returns whether instance should be updated based on parameters. This is overridden by updatable objects
    */
@@ -0,0 +1,292 @@
+package gg.fel.cvut.cz.data.events;
+
+import gg.fel.cvut.cz.data.events.EventsRegister.ReceiveTextContainer;
+import gg.fel.cvut.cz.data.readonly.Player;
+import gg.fel.cvut.cz.data.readonly.Position;
+import gg.fel.cvut.cz.data.readonly.Unit;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only log of events. Events are stored in primitive columns - type, frame and subject. Unit
+ * and player are stored by id, position by its coordinates and text by index to table of texts, so
+ * log keeps the same content when it is persisted by Java serialization or by Jackson. Objects are
+ * passed to consumers - the ones which were added or, in log which has been loaded, readonly
+ * containers with the same id or coordinates. Events of frame are contiguous and
+ * offset of the first event of each frame is indexed, so events in frame are found in constant time
+ * and events in range of frames are scanned as one block. Events of units are indexed by id of
+ * unit as frames are sealed.
+ * <p>
+ * Events are added by game thread during frame and published when frame is sealed. Published part
+ * of columns is never altered, so readers do not need to lock it.
+ */
+@Slf4j
+public class EventLog implements Serializable {
+
+  private static final int INITIAL_CAPACITY = 64;
+  private static final EventType[] TYPES = EventType.values();
+
+  //columns of events - subject is id of unit or player, x of position or index of text, detail is
+  //y of position or index of text received from player
+  private volatile byte[] types = new byte[INITIAL_CAPACITY];
+  private volatile int[] frames = new int[INITIAL_CAPACITY];
+  private volatile int[] subjects = new int[INITIAL_CAPACITY];
+  private volatile int[] details = new int[INITIAL_CAPACITY];
+  private int size = 0;
+
+  //offset of the first event of frame, valid up to frame after the last sealed frame
+  private volatile int[] frameOffsets = new int[INITIAL_CAPACITY];
+  private volatile int lastSealedFrame = -1;
+  private int sealedSize = 0;
+
+  //table of texts, id of text is its index
+  private volatile String[] texts = new String[INITIAL_CAPACITY];
+  private int textCount = 0;
+
+  //events of each unit
+  private final UnitEventIndex unitEventIndex = new UnitEventIndex();
+
+  //indexes of writer, rebuilt when log is written after deserialization
+  private transient Map<String, Integer> textIds;
+  private transient Map<EventType, Set<Long>> eventsInFrame;
+
+  //units and players passed to consumers by their id
+  private transient Map<Integer, Unit> units = new ConcurrentHashMap<>();
+  private transient Map<Integer, Player> players = new ConcurrentHashMap<>();
+
+  /**
+   * Consumer of events
+   */
+  public interface EventConsumer {
+
+    void accept(int frame, Object subject);
+  }
+
+  /**
+   * Adds event to current frame. Subject of unit event is unit, of player left event player, of
+   * nuke detect event position, of send text event text and of receive text event
+   * ReceiveTextContainer. Same event is stored only once per frame
+   */
+  public void add(EventType type, Object subject) {
+    int subjectValue, detail = 0;
+    switch (type) {
+      case SEND_TEXT:
+        subjectValue = textId((String) subject);
+        break;
+      case RECEIVE_TEXT:
+        ReceiveTextContainer container = (ReceiveTextContainer) subject;
+        subjectValue = container.player.getContainerId();
+        players.putIfAbsent(subjectValue, container.player);
+        detail = textId(container.text);
+        break;
+      case PLAYER_LEFT:
+        subjectValue = ((Player) subject).getContainerId();
+        players.putIfAbsent(subjectValue, (Player) subject);
+        break;
+      case NUKE_DETECT:
+        subjectValue = ((Position) subject).getX().get();
+        detail = ((Position) subject).getY().get();
+        break;
+      default:
+        subjectValue = ((Unit) subject).getContainerId();
+        units.putIfAbsent(subjectValue, (Unit) subject);
+    }
+    if (eventsInFrame == null) {
+      eventsInFrame = new EnumMap<>(EventType.class);
+    }
+    if (!eventsInFrame.computeIfAbsent(type, t -> new HashSet<>())
+        .add(((long) subjectValue << 32) | (detail & 0xFFFFFFFFL))) {
+      return;
+    }
+    if (size == types.length) {
+      int capacity = size * 2;
+      types = Arrays.copyOf(types, capacity);
+      frames = Arrays.copyOf(frames, capacity);
+      subjects = Arrays.copyOf(subjects, capacity);
+      details = Arrays.copyOf(details, capacity);
+    }
+    types[size] = (byte) type.ordinal();
+    subjects[size] = subjectValue;
+    details[size] = detail;
+    size++;
+  }
+
+  /**
+   * Assigns events added since previous call to frame and publishes them. Frames have to be sealed
+   * in increasing order
+   */
+  public void sealFrame(int frame) {
+    if (frame <= lastSealedFrame) {
+      log.error("The event log can not be altered.");
+      return;
+    }
+    if (frame + 2 > frameOffsets.length) {
+      frameOffsets = Arrays.copyOf(frameOffsets, Math.max(frameOffsets.length * 2, frame + 2));
+    }
+
+    //frames without events start where the next one does
+    int[] offsets = frameOffsets;
+    Arrays.fill(offsets, lastSealedFrame + 1, frame + 1, sealedSize);
+    offsets[frame + 1] = size;
+    Arrays.fill(frames, sealedSize, size, frame);
+    for (int i = sealedSize; i < size; i++) {
+      EventType type = TYPES[types[i]];
+      if (type.isUnitEvent()) {
+        unitEventIndex.add(subjects[i], frame, type);
+      }
+    }
+    sealedSize = size;
+    if (eventsInFrame != null) {
+      eventsInFrame.clear();
+    }
+
+    //publishes frame to readers
+    lastSealedFrame = frame;
+  }
+
+  /**
+   * Returns number of events in frame
+   */
+  public int countInFrame(int frame) {
+    return countInRange(frame, frame);
+  }
+
+  /**
+   * Returns number of events in range of frames, both inclusive
+   */
+  public int countInRange(int fromFrame, int toFrame) {
+    int lastFrame = lastSealedFrame;
+    return offsetOf(toFrame + 1, lastFrame) - offsetOf(fromFrame, lastFrame);
+  }
+
+  /**
+   * Passes events of type in frame to consumer in order in which they were added
+   */
+  public void forEachInFrame(int frame, EventType type, EventConsumer consumer) {
+    forEachInRange(frame, frame, type, consumer);
+  }
+
+  /**
+   * Passes events of type in range of frames, both inclusive, to consumer in order in which they
+   * were added
+   */
+  public void forEachInRange(int fromFrame, int toFrame, EventType type, EventConsumer consumer) {
+    int lastFrame = lastSealedFrame;
+    int from = offsetOf(fromFrame, lastFrame), to = offsetOf(toFrame + 1, lastFrame);
+    byte[] types = this.types;
+    int[] frames = this.frames, subjects = this.subjects, details = this.details;
+    byte ordinal = (byte) type.ordinal();
+    for (int i = from; i < to; i++) {
+      if (types[i] == ordinal) {
+        consumer.accept(frames[i], subjectOf(type, subjects[i], details[i]));
+      }
+    }
+  }
+
+  /**
+   * Passes events of type in range of frames, both inclusive, to consumer. Event repeated in range
+   * is passed only once - with the first frame in which it occurred
+   */
+  public void forEachDistinctInRange(int fromFrame, int toFrame, EventType type,
+      EventConsumer consumer) {
+
+    //events are distinct in single frame
+    if (fromFrame >= toFrame) {
+      forEachInRange(fromFrame, toFrame, type, consumer);
+      return;
+    }
+    int lastFrame = lastSealedFrame;
+    int from = offsetOf(fromFrame, lastFrame), to = offsetOf(toFrame + 1, lastFrame);
+    byte[] types = this.types;
+    int[] frames = this.frames, subjects = this.subjects, details = this.details;
+    byte ordinal = (byte) type.ordinal();
+    Set<Long> passed = new HashSet<>();
+    for (int i = from; i < to; i++) {
+      if (types[i] == ordinal
+          && passed.add(((long) subjects[i] << 32) | (details[i] & 0xFFFFFFFFL))) {
+        consumer.accept(frames[i], subjectOf(type, subjects[i], details[i]));
+      }
+    }
+  }
+
+  /**
+   * Returns inverted index of events - events of each unit
+   */
+  public UnitEventIndex getUnitEventIndex() {
+    return unitEventIndex;
+  }
+
+  /**
+   * Returns the last frame which has been sealed
+   */
+  public int getLastSealedFrame() {
+    return lastSealedFrame;
+  }
+
+  /**
+   * Returns offset of the first event in frame, frames out of sealed part are clamped to it
+   */
+  private int offsetOf(int frame, int lastFrame) {
+    if (frame <= 0 || lastFrame < 0) {
+      return 0;
+    }
+    return frameOffsets[Math.min(frame, lastFrame + 1)];
+  }
+
+  /**
+   * Returns object standing for subject of event
+   */
+  private Object subjectOf(EventType type, int subject, int detail) {
+    switch (type) {
+      case SEND_TEXT:
+        return texts[subject];
+      case RECEIVE_TEXT:
+        return new ReceiveTextContainer(playerOf(subject), texts[detail]);
+      case PLAYER_LEFT:
+        return playerOf(subject);
+      case NUKE_DETECT:
+        return new Position(null, subject, detail);
+      default:
+        return units.computeIfAbsent(subject, id -> new Unit(null, id));
+    }
+  }
+
+  private Player playerOf(int id) {
+    return players.computeIfAbsent(id, playerId -> new Player(null, playerId));
+  }
+
+  private int textId(String text) {
+    if (textIds == null) {
+      textIds = new HashMap<>();
+      for (int i = 0; i < textCount; i++) {
+        textIds.put(texts[i], i);
+      }
+    }
+    Integer id = textIds.get(text);
+    if (id == null) {
+      if (textCount == texts.length) {
+        texts = Arrays.copyOf(texts, textCount * 2);
+      }
+      id = textCount;
+      texts[textCount++] = text;
+      textIds.put(text, id);
+    }
+    return id;
+  }
+
+  private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+    input.defaultReadObject();
+    units = new ConcurrentHashMap<>();
+    players = new ConcurrentHashMap<>();
+  }
+
+}
@@ -0,0 +1,18 @@
+package gg.fel.cvut.cz.data.events;
+
+/**
+ * Types of events stored in event log
+ */
+public enum EventType {
+  SEND_TEXT, RECEIVE_TEXT, PLAYER_LEFT, NUKE_DETECT, UNIT_DISCOVER, UNIT_EVADE, UNIT_SHOW,
+  UNIT_HIDE, UNIT_CREATE, UNIT_DESTROY, UNIT_MORPH, UNIT_RENEGADE, UNIT_COMPLETE;
+
+  /**
+   * Returns true for events related to unit
+   */
+  public boolean isUnitEvent() {
+
+    //unit events are declared last
+    return compareTo(UNIT_DISCOVER) >= 0;
+  }
+}
@@ -1,131 +1,175 @@
 package gg.fel.cvut.cz.data.events;
 
-import com.google.common.collect.ImmutableSet;
 import gg.fel.cvut.cz.data.events.subscribers.IGameHasEndedNotificationSubscriber;
 import gg.fel.cvut.cz.data.events.subscribers.INukeDetectedNotificationSubscriber;
 import gg.fel.cvut.cz.data.events.subscribers.IPlayerLeftNotificationSubscriber;
 import gg.fel.cvut.cz.data.events.subscribers.IReceiveTextNotificationSubscriber;
 import gg.fel.cvut.cz.data.events.subscribers.ISendTextNotificationSubscriber;
 import gg.fel.cvut.cz.data.events.subscribers.IUnitNotificationSubscriber;
-import gg.fel.cvut.cz.data.properties.DynamicPropertyRegister;
 import gg.fel.cvut.cz.data.properties.Property;
 import gg.fel.cvut.cz.data.properties.StaticPropertyRegister;
 import gg.fel.cvut.cz.data.readonly.Player;
 import gg.fel.cvut.cz.data.readonly.Position;
 import gg.fel.cvut.cz.data.readonly.Unit;
 import java.io.Serializable;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 
 /**
- * Read-only register for events
+ * Read-only register for events. Events are stored in columnar log, subscribers are notified about
+ * events of frame or about events of range of frames - each event once.
  */
 public class EventsRegister implements Serializable {
 
   final StaticPropertyRegister<Boolean, Property<Boolean>> onEnd = new StaticPropertyRegister<Boolean, Property<Boolean>>(
       Property::new);
-  final DynamicPropertyRegister<ImmutableSet<String>, Property<ImmutableSet<String>>> onSendText = new DynamicPropertyRegister<ImmutableSet<String>, Property<ImmutableSet<String>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<ReceiveTextContainer>, Property<ImmutableSet<ReceiveTextContainer>>> onReceiveText = new DynamicPropertyRegister<ImmutableSet<ReceiveTextContainer>, Property<ImmutableSet<ReceiveTextContainer>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<Player>, Property<ImmutableSet<Player>>> onPlayerLeft = new DynamicPropertyRegister<ImmutableSet<Player>, Property<ImmutableSet<Player>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<Position>, Property<ImmutableSet<Position>>> onNukeDetect = new DynamicPropertyRegister<ImmutableSet<Position>, Property<ImmutableSet<Position>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>> onUnitDiscover = new DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>> onUnitEvade = new DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>> onUnitShow = new DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>> onUnitHide = new DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>> onUnitCreate = new DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>> onUnitDestroy = new DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>> onUnitMorph = new DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>> onUnitRenegade = new DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>>(
-      Property::new);
-  final DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>> onUnitComplete = new DynamicPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>>(
-      Property::new);
+  final EventLog eventLog = new EventLog();
 
   public void onEnd(int currentFrame, IGameHasEndedNotificationSubscriber subscriber) {
     onEnd.getValueInFrame(currentFrame).ifPresent(subscriber::notifySubscriber);
   }
 
   public void onSendText(int currentFrame, ISendTextNotificationSubscriber subscriber) {
-    onSendText.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    onSendText(currentFrame, currentFrame, subscriber);
+  }
+
+  public void onSendText(int fromFrame, int toFrame, ISendTextNotificationSubscriber subscriber) {
+    eventLog.forEachDistinctInRange(fromFrame, toFrame, EventType.SEND_TEXT,
+        (frame, text) -> subscriber.notifySubscriber((String) text));
   }
 
   public void onReceiveText(int currentFrame, IReceiveTextNotificationSubscriber subscriber) {
-    onReceiveText.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(cont -> subscriber.notifySubscriber(cont.player, cont.text)));
+    onReceiveText(currentFrame, currentFrame, subscriber);
+  }
+
+  public void onReceiveText(int fromFrame, int toFrame,
+      IReceiveTextNotificationSubscriber subscriber) {
+    eventLog.forEachDistinctInRange(fromFrame, toFrame, EventType.RECEIVE_TEXT,
+        (frame, subject) -> {
+          ReceiveTextContainer cont = (ReceiveTextContainer) subject;
+          subscriber.notifySubscriber(cont.player, cont.text);
+        });
   }
 
   public void onPlayerLeft(int currentFrame, IPlayerLeftNotificationSubscriber subscriber) {
-    onPlayerLeft.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    onPlayerLeft(currentFrame, currentFrame, subscriber);
+  }
+
+  public void onPlayerLeft(int fromFrame, int toFrame,
+      IPlayerLeftNotificationSubscriber subscriber) {
+    eventLog.forEachDistinctInRange(fromFrame, toFrame, EventType.PLAYER_LEFT,
+        (frame, player) -> subscriber.notifySubscriber((Player) player));
   }
 
   public void onNukeDetect(int currentFrame, INukeDetectedNotificationSubscriber subscriber) {
-    onNukeDetect.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    onNukeDetect(currentFrame, currentFrame, subscriber);
+  }
+
+  public void onNukeDetect(int fromFrame, int toFrame,
+      INukeDetectedNotificationSubscriber subscriber) {
+    eventLog.forEachDistinctInRange(fromFrame, toFrame, EventType.NUKE_DETECT,
+        (frame, position) -> subscriber.notifySubscriber((Position) position));
   }
 
   public void onUnitDiscover(int currentFrame, IUnitNotificationSubscriber subscriber) {
-    onUnitDiscover.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    notifyUnitSubscriber(currentFrame, currentFrame, EventType.UNIT_DISCOVER, subscriber);
+  }
+
+  public void onUnitDiscover(int fromFrame, int toFrame, IUnitNotificationSubscriber subscriber) {
+    notifyUnitSubscriber(fromFrame, toFrame, EventType.UNIT_DISCOVER, subscriber);
   }
 
   public void onUnitEvade(int currentFrame, IUnitNotificationSubscriber subscriber) {
-    onUnitEvade.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    notifyUnitSubscriber(currentFrame, currentFrame, EventType.UNIT_EVADE, subscriber);
+  }
+
+  public void onUnitEvade(int fromFrame, int toFrame, IUnitNotificationSubscriber subscriber) {
+    notifyUnitSubscriber(fromFrame, toFrame, EventType.UNIT_EVADE, subscriber);
   }
 
   public void onUnitShow(int currentFrame, IUnitNotificationSubscriber subscriber) {
-    onUnitShow.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    notifyUnitSubscriber(currentFrame, currentFrame, EventType.UNIT_SHOW, subscriber);
+  }
+
+  public void onUnitShow(int fromFrame, int toFrame, IUnitNotificationSubscriber subscriber) {
+    notifyUnitSubscriber(fromFrame, toFrame, EventType.UNIT_SHOW, subscriber);
   }
 
   public void onUnitHide(int currentFrame, IUnitNotificationSubscriber subscriber) {
-    onUnitHide.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    notifyUnitSubscriber(currentFrame, currentFrame, EventType.UNIT_HIDE, subscriber);
+  }
+
+  public void onUnitHide(int fromFrame, int toFrame, IUnitNotificationSubscriber subscriber) {
+    notifyUnitSubscriber(fromFrame, toFrame, EventType.UNIT_HIDE, subscriber);
   }
 
   public void onUnitCreate(int currentFrame, IUnitNotificationSubscriber subscriber) {
-    onUnitCreate.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    notifyUnitSubscriber(currentFrame, currentFrame, EventType.UNIT_CREATE, subscriber);
+  }
+
+  public void onUnitCreate(int fromFrame, int toFrame, IUnitNotificationSubscriber subscriber) {
+    notifyUnitSubscriber(fromFrame, toFrame, EventType.UNIT_CREATE, subscriber);
   }
 
   public void onUnitDestroy(int currentFrame, IUnitNotificationSubscriber subscriber) {
-    onUnitDestroy.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    notifyUnitSubscriber(currentFrame, currentFrame, EventType.UNIT_DESTROY, subscriber);
+  }
+
+  public void onUnitDestroy(int fromFrame, int toFrame, IUnitNotificationSubscriber subscriber) {
+    notifyUnitSubscriber(fromFrame, toFrame, EventType.UNIT_DESTROY, subscriber);
   }
 
   public void onUnitMorph(int currentFrame, IUnitNotificationSubscriber subscriber) {
-    onUnitMorph.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    notifyUnitSubscriber(currentFrame, currentFrame, EventType.UNIT_MORPH, subscriber);
+  }
+
+  public void onUnitMorph(int fromFrame, int toFrame, IUnitNotificationSubscriber subscriber) {
+    notifyUnitSubscriber(fromFrame, toFrame, EventType.UNIT_MORPH, subscriber);
   }
 
   public void onUnitRenegade(int currentFrame, IUnitNotificationSubscriber subscriber) {
-    onUnitRenegade.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    notifyUnitSubscriber(currentFrame, currentFrame, EventType.UNIT_RENEGADE, subscriber);
+  }
+
+  public void onUnitRenegade(int fromFrame, int toFrame, IUnitNotificationSubscriber subscriber) {
+    notifyUnitSubscriber(fromFrame, toFrame, EventType.UNIT_RENEGADE, subscriber);
   }
 
   public void onUnitComplete(int currentFrame, IUnitNotificationSubscriber subscriber) {
-    onUnitComplete.getValueInFrame(currentFrame)
-        .ifPresent(set -> set.forEach(subscriber::notifySubscriber));
+    notifyUnitSubscriber(currentFrame, currentFrame, EventType.UNIT_COMPLETE, subscriber);
+  }
+
+  public void onUnitComplete(int fromFrame, int toFrame, IUnitNotificationSubscriber subscriber) {
+    notifyUnitSubscriber(fromFrame, toFrame, EventType.UNIT_COMPLETE, subscriber);
+  }
+
+  /**
+   * Returns log of events, so events can be queried by ranges of frames
+   */
+  public EventLog getEventLog() {
+    return eventLog;
+  }
+
+  /**
+   * Returns events of unit in range of frames, both inclusive, ordered by frame
+   */
+  public List<UnitEvent> eventsOf(Unit unit, int fromFrame, int toFrame) {
+    return eventLog.getUnitEventIndex().eventsOf(unit, fromFrame, toFrame);
+  }
+
+  private void notifyUnitSubscriber(int fromFrame, int toFrame, EventType type,
+      IUnitNotificationSubscriber subscriber) {
+    eventLog.forEachDistinctInRange(fromFrame, toFrame, type,
+        (frame, unit) -> subscriber.notifySubscriber((Unit) unit));
   }
 
   @EqualsAndHashCode(of = {"player", "text"})
   @AllArgsConstructor
   static class ReceiveTextContainer implements Serializable {
 
-    private final Player player;
-    private final String text;
+    final Player player;
+    final String text;
   }
 
 }
@@ -0,0 +1,22 @@
+package gg.fel.cvut.cz.data.events;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Event of unit found in index of events
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class UnitEvent {
+
+  private final int frame;
+  private final EventType type;
+
+  @Override
+  public String toString() {
+    return type + " in " + frame;
+  }
+}
@@ -0,0 +1,221 @@
+package gg.fel.cvut.cz.data.events;
+
+import gg.fel.cvut.cz.api.IPlayer;
+import gg.fel.cvut.cz.api.IRegion;
+import gg.fel.cvut.cz.data.events.subscribers.IUnitEventSubscriber;
+import gg.fel.cvut.cz.data.readonly.Unit;
+import gg.fel.cvut.cz.enums.UnitTypeEnum;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers unit events to many subscribers, each of them registered with filter. Subscriptions are
+ * indexed by event type, player and type of unit - dimension not set in filter is indexed as
+ * wildcard. Event is passed only to lists of its key, so cost of event grows with number of
+ * matching subscribers, not all of them.
+ * <p>
+ * Owner, type and region of unit are passed by publisher with event - readonly unit does not
+ * provide them yet. Bus of publisher which can not resolve them rejects filters by them.
+ * <p>
+ * Index is rebuilt when subscriptions change and it is published as immutable, so events are
+ * published without locking.
+ */
+@Slf4j
+public class UnitEventBus {
+
+  private final List<Subscription> subscriptions = new ArrayList<>();
+  private final boolean filtersUnits;
+  private volatile Index index = new Index(new HashMap<>());
+
+  public UnitEventBus() {
+    this(true);
+  }
+
+  /**
+   * Creates bus, filters by owner, type and region of unit are rejected when publisher does not
+   * resolve them
+   */
+  public UnitEventBus(boolean filtersUnits) {
+    this.filtersUnits = filtersUnits;
+  }
+
+  /**
+   * Registers subscriber of events passing filter
+   */
+  public synchronized Subscription subscribe(UnitEventFilter filter,
+      IUnitEventSubscriber subscriber) {
+    if (filter.getEventTypes().stream().anyMatch(type -> !type.isUnitEvent())) {
+      throw new IllegalArgumentException("Only unit events can be subscribed.");
+    }
+    if (!filtersUnits && (filter.getPlayer().isPresent() || filter.getUnitType().isPresent()
+        || filter.getRegion().isPresent())) {
+      throw new IllegalArgumentException("Events can not be filtered by owner, type or region of "
+          + "unit.");
+    }
+    Subscription subscription = new Subscription(filter, subscriber);
+    subscriptions.add(subscription);
+    rebuildIndex();
+    return subscription;
+  }
+
+  /**
+   * Returns true when some subscriber may be interested in events of type
+   */
+  public boolean hasSubscribers(EventType type) {
+    return index.observed[type.ordinal()];
+  }
+
+  /**
+   * Returns true when some subscriber of events of type filters them by region, so publisher has to
+   * resolve region of unit
+   */
+  public boolean filtersRegion(EventType type) {
+    return index.regionFiltered[type.ordinal()];
+  }
+
+  public synchronized int getSubscriberCount() {
+    return subscriptions.size();
+  }
+
+  /**
+   * Notifies subscribers whose filter event passes
+   */
+  public void publish(EventType type, Unit unit, UnitEventContext context) {
+    Index index = this.index;
+    if (!index.observed[type.ordinal()]) {
+      return;
+    }
+    Optional<IPlayer> player = context.getPlayer();
+    Optional<UnitTypeEnum> unitType = context.getUnitType();
+    deliver(index.get(type, null, null), type, unit, context);
+    if (player.isPresent()) {
+      deliver(index.get(type, player.get(), null), type, unit, context);
+    }
+    if (unitType.isPresent()) {
+      deliver(index.get(type, null, unitType.get()), type, unit, context);
+      if (player.isPresent()) {
+        deliver(index.get(type, player.get(), unitType.get()), type, unit, context);
+      }
+    }
+  }
+
+  private void deliver(Subscription[] candidates, EventType type, Unit unit,
+      UnitEventContext context) {
+    for (Subscription subscription : candidates) {
+      Optional<IRegion> requiredRegion = subscription.filter.getRegion();
+      if (requiredRegion.isPresent() && !requiredRegion.equals(context.getRegion())) {
+        continue;
+      }
+      try {
+        subscription.subscriber.notifySubscriber(type, unit);
+      } catch (RuntimeException e) {
+        log.error("Subscriber of " + type + " failed: " + e.getMessage());
+      }
+    }
+  }
+
+  private synchronized void unsubscribe(Subscription subscription) {
+    if (subscriptions.remove(subscription)) {
+      rebuildIndex();
+    }
+  }
+
+  private void rebuildIndex() {
+    Map<Key, List<Subscription>> lists = new HashMap<>();
+    for (Subscription subscription : subscriptions) {
+      UnitEventFilter filter = subscription.filter;
+      Stream<EventType> types = filter.getEventTypes().isEmpty()
+          ? Arrays.stream(EventType.values()).filter(EventType::isUnitEvent)
+          : filter.getEventTypes().stream();
+      types.forEach(type -> lists.computeIfAbsent(new Key(type, filter.getPlayer().orElse(null),
+          filter.getUnitType().orElse(null)), key -> new ArrayList<>()).add(subscription));
+    }
+    Map<Key, Subscription[]> arrays = new HashMap<>();
+    lists.forEach((key, list) -> arrays.put(key, list.toArray(new Subscription[0])));
+    index = new Index(arrays);
+  }
+
+  /**
+   * Owner, type and region of unit when event occurred, empty when they are not known
+   */
+  @AllArgsConstructor
+  @Getter
+  public static class UnitEventContext {
+
+    public static final UnitEventContext UNKNOWN = new UnitEventContext(Optional.empty(),
+        Optional.empty(), Optional.empty());
+
+    private final Optional<IPlayer> player;
+    private final Optional<UnitTypeEnum> unitType;
+    private final Optional<IRegion> region;
+  }
+
+  /**
+   * Registered subscriber. It receives events until it is cancelled
+   */
+  public class Subscription {
+
+    @Getter
+    private final UnitEventFilter filter;
+    private final IUnitEventSubscriber subscriber;
+
+    private Subscription(UnitEventFilter filter, IUnitEventSubscriber subscriber) {
+      this.filter = filter;
+      this.subscriber = subscriber;
+    }
+
+    public void cancel() {
+      unsubscribe(this);
+    }
+  }
+
+  /**
+   * Key of list of subscriptions, null stands for any player or type of unit
+   */
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  private static class Key {
+
+    private final EventType eventType;
+    private final IPlayer player;
+    private final UnitTypeEnum unitType;
+  }
+
+  /**
+   * Immutable snapshot of subscriptions
+   */
+  private static class Index {
+
+    private static final Subscription[] NONE = new Subscription[0];
+
+    private final Map<Key, Subscription[]> lists;
+    private final boolean[] observed = new boolean[EventType.values().length];
+    private final boolean[] regionFiltered = new boolean[EventType.values().length];
+
+    private Index(Map<Key, Subscription[]> lists) {
+      this.lists = lists;
+      lists.forEach((key, subscriptions) -> {
+        observed[key.eventType.ordinal()] = true;
+        for (Subscription subscription : subscriptions) {
+          if (subscription.filter.getRegion().isPresent()) {
+            regionFiltered[key.eventType.ordinal()] = true;
+          }
+        }
+      });
+    }
+
+    private Subscription[] get(EventType type, IPlayer player, UnitTypeEnum unitType) {
+      return lists.getOrDefault(new Key(type, player, unitType), NONE);
+    }
+  }
+
+}
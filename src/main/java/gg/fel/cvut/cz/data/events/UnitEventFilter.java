@@ -0,0 +1,34 @@
+package gg.fel.cvut.cz.data.events;
+
+import gg.fel.cvut.cz.api.IPlayer;
+import gg.fel.cvut.cz.api.IRegion;
+import gg.fel.cvut.cz.enums.UnitTypeEnum;
+import java.util.Optional;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+/**
+ * Filter of unit events for subscriber of event bus. Event has to match all set conditions
+ */
+@Builder
+@Getter
+public class UnitEventFilter {
+
+  //kinds of events, all unit events when it is empty
+  @Singular
+  private final Set<EventType> eventTypes;
+
+  //owner of unit
+  @Builder.Default
+  private final Optional<IPlayer> player = Optional.empty();
+
+  @Builder.Default
+  private final Optional<UnitTypeEnum> unitType = Optional.empty();
+
+  //region where unit is
+  @Builder.Default
+  private final Optional<IRegion> region = Optional.empty();
+
+}
@@ -0,0 +1,105 @@
+package gg.fel.cvut.cz.data.events;
+
+import gg.fel.cvut.cz.data.readonly.Unit;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index of unit events - maps id of unit to sorted list of its events. Event is packed to
+ * int, frame in upper bits and type in lower ones, so events of unit are sorted by frame as they
+ * are appended and range of frames is found by binary search. Query takes time proportional to size
+ * of its result.
+ */
+public class UnitEventIndex implements Serializable {
+
+  private static final int TYPE_BITS = 4, TYPE_MASK = (1 << TYPE_BITS) - 1;
+  private static final int MAX_FRAME = Integer.MAX_VALUE >>> TYPE_BITS;
+  private static final EventType[] TYPES = EventType.values();
+
+  private final Map<Integer, Postings> postings = new HashMap<>();
+
+  /**
+   * Appends event of unit. Events have to be appended in order of frames
+   */
+  synchronized void add(int unitId, int frame, EventType type) {
+    if (frame > MAX_FRAME) {
+      throw new IllegalArgumentException("Frame " + frame + " can not be indexed.");
+    }
+    postings.computeIfAbsent(unitId, id -> new Postings())
+        .add((frame << TYPE_BITS) | type.ordinal());
+  }
+
+  /**
+   * Returns events of unit in range of frames, both inclusive, ordered by frame
+   */
+  public List<UnitEvent> eventsOf(Unit unit, int fromFrame, int toFrame) {
+    return eventsOf(unit.getContainerId(), fromFrame, toFrame);
+  }
+
+  /**
+   * Returns events of unit with id in range of frames, both inclusive, ordered by frame
+   */
+  public synchronized List<UnitEvent> eventsOf(int unitId, int fromFrame, int toFrame) {
+    Postings events = postings.get(unitId);
+    if (events == null || fromFrame > toFrame) {
+      return Collections.emptyList();
+    }
+    List<UnitEvent> result = new ArrayList<>();
+    for (int i = events.firstInFrame(Math.max(fromFrame, 0)); i < events.size; i++) {
+      int frame = events.events[i] >>> TYPE_BITS;
+      if (frame > toFrame) {
+        break;
+      }
+      result.add(new UnitEvent(frame, TYPES[events.events[i] & TYPE_MASK]));
+    }
+    return result;
+  }
+
+  /**
+   * Returns number of indexed units
+   */
+  public synchronized int getUnitCount() {
+    return postings.size();
+  }
+
+  /**
+   * Sorted events of unit
+   */
+  private static class Postings implements Serializable {
+
+    private int[] events = new int[4];
+    private int size = 0;
+
+    private void add(int event) {
+      if (size == events.length) {
+        events = Arrays.copyOf(events, size * 2);
+      }
+      events[size++] = event;
+    }
+
+    /**
+     * Returns index of the first event in frame or later
+     */
+    private int firstInFrame(int frame) {
+      if (frame > MAX_FRAME) {
+        return size;
+      }
+      int from = 0, to = size, key = frame << TYPE_BITS;
+      while (from < to) {
+        int middle = (from + to) >>> 1;
+        if (events[middle] < key) {
+          from = middle + 1;
+        } else {
+          to = middle;
+        }
+      }
+      return from;
+    }
+  }
+
+}
@@ -9,72 +9,47 @@ import gg.fel.cvut.cz.data.readonly.Unit;
  */
 public class UpdatableEventsRegister extends EventsRegister {
 
-  private transient final EventTypeRegister<String> onSendTextRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<ReceiveTextContainer> onReceiveTextRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<Player> onPlayerLeftRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<Position> onNukeDetectRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<Unit> onUnitDiscoverRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<Unit> onUnitEvadeRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<Unit> onUnitShowRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<Unit> onUnitHideRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<Unit> onUnitCreateRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<Unit> onUnitDestroyRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<Unit> onUnitMorphRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<Unit> onUnitRenegadeRegister = new EventTypeRegister<>();
-  private transient final EventTypeRegister<Unit> onUnitCompleteRegister = new EventTypeRegister<>();
-
-
+  /**
+   * Publishes events registered since previous frame as events of frame
+   */
   public void saveEvents(int currentFrame) {
-    onSendTextRegister.batchEventsInFrameToRegister(currentFrame, onSendText);
-    onReceiveTextRegister.batchEventsInFrameToRegister(currentFrame, onReceiveText);
-    onPlayerLeftRegister.batchEventsInFrameToRegister(currentFrame, onPlayerLeft);
-    onNukeDetectRegister.batchEventsInFrameToRegister(currentFrame, onNukeDetect);
-    onUnitDiscoverRegister.batchEventsInFrameToRegister(currentFrame, onUnitDiscover);
-    onUnitEvadeRegister.batchEventsInFrameToRegister(currentFrame, onUnitEvade);
-    onUnitShowRegister.batchEventsInFrameToRegister(currentFrame, onUnitShow);
-    onUnitHideRegister.batchEventsInFrameToRegister(currentFrame, onUnitHide);
-    onUnitCreateRegister.batchEventsInFrameToRegister(currentFrame, onUnitCreate);
-    onUnitDestroyRegister.batchEventsInFrameToRegister(currentFrame, onUnitDestroy);
-    onUnitMorphRegister.batchEventsInFrameToRegister(currentFrame, onUnitMorph);
-    onUnitRenegadeRegister.batchEventsInFrameToRegister(currentFrame, onUnitRenegade);
-    onUnitCompleteRegister.batchEventsInFrameToRegister(currentFrame, onUnitComplete);
-
+    eventLog.sealFrame(currentFrame);
   }
 
   public void onUnitDiscover(Unit unit) {
-    onUnitDiscoverRegister.add(unit);
+    eventLog.add(EventType.UNIT_DISCOVER, unit);
   }
 
   public void onUnitEvade(Unit unit) {
-    onUnitEvadeRegister.add(unit);
+    eventLog.add(EventType.UNIT_EVADE, unit);
   }
 
   public void onUnitShow(Unit unit) {
-    onUnitShowRegister.add(unit);
+    eventLog.add(EventType.UNIT_SHOW, unit);
   }
 
   public void onUnitHide(Unit unit) {
-    onUnitHideRegister.add(unit);
+    eventLog.add(EventType.UNIT_HIDE, unit);
   }
 
   public void onUnitCreate(Unit unit) {
-    onUnitCreateRegister.add(unit);
+    eventLog.add(EventType.UNIT_CREATE, unit);
   }
 
   public void onUnitDestroy(Unit unit) {
-    onUnitDestroyRegister.add(unit);
+    eventLog.add(EventType.UNIT_DESTROY, unit);
   }
 
   public void onUnitMorph(Unit unit) {
-    onUnitMorphRegister.add(unit);
+    eventLog.add(EventType.UNIT_MORPH, unit);
   }
 
   public void onUnitRenegade(Unit unit) {
-    onUnitRenegadeRegister.add(unit);
+    eventLog.add(EventType.UNIT_RENEGADE, unit);
   }
 
   public void onUnitComplete(Unit unit) {
-    onUnitCompleteRegister.add(unit);
+    eventLog.add(EventType.UNIT_COMPLETE, unit);
   }
 
   public void onEnd(int currentFrame, boolean value) {
@@ -82,19 +57,19 @@ public class UpdatableEventsRegister extends EventsRegister {
   }
 
   public void onSendText(String text) {
-    onSendTextRegister.add(text);
+    eventLog.add(EventType.SEND_TEXT, text);
   }
 
   public void onReceiveText(Player player, String text) {
-    onReceiveTextRegister.add(new ReceiveTextContainer(player, text));
+    eventLog.add(EventType.RECEIVE_TEXT, new ReceiveTextContainer(player, text));
   }
 
   public void onPlayerLeft(Player player) {
-    onPlayerLeftRegister.add(player);
+    eventLog.add(EventType.PLAYER_LEFT, player);
   }
 
   public void onNukeDetect(Position position) {
-    onNukeDetectRegister.add(position);
+    eventLog.add(EventType.NUKE_DETECT, position);
   }
 
 }
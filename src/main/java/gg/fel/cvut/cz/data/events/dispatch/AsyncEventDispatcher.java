@@ -0,0 +1,269 @@
+package gg.fel.cvut.cz.data.events.dispatch;
+
+import gg.fel.cvut.cz.data.events.EventType;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers events to subscribers by consumer threads instead of game thread. Game thread is the
+ * only producer - it fills pre-allocated slot of ring buffer and publishes it by moving cursor.
+ * Consumers read slots in order of publishing, so events are delivered in frame order. Each type of
+ * event is delivered by one consumer, events of different types handled by different consumers may
+ * interleave.
+ * <p>
+ * Slot is reused when all consumers have passed it. When buffer is full, producer waits or drops
+ * event - by overflow policy.
+ */
+@Slf4j
+public class AsyncEventDispatcher {
+
+  private final EventSlot[] slots;
+  private final int mask;
+  private final Consumer[] consumers;
+  private final WaitStrategy waitStrategy;
+  private final DispatchOverflowPolicy overflowPolicy;
+
+  //sequence of the last published slot
+  private final AtomicLong cursor = new AtomicLong(-1);
+
+  //fields of producer
+  private long nextSequence = 0, cachedGatingSequence = -1;
+
+  private volatile boolean running = false;
+  private IEventHandler handler;
+
+  //statistics
+  private final LongAdder delivered = new LongAdder(), dropped = new LongAdder();
+  private final LongAdder totalLatency = new LongAdder();
+  private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Creates dispatcher with ring buffer of at least given capacity - it is rounded up to power of
+   * two - and given number of consumer threads
+   */
+  public AsyncEventDispatcher(int capacity, int consumers, WaitStrategy waitStrategy,
+      DispatchOverflowPolicy overflowPolicy) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity has to be in [1, 2^30].");
+    }
+    if (consumers < 1 || consumers > EventType.values().length) {
+      throw new IllegalArgumentException("Number of consumers has to be in [1, number of types].");
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.slots = new EventSlot[size];
+    for (int i = 0; i < size; i++) {
+      slots[i] = new EventSlot();
+    }
+    this.mask = size - 1;
+    this.consumers = new Consumer[consumers];
+    for (int i = 0; i < consumers; i++) {
+      this.consumers[i] = new Consumer(i);
+    }
+    this.waitStrategy = waitStrategy;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  /**
+   * Starts consumers delivering events to handler. Events published before start are dropped
+   */
+  public synchronized void start(IEventHandler handler) {
+    if (running) {
+      log.error("Dispatcher of events has been already started.");
+      return;
+    }
+    this.handler = handler;
+    running = true;
+    for (Consumer consumer : consumers) {
+      consumer.thread.start();
+    }
+  }
+
+  /**
+   * Publishes event to consumers. Called by game thread only. Returns false when event was dropped
+   */
+  public boolean publish(EventType type, int frame, Object subject, Object detail) {
+    if (!running) {
+      dropped.increment();
+      return false;
+    }
+    long sequence = nextSequence, wrapPoint = sequence - slots.length;
+    if (wrapPoint > cachedGatingSequence) {
+      cachedGatingSequence = minimalConsumerSequence();
+      int attempt = 0;
+      while (wrapPoint > cachedGatingSequence) {
+        if (overflowPolicy == DispatchOverflowPolicy.DROP_NEWEST) {
+          dropped.increment();
+          return false;
+        }
+        waitStrategy.idle(attempt++);
+        cachedGatingSequence = minimalConsumerSequence();
+      }
+    }
+    EventSlot slot = slots[(int) sequence & mask];
+    slot.type = type;
+    slot.frame = frame;
+    slot.subject = subject;
+    slot.detail = detail;
+    slot.publishedAt = System.nanoTime();
+    nextSequence = sequence + 1;
+    cursor.lazySet(sequence);
+
+    //wake up parked consumers
+    if (waitStrategy == WaitStrategy.BLOCKING) {
+      for (Consumer consumer : consumers) {
+        if (consumer.parked) {
+          LockSupport.unpark(consumer.thread);
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Stops consumers after they deliver all published events. Called by game thread only. Events
+   * published later are dropped
+   */
+  public void close() {
+    synchronized (this) {
+      if (!running) {
+        return;
+      }
+      running = false;
+    }
+    for (Consumer consumer : consumers) {
+      LockSupport.unpark(consumer.thread);
+      try {
+        consumer.thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns number of published events which have not been delivered yet
+   */
+  public long getBacklog() {
+    return cursor.get() - minimalConsumerSequence();
+  }
+
+  public long getDelivered() {
+    return delivered.sum();
+  }
+
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  /**
+   * Returns mean time from publishing of event to its delivery in nanoseconds
+   */
+  public long getMeanLatencyNanos() {
+    long count = delivered.sum();
+    return count == 0 ? 0 : totalLatency.sum() / count;
+  }
+
+  /**
+   * Returns maximal time from publishing of event to its delivery in nanoseconds
+   */
+  public long getMaxLatencyNanos() {
+    return maxLatency.get();
+  }
+
+  public int getCapacity() {
+    return slots.length;
+  }
+
+  private long minimalConsumerSequence() {
+    long minimum = Long.MAX_VALUE;
+    for (Consumer consumer : consumers) {
+      minimum = Math.min(minimum, consumer.sequence.get());
+    }
+    return minimum;
+  }
+
+  /**
+   * Pre-allocated slot of ring buffer
+   */
+  private static class EventSlot {
+
+    private EventType type;
+    private int frame;
+    private Object subject, detail;
+    private long publishedAt;
+  }
+
+  /**
+   * Thread delivering events of its types
+   */
+  private class Consumer implements Runnable {
+
+    private final int index;
+    private final Thread thread;
+
+    //sequence of the last slot consumer is done with
+    private final AtomicLong sequence = new AtomicLong(-1);
+    private volatile boolean parked = false;
+
+    private Consumer(int index) {
+      this.index = index;
+      this.thread = new Thread(this, "event-dispatcher-" + index);
+      this.thread.setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      long next = sequence.get() + 1;
+      int attempt = 0;
+      while (true) {
+        long available = cursor.get();
+        if (next > available) {
+          if (!running && next > cursor.get()) {
+            return;
+          }
+          if (waitStrategy == WaitStrategy.BLOCKING) {
+            parked = true;
+
+            //check again, producer may have published before it saw flag
+            if (next > cursor.get() && running) {
+              waitStrategy.idle(attempt);
+            }
+            parked = false;
+          } else {
+            waitStrategy.idle(attempt);
+          }
+          attempt++;
+          continue;
+        }
+        attempt = 0;
+        for (; next <= available; next++) {
+          EventSlot slot = slots[(int) next & mask];
+          if (slot.type.ordinal() % consumers.length == index) {
+            deliver(slot);
+          }
+        }
+        sequence.lazySet(available);
+      }
+    }
+
+    private void deliver(EventSlot slot) {
+      try {
+        handler.onEvent(slot.type, slot.frame, slot.subject, slot.detail);
+      } catch (RuntimeException e) {
+        log.error("Delivery of event " + slot.type + " failed: " + e.getMessage());
+      }
+      long latency = System.nanoTime() - slot.publishedAt;
+      delivered.increment();
+      totalLatency.add(latency);
+      maxLatency.accumulate(latency);
+    }
+  }
+
+}
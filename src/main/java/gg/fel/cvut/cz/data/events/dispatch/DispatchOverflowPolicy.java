@@ -0,0 +1,18 @@
+package gg.fel.cvut.cz.data.events.dispatch;
+
+/**
+ * Policies applied when event is published to full ring buffer
+ */
+public enum DispatchOverflowPolicy {
+
+  /**
+   * Game thread waits until the slowest consumer frees slot. No event is lost, but slow subscriber
+   * lengthens frame again
+   */
+  BLOCK,
+
+  /**
+   * Event is not delivered, only counted as dropped. Frame is never delayed
+   */
+  DROP_NEWEST
+}
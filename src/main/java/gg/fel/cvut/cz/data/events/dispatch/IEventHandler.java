@@ -0,0 +1,15 @@
+package gg.fel.cvut.cz.data.events.dispatch;
+
+import gg.fel.cvut.cz.data.events.EventType;
+
+/**
+ * Contract for receiver of events delivered by dispatcher
+ */
+public interface IEventHandler {
+
+  /**
+   * Handles event from frame. Detail carries second argument of event - text of received message
+   */
+  void onEvent(EventType type, int frame, Object subject, Object detail);
+
+}
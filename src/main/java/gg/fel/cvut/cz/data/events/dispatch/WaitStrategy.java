@@ -0,0 +1,71 @@
+package gg.fel.cvut.cz.data.events.dispatch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Strategies of thread waiting for ring buffer - consumer waiting for events or producer waiting
+ * for free slot. They trade latency of delivery for CPU burnt by waiting thread.
+ */
+public enum WaitStrategy {
+
+  /**
+   * Thread spins all the time. Lowest latency, occupies whole core
+   */
+  BUSY_SPIN {
+    @Override
+    void idle(int attempt) {
+    }
+  },
+
+  /**
+   * Thread spins for a while, then yields to other threads
+   */
+  YIELDING {
+    @Override
+    void idle(int attempt) {
+      if (attempt >= SPINS) {
+        Thread.yield();
+      }
+    }
+  },
+
+  /**
+   * Thread spins, yields and then sleeps for short time
+   */
+  SLEEPING {
+    @Override
+    void idle(int attempt) {
+      if (attempt >= 2 * SPINS) {
+        LockSupport.parkNanos(SLEEP_NANOS);
+      } else if (attempt >= SPINS) {
+        Thread.yield();
+      }
+    }
+  },
+
+  /**
+   * Thread spins for a while, then it is parked until it is woken up by other side. Highest
+   * latency, no CPU is used when there are no events
+   */
+  BLOCKING {
+    @Override
+    void idle(int attempt) {
+      if (attempt >= SPINS) {
+
+        //waking up may be missed, so thread checks buffer again after a while
+        LockSupport.parkNanos(this, PARK_NANOS);
+      }
+    }
+  };
+
+  private static final int SPINS = 100;
+  private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+  private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  /**
+   * Waits once, attempt is number of previous unsuccessful checks of buffer
+   */
+  abstract void idle(int attempt);
+
+}
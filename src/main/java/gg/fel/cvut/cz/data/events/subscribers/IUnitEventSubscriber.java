@@ -0,0 +1,16 @@
+package gg.fel.cvut.cz.data.events.subscribers;
+
+import gg.fel.cvut.cz.data.events.EventType;
+import gg.fel.cvut.cz.data.readonly.Unit;
+
+/**
+ * Contract for subscriber of unit events registered in event bus
+ */
+public interface IUnitEventSubscriber {
+
+  /**
+   * To notify subscriber by event of given type related to unit
+   */
+  void notifySubscriber(EventType type, Unit unit);
+
+}
@@ -0,0 +1,140 @@
+package gg.fel.cvut.cz.data.properties;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import gg.fel.cvut.cz.api.Tuple;
+import gg.fel.cvut.cz.data.IPropertyRegister;
+import java.io.Serializable;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Template for dynamic registers of primitive values. Values are stored in primitive array by
+ * subclass - only when value has changed, timeline references them by index.
+ * <p>
+ * Value is stored before timeline is extended, readers read timeline first, so they see the value
+ * without locking. Array with values is expected to be volatile.
+ */
+@Slf4j
+abstract class APrimitiveDynamicPropertyRegister<T extends Serializable> implements
+    IPropertyRegister<T>, Serializable {
+
+  //only frames in which value has changed are stored
+  @JsonIgnore
+  private final ChangePointTimeline timelineWithReferenceToProperty;
+
+  //count of stored values, used by writer only
+  @JsonIgnore
+  protected int size = 0;
+
+  APrimitiveDynamicPropertyRegister() {
+    this.timelineWithReferenceToProperty = new ChangePointTimeline();
+  }
+
+  APrimitiveDynamicPropertyRegister(int size, List<Tuple<Integer, Integer>> deltaDifferences) {
+    this.size = size;
+    this.timelineWithReferenceToProperty = new ChangePointTimeline(deltaDifferences);
+  }
+
+  /**
+   * Checks if timeline can be extended to given frame
+   */
+  protected boolean canBeExtendedTo(int inFrame) {
+
+    //altering timeline
+    if (timelineWithReferenceToProperty.length() > inFrame) {
+      log.error("The timeline can not be altered.");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Extends timeline to given frame. When value has changed, subclass is expected to store it on
+   * index "size" before the call.
+   */
+  protected void extendTo(int inFrame, boolean valueHasChanged) {
+
+    //fill timeline with time steps and references
+    if (timelineWithReferenceToProperty.length() < inFrame) {
+      timelineWithReferenceToProperty.extendTo(inFrame - 1, size - 1);
+    }
+    if (valueHasChanged) {
+      size++;
+    }
+
+    //add current
+    timelineWithReferenceToProperty.extendTo(inFrame, size - 1);
+  }
+
+  /**
+   * Returns index of value in frame, negative when there is no value
+   */
+  protected int indexInFrame(int frame) {
+    if (timelineWithReferenceToProperty.length() <= frame) {
+      return timelineWithReferenceToProperty.latestReference();
+    }
+    return timelineWithReferenceToProperty.referenceInFrame(frame);
+  }
+
+  protected int checkedIndexInFrame(int frame) {
+    int index = indexInFrame(frame);
+    if (index < 0) {
+      throw new NoSuchElementException("No value present");
+    }
+    return index;
+  }
+
+  protected int checkedLatestIndex() {
+    int index = timelineWithReferenceToProperty.latestReference();
+    if (index < 0) {
+      throw new NoSuchElementException("No value present");
+    }
+    return index;
+  }
+
+  public boolean hasLatestValue() {
+    return timelineWithReferenceToProperty.latestReference() >= 0;
+  }
+
+  public boolean hasValueInFrame(int frame) {
+    return indexInFrame(frame) >= 0;
+  }
+
+  public Optional<T> getLatestValue() {
+    int index = timelineWithReferenceToProperty.latestReference();
+    if (index < 0) {
+      return Optional.empty();
+    }
+    return Optional.of(valueOnIndex(index));
+  }
+
+  public Optional<T> getValueInFrame(int frame) {
+    int index = indexInFrame(frame);
+    if (index < 0) {
+      return Optional.empty();
+    }
+    return Optional.of(valueOnIndex(index));
+  }
+
+  /**
+   * Boxed value on index
+   */
+  protected abstract T valueOnIndex(int index);
+
+  @JsonProperty("deltaDifferences")
+  private List<Tuple<Integer, Integer>> getDeltaDifferences() {
+    return timelineWithReferenceToProperty.toDeltaDifferences();
+  }
+
+  protected boolean timelineEquals(APrimitiveDynamicPropertyRegister<?> that) {
+    return size == that.size && timelineWithReferenceToProperty
+        .equals(that.timelineWithReferenceToProperty);
+  }
+
+  protected int timelineHashCode() {
+    return 31 * size + timelineWithReferenceToProperty.hashCode();
+  }
+}
@@ -0,0 +1,71 @@
+package gg.fel.cvut.cz.data.properties;
+
+import gg.fel.cvut.cz.data.IPropertyRegister;
+import java.io.Serializable;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Template for static registers of primitive values. Value itself is stored by subclass.
+ */
+@Slf4j
+abstract class APrimitiveStaticPropertyRegister<T extends Serializable> implements
+    IPropertyRegister<T>, Serializable {
+
+  //negative one indicates that property has not been added yet. Subclass publishes value by
+  //setting time of creation afterwards, so readers do not need to lock
+  protected volatile int timeOfCreation = -1;
+
+  public boolean propertyHasNotBeenAdded() {
+    return timeOfCreation < 0;
+  }
+
+  /**
+   * Checks if property can be added. Returns false when property has been already added.
+   */
+  protected boolean canBeAdded() {
+
+    //changing property
+    if (timeOfCreation >= 0) {
+      log.error("Changing property which is suppose to be constant.");
+      return false;
+    }
+    return true;
+  }
+
+  protected void checkValueInFrame(int frame) {
+    if (!hasValueInFrame(frame)) {
+      throw new NoSuchElementException("No value present");
+    }
+  }
+
+  public boolean hasLatestValue() {
+    return timeOfCreation >= 0;
+  }
+
+  public boolean hasValueInFrame(int frame) {
+    int timeOfCreation = this.timeOfCreation;
+    return timeOfCreation >= 0 && frame >= timeOfCreation;
+  }
+
+  public Optional<T> getLatestValue() {
+    if (!hasLatestValue()) {
+      return Optional.empty();
+    }
+    return Optional.of(value());
+  }
+
+  public Optional<T> getValueInFrame(int frame) {
+    if (!hasValueInFrame(frame)) {
+      return Optional.empty();
+    }
+    return Optional.of(value());
+  }
+
+  /**
+   * Boxed value
+   */
+  protected abstract T value();
+
+}
@@ -0,0 +1,90 @@
+package gg.fel.cvut.cz.data.properties;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import gg.fel.cvut.cz.api.Tuple;
+import gg.fel.cvut.cz.data.IBooleanPropertyRegister;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Manages dynamic boolean property by tracking its value trough the time. Values are kept unboxed.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "@class", defaultImpl = BooleanDynamicPropertyRegister.class)
+public class BooleanDynamicPropertyRegister extends APrimitiveDynamicPropertyRegister<Boolean> implements
+    IBooleanPropertyRegister {
+
+  @JsonIgnore
+  private volatile boolean[] values = new boolean[2];
+
+  public BooleanDynamicPropertyRegister() {
+  }
+
+  @JsonCreator
+  public BooleanDynamicPropertyRegister(@JsonProperty("values") boolean[] values,
+      @JsonProperty("deltaDifferences") List<Tuple<Integer, Integer>> deltaDifferences) {
+    super(values.length, deltaDifferences);
+    this.values = Arrays.copyOf(values, Math.max(values.length, 2));
+  }
+
+  @Override
+  public void addProperty(Boolean propertyValue, int inFrame) {
+    addBoolean(propertyValue, inFrame);
+  }
+
+  @Override
+  public void addBoolean(boolean propertyValue, int inFrame) {
+    if (canBeExtendedTo(inFrame)) {
+
+      //do we have new value?
+      boolean valueHasChanged = size == 0 || values[size - 1] != propertyValue;
+      if (valueHasChanged) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = propertyValue;
+      }
+      extendTo(inFrame, valueHasChanged);
+    }
+  }
+
+  @Override
+  public boolean getLatestBoolean() {
+    return values[checkedLatestIndex()];
+  }
+
+  @Override
+  public boolean getBooleanInFrame(int frame) {
+    return values[checkedIndexInFrame(frame)];
+  }
+
+  @Override
+  protected Boolean valueOnIndex(int index) {
+    return values[index];
+  }
+
+  @JsonProperty("values")
+  private boolean[] getValues() {
+    return Arrays.copyOf(values, size);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    BooleanDynamicPropertyRegister that = (BooleanDynamicPropertyRegister) o;
+    return timelineEquals(that) && Arrays.equals(getValues(), that.getValues());
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * timelineHashCode() + Arrays.hashCode(getValues());
+  }
+}
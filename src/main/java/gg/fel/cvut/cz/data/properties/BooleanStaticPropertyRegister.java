@@ -0,0 +1,66 @@
+package gg.fel.cvut.cz.data.properties;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeInfo.Id;
+import gg.fel.cvut.cz.data.IBooleanPropertyRegister;
+import java.util.NoSuchElementException;
+
+/**
+ * Manages constant boolean property. Value is kept unboxed.
+ */
+@JsonTypeInfo(use = Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "@class", defaultImpl = BooleanStaticPropertyRegister.class)
+public class BooleanStaticPropertyRegister extends APrimitiveStaticPropertyRegister<Boolean> implements
+    IBooleanPropertyRegister {
+
+  private boolean value;
+
+  @Override
+  public void addProperty(Boolean propertyValue, int inFrame) {
+    addBoolean(propertyValue, inFrame);
+  }
+
+  @Override
+  public void addBoolean(boolean propertyValue, int inFrame) {
+    if (canBeAdded()) {
+      this.value = propertyValue;
+      this.timeOfCreation = inFrame;
+    }
+  }
+
+  @Override
+  public boolean getLatestBoolean() {
+    if (!hasLatestValue()) {
+      throw new NoSuchElementException("No value present");
+    }
+    return value;
+  }
+
+  @Override
+  public boolean getBooleanInFrame(int frame) {
+    checkValueInFrame(frame);
+    return value;
+  }
+
+  @Override
+  protected Boolean value() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    BooleanStaticPropertyRegister that = (BooleanStaticPropertyRegister) o;
+    return timeOfCreation == that.timeOfCreation && value == that.value;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * timeOfCreation + Boolean.hashCode(value);
+  }
+}
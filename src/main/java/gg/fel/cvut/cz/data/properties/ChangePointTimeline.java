@@ -0,0 +1,194 @@
+package gg.fel.cvut.cz.data.properties;
+
+import gg.fel.cvut.cz.api.Tuple;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Timeline of references to property values. Only frames in which reference has changed are
+ * stored, reference in any other frame is found by binary search. Negative reference means no
+ * value.
+ * <p>
+ * Timeline is extended by single writer. Changes are published as immutable snapshot, so readers
+ * never block - they read length first and snapshot afterwards.
+ */
+class ChangePointTimeline implements Serializable {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  //arrays are shared by snapshots, published part of arrays is never altered
+  private int[] frames = new int[INITIAL_CAPACITY];
+  private int[] references = new int[INITIAL_CAPACITY];
+  private volatile ChangePoints changePoints = new ChangePoints(frames, references, 0);
+
+  //count of frames covered by timeline
+  private volatile int length = 0;
+
+  ChangePointTimeline() {
+  }
+
+  /**
+   * Creates timeline from serialized differences - pairs of frame and reference
+   */
+  ChangePointTimeline(List<Tuple<Integer, Integer>> deltaDifferences) {
+    for (Tuple<Integer, Integer> change : deltaDifferences) {
+      int frame = change.getFirst().get();
+      if (frame < length) {
+        throw new IllegalArgumentException("Differences are not ordered by frame.");
+      }
+
+      //keep previous reference till the change
+      if (frame > length) {
+        extendTo(frame - 1, latestReference());
+      }
+      extendTo(frame, change.getSecond().get());
+    }
+
+    //in zero time set to null pointer
+    length = Math.max(length, 1);
+  }
+
+  /**
+   * Count of frames covered by timeline
+   */
+  int length() {
+    return length;
+  }
+
+  /**
+   * Reference in last frame of timeline
+   */
+  int latestReference() {
+    return changePoints.latestReference();
+  }
+
+  /**
+   * Extends timeline up to given frame (inclusive) with given reference
+   */
+  void extendTo(int frame, int reference) {
+    if (frame < length) {
+      throw new IllegalArgumentException("The timeline can not be altered.");
+    }
+    if (reference != latestReference()) {
+      addChange(length, reference);
+    }
+
+    //publish length after change points
+    length = frame + 1;
+  }
+
+  /**
+   * Returns reference in frame. Frame is expected to be covered by timeline.
+   */
+  int referenceInFrame(int frame) {
+    return changePoints.referenceInFrame(frame);
+  }
+
+  /**
+   * Returns differences - pairs of frame and reference - in which reference has changed
+   */
+  List<Tuple<Integer, Integer>> toDeltaDifferences() {
+    ChangePoints current = changePoints;
+    List<Tuple<Integer, Integer>> differences = new ArrayList<>(current.changes);
+    for (int i = 0; i < current.changes; i++) {
+      differences.add(new Tuple<>(current.frames[i], current.references[i]));
+    }
+    return differences;
+  }
+
+  private void addChange(int frame, int reference) {
+    int changes = changePoints.changes;
+    if (changes == frames.length) {
+      frames = Arrays.copyOf(frames, changes * 2);
+      references = Arrays.copyOf(references, changes * 2);
+    }
+    frames[changes] = frame;
+    references[changes] = reference;
+    changePoints = new ChangePoints(frames, references, changes + 1);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ChangePointTimeline that = (ChangePointTimeline) o;
+    return length == that.length && changePoints.equals(that.changePoints);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * length + changePoints.hashCode();
+  }
+
+  /**
+   * Immutable view on first "changes" change points
+   */
+  private static class ChangePoints implements Serializable {
+
+    private final int[] frames;
+    private final int[] references;
+    private final int changes;
+
+    private ChangePoints(int[] frames, int[] references, int changes) {
+      this.frames = frames;
+      this.references = references;
+      this.changes = changes;
+    }
+
+    private int latestReference() {
+      if (changes == 0) {
+        return -1;
+      }
+      return references[changes - 1];
+    }
+
+    private int referenceInFrame(int frame) {
+      int index = Arrays.binarySearch(frames, 0, changes, frame);
+      if (index < 0) {
+
+        //change point preceding frame
+        index = -index - 2;
+      }
+      if (index < 0) {
+        return -1;
+      }
+      return references[index];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ChangePoints that = (ChangePoints) o;
+      if (changes != that.changes) {
+        return false;
+      }
+      for (int i = 0; i < changes; i++) {
+        if (frames[i] != that.frames[i] || references[i] != that.references[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = changes;
+      for (int i = 0; i < changes; i++) {
+        result = 31 * result + frames[i];
+        result = 31 * result + references[i];
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package gg.fel.cvut.cz.data.properties;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import gg.fel.cvut.cz.api.Tuple;
+import gg.fel.cvut.cz.data.IDoublePropertyRegister;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Manages dynamic double property by tracking its value trough the time. Values are kept unboxed.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "@class", defaultImpl = DoubleDynamicPropertyRegister.class)
+public class DoubleDynamicPropertyRegister extends APrimitiveDynamicPropertyRegister<Double> implements
+    IDoublePropertyRegister {
+
+  @JsonIgnore
+  private volatile double[] values = new double[2];
+
+  public DoubleDynamicPropertyRegister() {
+  }
+
+  @JsonCreator
+  public DoubleDynamicPropertyRegister(@JsonProperty("values") double[] values,
+      @JsonProperty("deltaDifferences") List<Tuple<Integer, Integer>> deltaDifferences) {
+    super(values.length, deltaDifferences);
+    this.values = Arrays.copyOf(values, Math.max(values.length, 2));
+  }
+
+  @Override
+  public void addProperty(Double propertyValue, int inFrame) {
+    addDouble(propertyValue, inFrame);
+  }
+
+  @Override
+  public void addDouble(double propertyValue, int inFrame) {
+    if (canBeExtendedTo(inFrame)) {
+
+      //do we have new value?
+      boolean valueHasChanged = size == 0 || Double.doubleToLongBits(values[size - 1]) != Double
+          .doubleToLongBits(propertyValue);
+      if (valueHasChanged) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = propertyValue;
+      }
+      extendTo(inFrame, valueHasChanged);
+    }
+  }
+
+  @Override
+  public double getLatestDouble() {
+    return values[checkedLatestIndex()];
+  }
+
+  @Override
+  public double getDoubleInFrame(int frame) {
+    return values[checkedIndexInFrame(frame)];
+  }
+
+  @Override
+  protected Double valueOnIndex(int index) {
+    return values[index];
+  }
+
+  @JsonProperty("values")
+  private double[] getValues() {
+    return Arrays.copyOf(values, size);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    DoubleDynamicPropertyRegister that = (DoubleDynamicPropertyRegister) o;
+    return timelineEquals(that) && Arrays.equals(getValues(), that.getValues());
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * timelineHashCode() + Arrays.hashCode(getValues());
+  }
+}
@@ -0,0 +1,66 @@
+package gg.fel.cvut.cz.data.properties;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeInfo.Id;
+import gg.fel.cvut.cz.data.IDoublePropertyRegister;
+import java.util.NoSuchElementException;
+
+/**
+ * Manages constant double property. Value is kept unboxed.
+ */
+@JsonTypeInfo(use = Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "@class", defaultImpl = DoubleStaticPropertyRegister.class)
+public class DoubleStaticPropertyRegister extends APrimitiveStaticPropertyRegister<Double> implements
+    IDoublePropertyRegister {
+
+  private double value;
+
+  @Override
+  public void addProperty(Double propertyValue, int inFrame) {
+    addDouble(propertyValue, inFrame);
+  }
+
+  @Override
+  public void addDouble(double propertyValue, int inFrame) {
+    if (canBeAdded()) {
+      this.value = propertyValue;
+      this.timeOfCreation = inFrame;
+    }
+  }
+
+  @Override
+  public double getLatestDouble() {
+    if (!hasLatestValue()) {
+      throw new NoSuchElementException("No value present");
+    }
+    return value;
+  }
+
+  @Override
+  public double getDoubleInFrame(int frame) {
+    checkValueInFrame(frame);
+    return value;
+  }
+
+  @Override
+  protected Double value() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    DoubleStaticPropertyRegister that = (DoubleStaticPropertyRegister) o;
+    return timeOfCreation == that.timeOfCreation && Double.compare(value, that.value) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * timeOfCreation + Double.hashCode(value);
+  }
+}
@@ -4,12 +4,11 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import com.google.common.collect.Iterables;
 import gg.fel.cvut.cz.api.Tuple;
 import gg.fel.cvut.cz.data.IProperty;
 import gg.fel.cvut.cz.data.IPropertyRegister;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
@@ -23,68 +22,90 @@ public class DynamicPropertyRegister<T extends Serializable, V extends IProperty
     IPropertyRegister<T>,
     Serializable {
 
-  private final List<V> propertyTimeline = new ArrayList<>();
+  //published part of array is never altered, so readers do not need to lock it
+  @JsonIgnore
+  private volatile Object[] propertyTimeline = new Object[2];
+  @JsonIgnore
+  private int propertiesCount = 0;
 
+  //only frames in which value has changed are stored
   @JsonIgnore
-  private transient final List<Integer> timelineWithReferenceToProperty = new ArrayList<>();
+  private final ChangePointTimeline timelineWithReferenceToProperty;
 
   private final transient NewPropertyCreationStrategy<T, V> newPropertyCreationStrategy;
 
   public DynamicPropertyRegister(
       NewPropertyCreationStrategy<T, V> newPropertyCreationStrategy) {
     this.newPropertyCreationStrategy = newPropertyCreationStrategy;
+    this.timelineWithReferenceToProperty = new ChangePointTimeline();
   }
 
   @JsonCreator
   public DynamicPropertyRegister(@JsonProperty("propertyTimeline") List<V> propertyTimeline,
       @JsonProperty("deltaDifferences") List<Tuple<Integer, Integer>> deltaDifferences) {
     this.newPropertyCreationStrategy = null;
-    this.propertyTimeline.addAll(propertyTimeline);
-    this.timelineWithReferenceToProperty
-        .addAll(makeTimeLineWithReferenceToProperty(deltaDifferences));
+    this.propertyTimeline = propertyTimeline
+        .toArray(new Object[Math.max(propertyTimeline.size(), 2)]);
+    this.propertiesCount = propertyTimeline.size();
+    this.timelineWithReferenceToProperty = new ChangePointTimeline(deltaDifferences);
   }
 
   public void addProperty(T propertyValue, int inFrame) {
 
     //altering timeline
-    if (timelineWithReferenceToProperty.size() > inFrame) {
+    if (timelineWithReferenceToProperty.length() > inFrame) {
       log.error("The timeline can not be altered.");
     }
     //extending timeline
     else {
 
       //fill timeline with time steps and references
-      for (int i = timelineWithReferenceToProperty.size(); i < inFrame; i++) {
-        timelineWithReferenceToProperty.add(propertyTimeline.size() - 1);
+      if (timelineWithReferenceToProperty.length() < inFrame) {
+        timelineWithReferenceToProperty.extendTo(inFrame - 1, propertiesCount - 1);
       }
 
       //do we have new value?
-      if ((propertyTimeline.isEmpty() || !Iterables.getLast(propertyTimeline)
+      if ((propertiesCount == 0 || !propertyOnIndex(propertiesCount - 1)
           .hasSameValue(propertyValue)) && newPropertyCreationStrategy != null) {
-        propertyTimeline.add(newPropertyCreationStrategy.createNewProperty(propertyValue));
+        addToPropertyTimeline(newPropertyCreationStrategy.createNewProperty(propertyValue));
       }
 
-      //add current
-      timelineWithReferenceToProperty.add(propertyTimeline.size() - 1);
+      //add current - publishes new property to readers
+      timelineWithReferenceToProperty.extendTo(inFrame, propertiesCount - 1);
+    }
+  }
+
+  private void addToPropertyTimeline(V property) {
+    Object[] properties = propertyTimeline;
+    if (propertiesCount == properties.length) {
+      properties = Arrays.copyOf(properties, propertiesCount * 2);
     }
+    properties[propertiesCount++] = property;
+    propertyTimeline = properties;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V propertyOnIndex(int index) {
+    return (V) propertyTimeline[index];
   }
 
   public Optional<T> getLatestValue() {
-    if (propertyTimeline.isEmpty()) {
+    int index = timelineWithReferenceToProperty.latestReference();
+    if (index < 0) {
       return Optional.empty();
     }
-    return Optional.ofNullable(Iterables.getLast(propertyTimeline)).map(IProperty::getValue);
+    return Optional.ofNullable(propertyOnIndex(index)).map(IProperty::getValue);
   }
 
   public Optional<T> getValueInFrame(int frame) {
-    if (timelineWithReferenceToProperty.size() <= frame) {
+    if (timelineWithReferenceToProperty.length() <= frame) {
       return getLatestValue();
     }
-    int index = timelineWithReferenceToProperty.get(frame);
+    int index = timelineWithReferenceToProperty.referenceInFrame(frame);
     if (index < 0) {
       return Optional.empty();
     }
-    return Optional.of(propertyTimeline.get(index)).map(IProperty::getValue);
+    return Optional.of(propertyOnIndex(index)).map(IProperty::getValue);
   }
 
   @Override
@@ -97,49 +118,27 @@ public class DynamicPropertyRegister<T extends Serializable, V extends IProperty
     }
 
     DynamicPropertyRegister<?, ?> that = (DynamicPropertyRegister<?, ?>) o;
-    return propertyTimeline.equals(that.propertyTimeline) && timelineWithReferenceToProperty
+    return getPropertyTimeline().equals(that.getPropertyTimeline())
+        && timelineWithReferenceToProperty
         .equals(that.timelineWithReferenceToProperty);
   }
 
   @Override
   public int hashCode() {
-    int result = propertyTimeline.hashCode();
+    int result = getPropertyTimeline().hashCode();
     result = 31 * result + timelineWithReferenceToProperty.hashCode();
     return result;
   }
 
-  @JsonProperty("deltaDifferences")
-  private List<Tuple<Integer, Integer>> getDeltaDifferences() {
-    List<Tuple<Integer, Integer>> differences = new ArrayList<>();
-    int lastPointer = -1, currentPointer;
-    for (int i = 0; i < timelineWithReferenceToProperty.size(); i++) {
-      currentPointer = timelineWithReferenceToProperty.get(i);
-      if (currentPointer != lastPointer) {
-        differences.add(new Tuple<>(i, currentPointer));
-        lastPointer = currentPointer;
-      }
-    }
-    return differences;
+  @SuppressWarnings("unchecked")
+  @JsonProperty("propertyTimeline")
+  private List<V> getPropertyTimeline() {
+    return (List<V>) (List<?>) Arrays.asList(Arrays.copyOf(propertyTimeline, propertiesCount));
   }
 
-  private List<Integer> makeTimeLineWithReferenceToProperty(
-      List<Tuple<Integer, Integer>> deltaDifferences) {
-    List<Integer> timelineWithReferenceToProperty = new ArrayList<>();
-    int lastChange = 0, lastReference = -1;
-
-    //in zero time set to null pointer
-    timelineWithReferenceToProperty.add(lastReference);
-
-    for (int i = 0; i < deltaDifferences.size(); i++) {
-      Tuple<Integer, Integer> change = deltaDifferences.get(i);
-      for (int j = lastChange; j < change.getFirst().get() - 1; j++) {
-        timelineWithReferenceToProperty.add(lastReference);
-      }
-      lastChange = change.getFirst().get();
-      lastReference = change.getSecond().get();
-      timelineWithReferenceToProperty.add(lastReference);
-    }
-    return timelineWithReferenceToProperty;
+  @JsonProperty("deltaDifferences")
+  private List<Tuple<Integer, Integer>> getDeltaDifferences() {
+    return timelineWithReferenceToProperty.toDeltaDifferences();
   }
 
 }
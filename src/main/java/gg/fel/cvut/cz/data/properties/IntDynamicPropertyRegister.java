@@ -0,0 +1,90 @@
+package gg.fel.cvut.cz.data.properties;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import gg.fel.cvut.cz.api.Tuple;
+import gg.fel.cvut.cz.data.IIntPropertyRegister;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Manages dynamic int property by tracking its value trough the time. Values are kept unboxed.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "@class", defaultImpl = IntDynamicPropertyRegister.class)
+public class IntDynamicPropertyRegister extends APrimitiveDynamicPropertyRegister<Integer> implements
+    IIntPropertyRegister {
+
+  @JsonIgnore
+  private volatile int[] values = new int[2];
+
+  public IntDynamicPropertyRegister() {
+  }
+
+  @JsonCreator
+  public IntDynamicPropertyRegister(@JsonProperty("values") int[] values,
+      @JsonProperty("deltaDifferences") List<Tuple<Integer, Integer>> deltaDifferences) {
+    super(values.length, deltaDifferences);
+    this.values = Arrays.copyOf(values, Math.max(values.length, 2));
+  }
+
+  @Override
+  public void addProperty(Integer propertyValue, int inFrame) {
+    addInt(propertyValue, inFrame);
+  }
+
+  @Override
+  public void addInt(int propertyValue, int inFrame) {
+    if (canBeExtendedTo(inFrame)) {
+
+      //do we have new value?
+      boolean valueHasChanged = size == 0 || values[size - 1] != propertyValue;
+      if (valueHasChanged) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = propertyValue;
+      }
+      extendTo(inFrame, valueHasChanged);
+    }
+  }
+
+  @Override
+  public int getLatestInt() {
+    return values[checkedLatestIndex()];
+  }
+
+  @Override
+  public int getIntInFrame(int frame) {
+    return values[checkedIndexInFrame(frame)];
+  }
+
+  @Override
+  protected Integer valueOnIndex(int index) {
+    return values[index];
+  }
+
+  @JsonProperty("values")
+  private int[] getValues() {
+    return Arrays.copyOf(values, size);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    IntDynamicPropertyRegister that = (IntDynamicPropertyRegister) o;
+    return timelineEquals(that) && Arrays.equals(getValues(), that.getValues());
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * timelineHashCode() + Arrays.hashCode(getValues());
+  }
+}
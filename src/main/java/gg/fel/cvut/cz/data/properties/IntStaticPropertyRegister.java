@@ -0,0 +1,66 @@
+package gg.fel.cvut.cz.data.properties;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeInfo.Id;
+import gg.fel.cvut.cz.data.IIntPropertyRegister;
+import java.util.NoSuchElementException;
+
+/**
+ * Manages constant int property. Value is kept unboxed.
+ */
+@JsonTypeInfo(use = Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "@class", defaultImpl = IntStaticPropertyRegister.class)
+public class IntStaticPropertyRegister extends APrimitiveStaticPropertyRegister<Integer> implements
+    IIntPropertyRegister {
+
+  private int value;
+
+  @Override
+  public void addProperty(Integer propertyValue, int inFrame) {
+    addInt(propertyValue, inFrame);
+  }
+
+  @Override
+  public void addInt(int propertyValue, int inFrame) {
+    if (canBeAdded()) {
+      this.value = propertyValue;
+      this.timeOfCreation = inFrame;
+    }
+  }
+
+  @Override
+  public int getLatestInt() {
+    if (!hasLatestValue()) {
+      throw new NoSuchElementException("No value present");
+    }
+    return value;
+  }
+
+  @Override
+  public int getIntInFrame(int frame) {
+    checkValueInFrame(frame);
+    return value;
+  }
+
+  @Override
+  protected Integer value() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    IntStaticPropertyRegister that = (IntStaticPropertyRegister) o;
+    return timeOfCreation == that.timeOfCreation && value == that.value;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * timeOfCreation + value;
+  }
+}
@@ -19,8 +19,9 @@ public class StaticPropertyRegister<T extends Serializable, V extends IProperty<
     IPropertyRegister<T>,
     Serializable {
 
-  private V property = null;
-  private Integer timeOfCreation = null;
+  //property is published before time of creation, readers do not need to lock
+  private volatile V property = null;
+  private volatile Integer timeOfCreation = null;
 
   private transient final NewPropertyCreationStrategy<T, V> newPropertyCreationStrategy;
 
@@ -40,8 +41,8 @@ public class StaticPropertyRegister<T extends Serializable, V extends IProperty<
       log.error("Changing property which is suppose to be constant.");
     } else {
       if (newPropertyCreationStrategy != null) {
-        this.timeOfCreation = inFrame;
         this.property = newPropertyCreationStrategy.createNewProperty(propertyValue);
+        this.timeOfCreation = inFrame;
       }
     }
   }
@@ -51,6 +52,7 @@ public class StaticPropertyRegister<T extends Serializable, V extends IProperty<
   }
 
   public Optional<T> getValueInFrame(int frame) {
+    Integer timeOfCreation = this.timeOfCreation;
     if (timeOfCreation == null || frame < timeOfCreation) {
       return Optional.empty();
     }
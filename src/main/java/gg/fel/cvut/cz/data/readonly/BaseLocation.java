@@ -6,29 +6,22 @@ import gg.fel.cvut.cz.api.IPosition;
 import gg.fel.cvut.cz.api.IUnit;
 import gg.fel.cvut.cz.counters.BWReplayCounter;
 import gg.fel.cvut.cz.data.AContainerForPosition;
-import gg.fel.cvut.cz.data.properties.DynamicPropertyRegister;
-import gg.fel.cvut.cz.data.properties.Property;
-import gg.fel.cvut.cz.data.properties.StaticPropertyRegister;
+import gg.fel.cvut.cz.data.properties.IntDynamicPropertyRegister;
 import java.io.Serializable;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 public class BaseLocation extends AContainerForPosition implements IBaseLocation, Serializable {
 
-  protected final DynamicPropertyRegister<Integer, Property<Integer>> minerals = new DynamicPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
-  protected final DynamicPropertyRegister<Integer, Property<Integer>> gas = new DynamicPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
-  protected final StaticPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>> staticMineralsAsUnits = new StaticPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>>(
-      Property::new);
-  protected final StaticPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>> geysers = new StaticPropertyRegister<ImmutableSet<Unit>, Property<ImmutableSet<Unit>>>(
-      Property::new);
-  protected final StaticPropertyRegister<Boolean, Property<Boolean>> isIsland = new StaticPropertyRegister<Boolean, Property<Boolean>>(
-      Property::new);
-  protected final StaticPropertyRegister<Boolean, Property<Boolean>> isStartLocation = new StaticPropertyRegister<Boolean, Property<Boolean>>(
-      Property::new);
-  protected final StaticPropertyRegister<Position, Property<Position>> position = new StaticPropertyRegister<Position, Property<Position>>(
-      Property::new);
+  protected final IntDynamicPropertyRegister minerals = new IntDynamicPropertyRegister();
+  protected final IntDynamicPropertyRegister gas = new IntDynamicPropertyRegister();
+
+  //constant properties are set once and published by volatile write
+  protected volatile ImmutableSet<Unit> staticMineralsAsUnits = null;
+  protected volatile ImmutableSet<Unit> geysers = null;
+  protected volatile Boolean isIsland = null;
+  protected volatile Boolean isStartLocation = null;
+  protected volatile Position position = null;
 
   public BaseLocation(BWReplayCounter bwCounter, int x, int y) {
     super(bwCounter, x, y);
@@ -36,39 +29,39 @@ public class BaseLocation extends AContainerForPosition implements IBaseLocation
 
   @Override
   public Optional<Integer> minerals() {
-    return getPropertyOnTimeLineStrategy(minerals);
+    return getIntOnTimeLineStrategy(minerals);
   }
 
   @Override
   public Optional<Integer> gas() {
-    return getPropertyOnTimeLineStrategy(gas);
+    return getIntOnTimeLineStrategy(gas);
   }
 
   @Override
   public Optional<Stream<IUnit>> getStaticMinerals() {
-    return getPropertyOnTimeLineStrategyOnSet(staticMineralsAsUnits)
+    return Optional.ofNullable(staticMineralsAsUnits)
         .map(units -> units.stream().map(unit -> unit));
   }
 
   @Override
   public Optional<Stream<IUnit>> getGeysers() {
-    return getPropertyOnTimeLineStrategyOnSet(geysers)
+    return Optional.ofNullable(geysers)
         .map(units -> units.stream().map(unit -> unit));
   }
 
   @Override
   public Optional<Boolean> isIsland() {
-    return getPropertyOnTimeLineStrategy(isIsland);
+    return Optional.ofNullable(isIsland);
   }
 
   @Override
   public Optional<Boolean> isStartLocation() {
-    return getPropertyOnTimeLineStrategy(isStartLocation);
+    return Optional.ofNullable(isStartLocation);
   }
 
   @Override
   public Optional<IPosition> getPosition() {
-    return getPropertyOnTimeLineStrategy(position).map(p -> p);
+    return Optional.ofNullable(position);
   }
 
   //TODO compute - move to implementation to cache values?
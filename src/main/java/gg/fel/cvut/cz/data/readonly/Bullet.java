@@ -7,7 +7,11 @@ import gg.fel.cvut.cz.api.IPosition;
 import gg.fel.cvut.cz.api.IUnit;
 import gg.fel.cvut.cz.counters.BWReplayCounter;
 import gg.fel.cvut.cz.data.AContainerWithID;
+import gg.fel.cvut.cz.data.properties.BooleanDynamicPropertyRegister;
+import gg.fel.cvut.cz.data.properties.DoubleDynamicPropertyRegister;
 import gg.fel.cvut.cz.data.properties.DynamicPropertyRegister;
+import gg.fel.cvut.cz.data.properties.IntDynamicPropertyRegister;
+import gg.fel.cvut.cz.data.properties.IntStaticPropertyRegister;
 import gg.fel.cvut.cz.data.properties.Property;
 import gg.fel.cvut.cz.data.properties.PropertyMap;
 import gg.fel.cvut.cz.data.properties.StaticPropertyRegister;
@@ -17,10 +21,8 @@ import java.util.Optional;
 
 public class Bullet extends AContainerWithID implements IBullet, Serializable {
 
-  protected final DynamicPropertyRegister<Boolean, Property<Boolean>> exists = new DynamicPropertyRegister<Boolean, Property<Boolean>>(
-      Property::new);
-  protected final StaticPropertyRegister<Integer, Property<Integer>> id = new StaticPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
+  protected final BooleanDynamicPropertyRegister exists = new BooleanDynamicPropertyRegister();
+  protected final IntStaticPropertyRegister id = new IntStaticPropertyRegister();
   protected final DynamicPropertyRegister<IPlayer, Property<IPlayer>> player = new DynamicPropertyRegister<IPlayer, Property<IPlayer>>(
       Property::new);
   protected final DynamicPropertyRegister<BulletTypeEnum, Property<BulletTypeEnum>> type = new DynamicPropertyRegister<BulletTypeEnum, Property<BulletTypeEnum>>(
@@ -29,18 +31,14 @@ public class Bullet extends AContainerWithID implements IBullet, Serializable {
       Property::new);
   protected final DynamicPropertyRegister<IPosition, Property<IPosition>> position = new DynamicPropertyRegister<IPosition, Property<IPosition>>(
       Property::new);
-  protected final DynamicPropertyRegister<Double, Property<Double>> angle = new DynamicPropertyRegister<Double, Property<Double>>(
-      Property::new);
-  protected final DynamicPropertyRegister<Double, Property<Double>> velocityX = new DynamicPropertyRegister<Double, Property<Double>>(
-      Property::new);
-  protected final DynamicPropertyRegister<Double, Property<Double>> velocityY = new DynamicPropertyRegister<Double, Property<Double>>(
-      Property::new);
+  protected final DoubleDynamicPropertyRegister angle = new DoubleDynamicPropertyRegister();
+  protected final DoubleDynamicPropertyRegister velocityX = new DoubleDynamicPropertyRegister();
+  protected final DoubleDynamicPropertyRegister velocityY = new DoubleDynamicPropertyRegister();
   protected final DynamicPropertyRegister<IUnit, Property<IUnit>> target = new DynamicPropertyRegister<IUnit, Property<IUnit>>(
       Property::new);
   protected final DynamicPropertyRegister<IPosition, Property<IPosition>> targetPosition = new DynamicPropertyRegister<IPosition, Property<IPosition>>(
       Property::new);
-  protected final DynamicPropertyRegister<Integer, Property<Integer>> removeTimer = new DynamicPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
+  protected final IntDynamicPropertyRegister removeTimer = new IntDynamicPropertyRegister();
   protected final DynamicPropertyRegister<ImmutableMap<IPlayer, Boolean>, PropertyMap<IPlayer, Boolean>> isVisible = new DynamicPropertyRegister<ImmutableMap<IPlayer, Boolean>, PropertyMap<IPlayer, Boolean>>(
       PropertyMap::new);
 
@@ -50,12 +48,12 @@ public class Bullet extends AContainerWithID implements IBullet, Serializable {
 
   @Override
   public Optional<Integer> getID() {
-    return getPropertyOnTimeLineStrategy(id);
+    return getIntOnTimeLineStrategy(id);
   }
 
   @Override
   public Optional<Boolean> exists() {
-    return getPropertyOnTimeLineStrategy(exists);
+    return getBooleanOnTimeLineStrategy(exists);
   }
 
   @Override
@@ -80,17 +78,17 @@ public class Bullet extends AContainerWithID implements IBullet, Serializable {
 
   @Override
   public Optional<Double> getAngle() {
-    return getPropertyOnTimeLineStrategy(angle);
+    return getDoubleOnTimeLineStrategy(angle);
   }
 
   @Override
   public Optional<Double> getVelocityX() {
-    return getPropertyOnTimeLineStrategy(velocityX);
+    return getDoubleOnTimeLineStrategy(velocityX);
   }
 
   @Override
   public Optional<Double> getVelocityY() {
-    return getPropertyOnTimeLineStrategy(velocityY);
+    return getDoubleOnTimeLineStrategy(velocityY);
   }
 
   @Override
@@ -105,7 +103,7 @@ public class Bullet extends AContainerWithID implements IBullet, Serializable {
 
   @Override
   public Optional<Integer> getRemoveTimer() {
-    return getPropertyOnTimeLineStrategy(removeTimer);
+    return getIntOnTimeLineStrategy(removeTimer);
   }
 
   @Override
@@ -6,21 +6,16 @@ import gg.fel.cvut.cz.api.IRegion;
 import gg.fel.cvut.cz.api.Tuple;
 import gg.fel.cvut.cz.counters.BWReplayCounter;
 import gg.fel.cvut.cz.data.AContainerForPosition;
-import gg.fel.cvut.cz.data.properties.Property;
-import gg.fel.cvut.cz.data.properties.StaticPropertyRegister;
 import java.io.Serializable;
 import java.util.Optional;
 
 public class ChokePoint extends AContainerForPosition implements IChokePoint, Serializable {
 
-  protected final StaticPropertyRegister<Tuple<IRegion, IRegion>, Property<Tuple<IRegion, IRegion>>> regions = new StaticPropertyRegister<Tuple<IRegion, IRegion>, Property<Tuple<IRegion, IRegion>>>(
-      Property::new);
-  protected final StaticPropertyRegister<Tuple<IPosition, IPosition>, Property<Tuple<IPosition, IPosition>>> sides = new StaticPropertyRegister<Tuple<IPosition, IPosition>, Property<Tuple<IPosition, IPosition>>>(
-      Property::new);
-  protected final StaticPropertyRegister<Double, Property<Double>> width = new StaticPropertyRegister<Double, Property<Double>>(
-      Property::new);
-  protected final StaticPropertyRegister<IPosition, Property<IPosition>> position = new StaticPropertyRegister<IPosition, Property<IPosition>>(
-      Property::new);
+  //properties are constant, they are set once and published by volatile write
+  protected volatile Tuple<IRegion, IRegion> regions = null;
+  protected volatile Tuple<IPosition, IPosition> sides = null;
+  protected volatile Double width = null;
+  protected volatile IPosition position = null;
 
   public ChokePoint(BWReplayCounter bwCounter, int x, int y) {
     super(bwCounter, x, y);
@@ -28,21 +23,21 @@ public class ChokePoint extends AContainerForPosition implements IChokePoint, Se
 
   @Override
   public Optional<Tuple<IRegion, IRegion>> getRegions() {
-    return getPropertyOnTimeLineStrategy(regions);
+    return Optional.ofNullable(regions);
   }
 
   @Override
   public Optional<Tuple<IPosition, IPosition>> getSides() {
-    return getPropertyOnTimeLineStrategy(sides);
+    return Optional.ofNullable(sides);
   }
 
   @Override
   public Optional<Double> getWidth() {
-    return getPropertyOnTimeLineStrategy(width);
+    return Optional.ofNullable(width);
   }
 
   @Override
   public Optional<IPosition> getPosition() {
-    return getPropertyOnTimeLineStrategy(position);
+    return Optional.ofNullable(position);
   }
 }
@@ -9,7 +9,9 @@ import gg.fel.cvut.cz.api.IRegion;
 import gg.fel.cvut.cz.api.ITilePosition;
 import gg.fel.cvut.cz.counters.BWReplayCounter;
 import gg.fel.cvut.cz.data.AContainer;
-import gg.fel.cvut.cz.data.properties.DynamicPropertyRegister;
+import gg.fel.cvut.cz.data.properties.DoubleDynamicPropertyRegister;
+import gg.fel.cvut.cz.data.properties.IntDynamicPropertyRegister;
+import gg.fel.cvut.cz.data.properties.IntStaticPropertyRegister;
 import gg.fel.cvut.cz.data.properties.Property;
 import gg.fel.cvut.cz.data.properties.StaticPropertyRegister;
 import gg.fel.cvut.cz.enums.GameTypeEnum;
@@ -24,14 +26,10 @@ public class Game extends AContainer implements IGame, Serializable {
       Property::new);
   protected final StaticPropertyRegister<GameTypeEnum, Property<GameTypeEnum>> gameType = new StaticPropertyRegister<GameTypeEnum, Property<GameTypeEnum>>(
       Property::new);
-  protected final DynamicPropertyRegister<Integer, Property<Integer>> frameCount = new DynamicPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
-  protected final DynamicPropertyRegister<Integer, Property<Integer>> FPS = new DynamicPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
-  protected final DynamicPropertyRegister<Double, Property<Double>> averageFPS = new DynamicPropertyRegister<Double, Property<Double>>(
-      Property::new);
-  protected final DynamicPropertyRegister<Integer, Property<Integer>> elapsedTime = new DynamicPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
+  protected final IntDynamicPropertyRegister frameCount = new IntDynamicPropertyRegister();
+  protected final IntDynamicPropertyRegister FPS = new IntDynamicPropertyRegister();
+  protected final DoubleDynamicPropertyRegister averageFPS = new DoubleDynamicPropertyRegister();
+  protected final IntDynamicPropertyRegister elapsedTime = new IntDynamicPropertyRegister();
   protected final StaticPropertyRegister<ImmutableSet<Region>, Property<ImmutableSet<Region>>> regions = new StaticPropertyRegister<ImmutableSet<Region>, Property<ImmutableSet<Region>>>(
       Property::new);
   protected final StaticPropertyRegister<ImmutableSet<ChokePoint>, Property<ImmutableSet<ChokePoint>>> chokePoints = new StaticPropertyRegister<ImmutableSet<ChokePoint>, Property<ImmutableSet<ChokePoint>>>(
@@ -40,14 +38,11 @@ public class Game extends AContainer implements IGame, Serializable {
       Property::new);
   protected final StaticPropertyRegister<ImmutableSet<BaseLocation>, Property<ImmutableSet<BaseLocation>>> startLocations = new StaticPropertyRegister<ImmutableSet<BaseLocation>, Property<ImmutableSet<BaseLocation>>>(
       Property::new);
-  protected final StaticPropertyRegister<Integer, Property<Integer>> mapWidth = new StaticPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
-  protected final StaticPropertyRegister<Integer, Property<Integer>> mapHeight = new StaticPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
+  protected final IntStaticPropertyRegister mapWidth = new IntStaticPropertyRegister();
+  protected final IntStaticPropertyRegister mapHeight = new IntStaticPropertyRegister();
   protected final StaticPropertyRegister<String, Property<String>> mapName = new StaticPropertyRegister<String, Property<String>>(
       Property::new);
-  protected final StaticPropertyRegister<ImmutableSet<TilePosition>, Property<ImmutableSet<TilePosition>>> grid = new StaticPropertyRegister<ImmutableSet<TilePosition>, Property<ImmutableSet<TilePosition>>>(
-      Property::new);
+  protected volatile TileGrid grid = null;
 
   public Game(BWReplayCounter bwCounter) {
     super(bwCounter);
@@ -76,22 +71,22 @@ public class Game extends AContainer implements IGame, Serializable {
 
   @Override
   public Optional<Integer> getFrameCount() {
-    return getPropertyOnTimeLineStrategy(frameCount);
+    return getIntOnTimeLineStrategy(frameCount);
   }
 
   @Override
   public Optional<Integer> getFPS() {
-    return getPropertyOnTimeLineStrategy(FPS);
+    return getIntOnTimeLineStrategy(FPS);
   }
 
   @Override
   public Optional<Double> getAverageFPS() {
-    return getPropertyOnTimeLineStrategy(averageFPS);
+    return getDoubleOnTimeLineStrategy(averageFPS);
   }
 
   @Override
   public Optional<Integer> elapsedTime() {
-    return getPropertyOnTimeLineStrategy(elapsedTime);
+    return getIntOnTimeLineStrategy(elapsedTime);
   }
 
   @Override
@@ -120,12 +115,12 @@ public class Game extends AContainer implements IGame, Serializable {
 
   @Override
   public Optional<Integer> mapWidth() {
-    return getPropertyOnTimeLineStrategy(mapWidth);
+    return getIntOnTimeLineStrategy(mapWidth);
   }
 
   @Override
   public Optional<Integer> mapHeight() {
-    return getPropertyOnTimeLineStrategy(mapHeight);
+    return getIntOnTimeLineStrategy(mapHeight);
   }
 
   @Override
@@ -135,8 +130,8 @@ public class Game extends AContainer implements IGame, Serializable {
 
   @Override
   public Optional<Stream<ITilePosition>> getGrid() {
-    return getPropertyOnTimeLineStrategyOnSet(grid)
-        .map(set -> set.stream().map(o -> o));
+    return Optional.ofNullable(grid)
+        .map(tileGrid -> tileGrid.getTiles().map(o -> o));
   }
 
 }
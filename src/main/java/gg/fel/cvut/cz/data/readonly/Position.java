@@ -5,21 +5,14 @@ import gg.fel.cvut.cz.api.IRegion;
 import gg.fel.cvut.cz.api.ITilePosition;
 import gg.fel.cvut.cz.counters.BWReplayCounter;
 import gg.fel.cvut.cz.data.AContainerForPosition;
-import gg.fel.cvut.cz.data.properties.Property;
-import gg.fel.cvut.cz.data.properties.StaticPropertyRegister;
 import java.io.Serializable;
 import java.util.Optional;
 
 public class Position extends AContainerForPosition implements IPosition, Serializable {
 
-  protected final StaticPropertyRegister<ITilePosition, Property<ITilePosition>> tilePosition = new StaticPropertyRegister<ITilePosition, Property<ITilePosition>>(
-      Property::new);
-  protected final StaticPropertyRegister<Integer, Property<Integer>> x = new StaticPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
-  protected final StaticPropertyRegister<Integer, Property<Integer>> y = new StaticPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
-  protected final StaticPropertyRegister<IRegion, Property<IRegion>> region = new StaticPropertyRegister<IRegion, Property<IRegion>>(
-      Property::new);
+  //properties are constant, they are set once and published by volatile write
+  protected volatile ITilePosition tilePosition = null;
+  protected volatile IRegion region = null;
 
   public Position(BWReplayCounter bwCounter, int x, int y) {
     super(bwCounter, x, y);
@@ -27,21 +20,21 @@ public class Position extends AContainerForPosition implements IPosition, Serial
 
   @Override
   public Optional<Integer> getX() {
-    return getPropertyOnTimeLineStrategy(x);
+    return Optional.of(x);
   }
 
   @Override
   public Optional<Integer> getY() {
-    return getPropertyOnTimeLineStrategy(y);
+    return Optional.of(y);
   }
 
   @Override
   public Optional<ITilePosition> getTilePosition() {
-    return getPropertyOnTimeLineStrategy(tilePosition);
+    return Optional.ofNullable(tilePosition);
   }
 
   @Override
   public Optional<IRegion> getRegion() {
-    return getPropertyOnTimeLineStrategy(region);
+    return Optional.ofNullable(region);
   }
 }
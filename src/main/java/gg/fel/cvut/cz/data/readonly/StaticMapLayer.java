@@ -0,0 +1,80 @@
+package gg.fel.cvut.cz.data.readonly;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import java.util.function.IntBinaryOperator;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Static layer of map - data of tiles which are same every time map is played. Layer is analysed
+ * once and then it can be used to fill static properties of tiles directly. Regions, chokepoints
+ * and base locations are not part of layer on purpose - they wrap objects of BWTA analysis, so
+ * BWTA has to analyse map even when layer is loaded from cache.
+ */
+@Getter
+@EqualsAndHashCode
+public class StaticMapLayer implements Serializable {
+
+  private final String mapName;
+  private final String mapHash;
+  private final int width, height;
+
+  //indexed by "y * width + x" as tiles in grid
+  private final int[] groundHeights;
+
+  @JsonCreator
+  public StaticMapLayer(@JsonProperty("mapName") String mapName,
+      @JsonProperty("mapHash") String mapHash, @JsonProperty("width") int width,
+      @JsonProperty("height") int height, @JsonProperty("groundHeights") int[] groundHeights) {
+    if (groundHeights.length != width * height) {
+      throw new IllegalArgumentException("Ground heights do not match size of map.");
+    }
+    this.mapName = mapName;
+    this.mapHash = mapHash;
+    this.width = width;
+    this.height = height;
+    this.groundHeights = groundHeights;
+  }
+
+  /**
+   * Analyses static layer of map in game
+   */
+  public static StaticMapLayer analyze(bwapi.Game game) {
+    return analyze(game.mapName(), game.mapHash(), game.mapWidth(), game.mapHeight(),
+        game::getGroundHeight);
+  }
+
+  /**
+   * Analyses static layer of map of given size, ground height of tile is given by its coordinates
+   */
+  public static StaticMapLayer analyze(String mapName, String mapHash, int width, int height,
+      IntBinaryOperator groundHeightOfTile) {
+    int[] groundHeights = new int[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        groundHeights[y * width + x] = groundHeightOfTile.applyAsInt(x, y);
+      }
+    }
+    return new StaticMapLayer(mapName, mapHash, width, height, groundHeights);
+  }
+
+  /**
+   * Fills static properties of tiles in grid. Grid is expected to be of same size as layer.
+   */
+  public void fillGrid(TileGrid grid) {
+    if (grid.getWidth() != width || grid.getHeight() != height) {
+      throw new IllegalArgumentException("Grid does not match size of map.");
+    }
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        TilePosition tile = grid.getTile(x, y);
+        if (tile.groundHeight == null) {
+          tile.groundHeight = groundHeights[y * width + x];
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,81 @@
+package gg.fel.cvut.cz.data.readonly;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.Getter;
+
+/**
+ * Grid of all tiles on map. Tiles are stored in flat array indexed by "y * width + x", so lookup
+ * of tile by its coordinates is constant and does not allocate.
+ */
+public class TileGrid implements Serializable {
+
+  private static final int[][] neighboursDiffs = {{0, 1}, {1, 1}, {1, 0}, {-1, 0},
+      {-1, -1}, {0, -1}, {1, -1}, {-1, 1}};
+
+  @Getter
+  private final int width, height;
+  private final TilePosition[] tiles;
+
+  /**
+   * Creates grid with all tiles of map created by factory
+   */
+  public TileGrid(int width, int height, TileFactory tileFactory) {
+    this.width = width;
+    this.height = height;
+    this.tiles = new TilePosition[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        tiles[y * width + x] = tileFactory.createTile(this, x, y);
+      }
+    }
+  }
+
+  public boolean isValid(int x, int y) {
+    return x >= 0 && y >= 0 && x < width && y < height;
+  }
+
+  /**
+   * Returns tile on coordinates or null when coordinates are outside of map
+   */
+  public TilePosition getTile(int x, int y) {
+    if (!isValid(x, y)) {
+      return null;
+    }
+    return tiles[y * width + x];
+  }
+
+  /**
+   * Passes all neighbours of tile on coordinates to consumer
+   */
+  public void forEachNeighbour(int x, int y, Consumer<? super TilePosition> consumer) {
+    for (int[] diff : neighboursDiffs) {
+      TilePosition neighbour = getTile(x + diff[0], y + diff[1]);
+      if (neighbour != null) {
+        consumer.accept(neighbour);
+      }
+    }
+  }
+
+  public Stream<TilePosition> getNeighbours(int x, int y) {
+    return Stream.of(neighboursDiffs)
+        .map(diff -> getTile(x + diff[0], y + diff[1]))
+        .filter(Objects::nonNull);
+  }
+
+  public Stream<TilePosition> getTiles() {
+    return Arrays.stream(tiles);
+  }
+
+  /**
+   * Contract how to create tile on coordinates
+   */
+  public interface TileFactory {
+
+    TilePosition createTile(TileGrid grid, int x, int y);
+  }
+
+}
@@ -1,14 +1,12 @@
 package gg.fel.cvut.cz.data.readonly;
 
-import com.google.common.collect.ImmutableSet;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import gg.fel.cvut.cz.api.IPosition;
 import gg.fel.cvut.cz.api.ITilePosition;
 import gg.fel.cvut.cz.api.IUnit;
 import gg.fel.cvut.cz.api.IUnitType;
 import gg.fel.cvut.cz.counters.BWReplayCounter;
 import gg.fel.cvut.cz.data.AContainerForPosition;
-import gg.fel.cvut.cz.data.properties.Property;
-import gg.fel.cvut.cz.data.properties.StaticPropertyRegister;
 import java.io.Serializable;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -16,15 +14,21 @@ import java.util.stream.Stream;
 //TODO
 public class TilePosition extends AContainerForPosition implements ITilePosition, Serializable {
 
-  protected final StaticPropertyRegister<Integer, Property<Integer>> groundHeight = new StaticPropertyRegister<Integer, Property<Integer>>(
-      Property::new);
-  protected final StaticPropertyRegister<Position, Property<Position>> position = new StaticPropertyRegister<Position, Property<Position>>(
-      Property::new);
-  protected final StaticPropertyRegister<ImmutableSet<TilePosition>, Property<ImmutableSet<TilePosition>>> neighbours = new StaticPropertyRegister<ImmutableSet<TilePosition>, Property<ImmutableSet<TilePosition>>>(
-      Property::new);
+  //properties are constant, they are set once and published by volatile write
+  protected volatile Integer groundHeight = null;
+  protected volatile Position position = null;
+
+  //neighbours are served from grid
+  @JsonIgnore
+  protected final TileGrid grid;
 
   public TilePosition(BWReplayCounter bwCounter, int x, int y) {
+    this(bwCounter, x, y, null);
+  }
+
+  public TilePosition(BWReplayCounter bwCounter, int x, int y, TileGrid grid) {
     super(bwCounter, x, y);
+    this.grid = grid;
   }
 
   @Override
@@ -39,7 +43,7 @@ public class TilePosition extends AContainerForPosition implements ITilePosition
 
   @Override
   public Optional<Integer> getGroundHeight() {
-    return Optional.empty();
+    return Optional.ofNullable(groundHeight);
   }
 
   @Override
@@ -49,14 +53,13 @@ public class TilePosition extends AContainerForPosition implements ITilePosition
 
   @Override
   public Optional<IPosition> getPosition() {
-    return Optional.empty();
+    return Optional.ofNullable(position);
   }
 
-  //TODO cyclic reference when serializing
   @Override
   public Optional<Stream<ITilePosition>> getNeighbours() {
-    return getPropertyOnTimeLineStrategyOnSet(neighbours)
-        .map(set -> set.stream().map(o -> o));
+    return Optional.ofNullable(grid)
+        .map(tileGrid -> tileGrid.getNeighbours(x, y).map(o -> o));
   }
 
   @Override
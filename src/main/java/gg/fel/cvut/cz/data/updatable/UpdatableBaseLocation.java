@@ -5,7 +5,6 @@ import gg.fel.cvut.cz.counters.BWReplayCounter;
 import gg.fel.cvut.cz.data.AContainer;
 import gg.fel.cvut.cz.data.IUpdatableContainer;
 import gg.fel.cvut.cz.data.readonly.BaseLocation;
-import gg.fel.cvut.cz.data.readonly.Position;
 import gg.fel.cvut.cz.facades.managers.UpdateManager;
 import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
 import gg.fel.cvut.cz.wrappers.WBaseLocation;
@@ -35,44 +34,44 @@ public class UpdatableBaseLocation extends BaseLocation implements
   public void update(UpdateManager internalUpdaterFacade,
       int currentFrame) {
     try {
-      lock.writeLock().lock();
+      lock().writeLock().lock();
 
       //updates
-      minerals.addProperty(wrapped.getScInstance().minerals(), currentFrame);
-      gas.addProperty(wrapped.getScInstance().gas(), currentFrame);
-      if (staticMineralsAsUnits.propertyHasNotBeenAdded()) {
-        staticMineralsAsUnits
-            .addProperty(ImmutableSet.copyOf(wrapped.getScInstance().getStaticMinerals().stream()
+      minerals.addInt(wrapped.getScInstance().minerals(), currentFrame);
+      gas.addInt(wrapped.getScInstance().gas(), currentFrame);
+      if (staticMineralsAsUnits == null) {
+        staticMineralsAsUnits = ImmutableSet
+            .copyOf(wrapped.getScInstance().getStaticMinerals().stream()
                 .map(WUnit::getOrCreateWrapper)
                 .map(internalUpdaterFacade::getDataContainer)
                 .filter(Optional::isPresent)
                 .map(Optional::get)
-                .collect(Collectors.toSet())), 0);
+                .collect(Collectors.toSet()));
       }
-      if (geysers.propertyHasNotBeenAdded()) {
-        geysers.addProperty(ImmutableSet.copyOf(wrapped.getScInstance().getGeysers().stream()
+      if (geysers == null) {
+        geysers = ImmutableSet.copyOf(wrapped.getScInstance().getGeysers().stream()
             .map(WUnit::getOrCreateWrapper)
             .map(internalUpdaterFacade::getDataContainer)
             .filter(Optional::isPresent)
             .map(Optional::get)
-            .collect(Collectors.toSet())), 0);
+            .collect(Collectors.toSet()));
       }
-      if (isIsland.propertyHasNotBeenAdded()) {
-        isIsland.addProperty(wrapped.getScInstance().isIsland(), 0);
+      if (isIsland == null) {
+        isIsland = wrapped.getScInstance().isIsland();
       }
-      if (isStartLocation.propertyHasNotBeenAdded()) {
-        isStartLocation.addProperty(wrapped.getScInstance().isStartLocation(), 0);
+      if (isStartLocation == null) {
+        isStartLocation = wrapped.getScInstance().isStartLocation();
       }
-      if (position.propertyHasNotBeenAdded()) {
-        Optional<Position> position = internalUpdaterFacade
-            .getDataContainer(WPosition.getOrCreateWrapper(wrapped.getScInstance().getPosition()));
-        position.ifPresent(p -> this.position.addProperty(p, 0));
+      if (position == null) {
+        position = internalUpdaterFacade
+            .getDataContainer(WPosition.getOrCreateWrapper(wrapped.getScInstance().getPosition()))
+            .orElse(null);
       }
 
       //updated in frame
       updatedInFrame = currentFrame;
     } finally {
-      lock.writeLock().unlock();
+      lock().writeLock().unlock();
     }
   }
 
@@ -93,9 +92,9 @@ public class UpdatableBaseLocation extends BaseLocation implements
 
   @Override
   public Stream<? extends AContainer> getReferencedContainers(int currentFrame) {
-    return Stream.of(staticMineralsAsUnits.getValueInFrame(currentFrame),
-        geysers.getValueInFrame(currentFrame),
-        position.getValueInFrame(currentFrame).map(ImmutableSet::of))
+    return Stream.of(Optional.ofNullable(staticMineralsAsUnits),
+        Optional.ofNullable(geysers),
+        Optional.ofNullable(position).map(ImmutableSet::of))
         .filter(Optional::isPresent)
         .map(Optional::get)
         .flatMap(Collection::stream);
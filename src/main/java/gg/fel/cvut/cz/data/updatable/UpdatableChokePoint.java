@@ -7,6 +7,7 @@ import gg.fel.cvut.cz.data.readonly.ChokePoint;
 import gg.fel.cvut.cz.facades.managers.UpdateManager;
 import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
 import gg.fel.cvut.cz.wrappers.WChokePoint;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 //TODO implement
@@ -27,14 +28,8 @@ public class UpdatableChokePoint extends ChokePoint implements
 
   @Override
   public void update(UpdateManager internalUpdaterFacade, int currentFrame) {
-    try {
-      lock.writeLock().lock();
-
-      //updated in frame
-      updatedInFrame = currentFrame;
-    } finally {
-      lock.writeLock().unlock();
-    }
+    //static container has nothing to update, so it is not locked
+    updatedInFrame = currentFrame;
   }
 
   @Override
@@ -47,6 +42,12 @@ public class UpdatableChokePoint extends ChokePoint implements
     return Stream.empty();
   }
 
+  @Override
+  public void forEachReferencedContainer(int currentFrame,
+      Consumer<? super AContainer> consumer) {
+    //no references
+  }
+
   @Override
   public void update(UpdateManager updateManager, UpdateStrategy updateStrategy) {
     updateManager.update(this, updateStrategy);
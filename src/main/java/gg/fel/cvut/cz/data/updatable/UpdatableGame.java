@@ -14,11 +14,9 @@ import gg.fel.cvut.cz.wrappers.WChokePoint;
 import gg.fel.cvut.cz.wrappers.WGame;
 import gg.fel.cvut.cz.wrappers.WPlayer;
 import gg.fel.cvut.cz.wrappers.WRegion;
-import gg.fel.cvut.cz.wrappers.WTilePosition;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 //TODO implement creator
@@ -40,7 +38,7 @@ public class UpdatableGame extends Game implements
   @Override
   public void update(UpdateManager internalUpdaterFacade, int currentFrame) {
     try {
-      lock.writeLock().lock();
+      lock().writeLock().lock();
 
       //updates
       if (players.propertyHasNotBeenAdded()) {
@@ -55,10 +53,10 @@ public class UpdatableGame extends Game implements
         this.gameType
             .addProperty(GameTypeEnum.Unknown.getOurType(wrapped.getScInstance().getGameType()), 0);
       }
-      frameCount.addProperty(wrapped.getScInstance().getFrameCount(), currentFrame);
-      FPS.addProperty(wrapped.getScInstance().getFPS(), currentFrame);
-      averageFPS.addProperty(wrapped.getScInstance().getAverageFPS(), currentFrame);
-      elapsedTime.addProperty(wrapped.getScInstance().elapsedTime(), currentFrame);
+      frameCount.addInt(wrapped.getScInstance().getFrameCount(), currentFrame);
+      FPS.addInt(wrapped.getScInstance().getFPS(), currentFrame);
+      averageFPS.addDouble(wrapped.getScInstance().getAverageFPS(), currentFrame);
+      elapsedTime.addInt(wrapped.getScInstance().elapsedTime(), currentFrame);
       if (regions.propertyHasNotBeenAdded()) {
         regions.addProperty(ImmutableSet.copyOf(BWTA.getRegions().stream()
             .map(WRegion::getOrCreateWrapper)
@@ -92,30 +90,21 @@ public class UpdatableGame extends Game implements
             .collect(Collectors.toSet())), 0);
       }
       if (mapWidth.propertyHasNotBeenAdded()) {
-        mapWidth.addProperty(wrapped.getScInstance().mapWidth(), 0);
+        mapWidth.addInt(wrapped.getScInstance().mapWidth(), 0);
       }
       if (mapHeight.propertyHasNotBeenAdded()) {
-        mapHeight.addProperty(wrapped.getScInstance().mapHeight(), 0);
+        mapHeight.addInt(wrapped.getScInstance().mapHeight(), 0);
       }
       if (mapName.propertyHasNotBeenAdded()) {
         mapName.addProperty(wrapped.getScInstance().mapName(), 0);
       }
-      if (grid.propertyHasNotBeenAdded()) {
-        grid.addProperty(ImmutableSet.copyOf(
-            IntStream.range(0, wrapped.getScInstance().mapWidth()).boxed()
-                .flatMap(i -> IntStream.range(0, wrapped.getScInstance().mapHeight())
-                    .boxed().map(j -> new bwapi.TilePosition(i, j)))
-                .filter(bwapi.TilePosition::isValid)
-                .map(WTilePosition::getOrCreateWrapper)
-                .map(internalUpdaterFacade::getDataContainer)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toSet())), 0);
+      if (grid == null) {
+        grid = internalUpdaterFacade.getTileGrid().orElse(null);
       }
       //updated in frame
       updatedInFrame = currentFrame;
     } finally {
-      lock.writeLock().unlock();
+      lock().writeLock().unlock();
     }
   }
 
@@ -126,15 +115,18 @@ public class UpdatableGame extends Game implements
 
   @Override
   public Stream<? extends AContainer> getReferencedContainers(int currentFrame) {
-    return Stream.of(players.getValueInFrame(currentFrame),
+    Stream<? extends AContainer> containers = Stream.of(players.getValueInFrame(currentFrame),
         regions.getValueInFrame(currentFrame),
         chokePoints.getValueInFrame(currentFrame),
         baseLocations.getValueInFrame(currentFrame),
-        startLocations.getValueInFrame(currentFrame),
-        grid.getValueInFrame(currentFrame))
+        startLocations.getValueInFrame(currentFrame))
         .filter(Optional::isPresent)
         .map(Optional::get)
         .flatMap(Collection::stream);
+    if (grid == null) {
+      return containers;
+    }
+    return Stream.concat(containers, grid.getTiles());
   }
 
   @Override
@@ -7,6 +7,7 @@ import gg.fel.cvut.cz.data.readonly.Player;
 import gg.fel.cvut.cz.facades.managers.UpdateManager;
 import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
 import gg.fel.cvut.cz.wrappers.WPlayer;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 //TODO implement
@@ -28,12 +29,12 @@ public class UpdatablePlayer extends Player implements
   @Override
   public void update(UpdateManager internalUpdaterFacade, int currentFrame) {
     try {
-      lock.writeLock().lock();
+      lock().writeLock().lock();
 
       //updated in frame
       updatedInFrame = currentFrame;
     } finally {
-      lock.writeLock().unlock();
+      lock().writeLock().unlock();
     }
   }
 
@@ -47,6 +48,12 @@ public class UpdatablePlayer extends Player implements
     return Stream.empty();
   }
 
+  @Override
+  public void forEachReferencedContainer(int currentFrame,
+      Consumer<? super AContainer> consumer) {
+    //no references
+  }
+
   @Override
   public void update(UpdateManager updateManager, UpdateStrategy updateStrategy) {
     updateManager.update(this, updateStrategy);
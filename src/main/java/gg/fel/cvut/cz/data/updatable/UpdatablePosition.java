@@ -7,6 +7,7 @@ import gg.fel.cvut.cz.data.readonly.Position;
 import gg.fel.cvut.cz.facades.managers.UpdateManager;
 import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
 import gg.fel.cvut.cz.wrappers.WPosition;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 //TODO implement
@@ -28,14 +29,8 @@ public class UpdatablePosition extends Position implements
 
   @Override
   public void update(UpdateManager internalUpdaterFacade, int currentFrame) {
-    try {
-      lock.writeLock().lock();
-
-      //updated in frame
-      updatedInFrame = currentFrame;
-    } finally {
-      lock.writeLock().unlock();
-    }
+    //static container has nothing to update, so it is not locked
+    updatedInFrame = currentFrame;
   }
 
   @Override
@@ -48,6 +43,12 @@ public class UpdatablePosition extends Position implements
     return Stream.empty();
   }
 
+  @Override
+  public void forEachReferencedContainer(int currentFrame,
+      Consumer<? super AContainer> consumer) {
+    //no references
+  }
+
   @Override
   public void update(UpdateManager updateManager, UpdateStrategy updateStrategy) {
     updateManager.update(this, updateStrategy);
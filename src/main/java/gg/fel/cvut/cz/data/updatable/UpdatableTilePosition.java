@@ -1,26 +1,21 @@
 package gg.fel.cvut.cz.data.updatable;
 
-import com.google.common.collect.ImmutableSet;
 import gg.fel.cvut.cz.counters.BWReplayCounter;
 import gg.fel.cvut.cz.data.AContainer;
 import gg.fel.cvut.cz.data.IUpdatableContainer;
-import gg.fel.cvut.cz.data.readonly.Position;
+import gg.fel.cvut.cz.data.readonly.TileGrid;
 import gg.fel.cvut.cz.data.readonly.TilePosition;
 import gg.fel.cvut.cz.facades.managers.UpdateManager;
 import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
 import gg.fel.cvut.cz.wrappers.WPosition;
 import gg.fel.cvut.cz.wrappers.WTilePosition;
-import java.util.Collection;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 public class UpdatableTilePosition extends TilePosition implements
     IUpdatableContainer<WTilePosition, TilePosition> {
 
-  private transient final WTilePosition wrapped;
-  private static transient final int[][] neighboursDiffs = {{0, 1}, {1, 1}, {1, 0}, {-1, 0},
-      {-1, -1}, {0, -1}, {1, -1}, {-1, 1}};
+  private transient volatile WTilePosition wrapped;
 
   //TODO walkable position, 4x4. 2x + i, 2y + j
 
@@ -29,47 +24,41 @@ public class UpdatableTilePosition extends TilePosition implements
     this.wrapped = wrapped;
   }
 
+  /**
+   * Creates tile of grid. Wrapper of tile is created only when it is requested
+   */
+  public UpdatableTilePosition(BWReplayCounter bwCounter, int x, int y, TileGrid grid) {
+    super(bwCounter, x, y, grid);
+  }
+
   @Override
   public WTilePosition getWrappedSCInstance() {
+    if (wrapped == null) {
+      wrapped = WTilePosition.getOrCreateWrapper(new bwapi.TilePosition(x, y));
+    }
     return wrapped;
   }
 
   @Override
   public void update(UpdateManager internalUpdaterFacade, int currentFrame) {
-    try {
-      lock.writeLock().lock();
+    //static container is not locked - its fields are written once, always to the same values
+    if (groundHeight == null && internalUpdaterFacade.getGame().isPresent()) {
+      groundHeight = internalUpdaterFacade.getGame().get().getWrappedSCInstance()
+          .getScInstance().getGroundHeight(getScInstance());
+    }
+    if (position == null) {
+      position = internalUpdaterFacade
+          .getDataContainer(WPosition.getOrCreateWrapper(getScInstance().toPosition()))
+          .orElse(null);
+    }
 
-      //updates
-      if (groundHeight.propertyHasNotBeenAdded() && internalUpdaterFacade.getGame()
-          .isPresent()) {
-        groundHeight.addProperty(
-            internalUpdaterFacade.getGame().get().getWrappedSCInstance().getScInstance()
-                .getGroundHeight(wrapped.getScInstance()), 0);
-      }
-      if (position.propertyHasNotBeenAdded()) {
-        Optional<Position> position = internalUpdaterFacade
-            .getDataContainer(WPosition.getOrCreateWrapper(wrapped.getScInstance().toPosition()));
-        position.ifPresent(o -> this.position.addProperty(o, 0));
-      }
-      if (neighbours.propertyHasNotBeenAdded()) {
-        neighbours.addProperty(ImmutableSet.copyOf(
-            Stream.of(neighboursDiffs)
-                .map(ints -> new bwapi.TilePosition(wrapped.getX() + ints[0],
-                    wrapped.getY() + ints[1]))
-                .filter(bwapi.TilePosition::isValid)
-                .map(WTilePosition::getOrCreateWrapper)
-                .map(internalUpdaterFacade::getDataContainer)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(tilePosition -> !tilePosition.equals(this))
-                .collect(Collectors.toSet())), 0);
-      }
+    //updated in frame
+    updatedInFrame = currentFrame;
+  }
 
-      //updated in frame
-      updatedInFrame = currentFrame;
-    } finally {
-      lock.writeLock().unlock();
-    }
+  //tile of grid does not need registered wrapper to be updated
+  private bwapi.TilePosition getScInstance() {
+    return wrapped == null ? new bwapi.TilePosition(x, y) : wrapped.getScInstance();
   }
 
   @Override
@@ -84,10 +73,22 @@ public class UpdatableTilePosition extends TilePosition implements
 
   @Override
   public Stream<? extends AContainer> getReferencedContainers(int currentFrame) {
-    return Stream.of(neighbours.getValueInFrame(currentFrame),
-        position.getValueInFrame(currentFrame).map(ImmutableSet::of)).filter(Optional::isPresent)
-        .map(Optional::get)
-        .flatMap(Collection::stream);
+    Stream<TilePosition> neighbours = grid == null ? Stream.empty() : grid.getNeighbours(x, y);
+    if (position == null) {
+      return neighbours;
+    }
+    return Stream.concat(neighbours, Stream.of(position));
+  }
+
+  @Override
+  public void forEachReferencedContainer(int currentFrame,
+      Consumer<? super AContainer> consumer) {
+    if (grid != null) {
+      grid.forEachNeighbour(x, y, consumer);
+    }
+    if (position != null) {
+      consumer.accept(position);
+    }
   }
 
   @Override
@@ -7,6 +7,7 @@ import gg.fel.cvut.cz.data.readonly.UpgradeType;
 import gg.fel.cvut.cz.facades.managers.UpdateManager;
 import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
 import gg.fel.cvut.cz.wrappers.WUpgradeType;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 //TODO implement
@@ -28,12 +29,12 @@ public class UpdatableUpgradeType extends UpgradeType implements
   @Override
   public void update(UpdateManager internalUpdaterFacade, int currentFrame) {
     try {
-      lock.writeLock().lock();
+      lock().writeLock().lock();
 
       //updated in frame
       updatedInFrame = currentFrame;
     } finally {
-      lock.writeLock().unlock();
+      lock().writeLock().unlock();
     }
   }
 
@@ -52,6 +53,12 @@ public class UpdatableUpgradeType extends UpgradeType implements
     return Stream.empty();
   }
 
+  @Override
+  public void forEachReferencedContainer(int currentFrame,
+      Consumer<? super AContainer> consumer) {
+    //no references
+  }
+
   @Override
   public boolean shouldBeUpdated(UpdateStrategy updateStrategy, int depth, int currentFrame) {
     return updateStrategy.shouldBeUpdated(this, deltaOfUpdate(currentFrame), depth);
@@ -1,6 +1,7 @@
 package gg.fel.cvut.cz.facades;
 
 import bwapi.BWEventListener;
+import gg.fel.cvut.cz.data.AContainer;
 import gg.fel.cvut.cz.data.readonly.BaseLocation;
 import gg.fel.cvut.cz.data.readonly.Bullet;
 import gg.fel.cvut.cz.data.readonly.ChokePoint;
@@ -16,11 +17,19 @@ import gg.fel.cvut.cz.data.readonly.UpgradeType;
 import gg.fel.cvut.cz.data.readonly.WalkPosition;
 import gg.fel.cvut.cz.data.readonly.WeaponType;
 import gg.fel.cvut.cz.facades.managers.ReplayGameFacade;
+import gg.fel.cvut.cz.facades.queue.Command;
 import gg.fel.cvut.cz.facades.queue.IResponseReceiver;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandType;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandWithResponse.ExecutableStrategy;
 import gg.fel.cvut.cz.facades.queue.implementation.CommandWithResponse;
 import gg.fel.cvut.cz.facades.queue.implementation.CommandWithoutResponse;
+import gg.fel.cvut.cz.facades.queue.implementation.EnqueueStatus;
+import gg.fel.cvut.cz.facades.queue.implementation.ScheduledCommand;
 import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 //TODO specific interfaces to command units
 
@@ -41,25 +50,85 @@ public interface IGameDataUpdateAdapter extends IGameDataAccessAdapter, BWEventL
   void update(Bullet bulletToUpdate, UpdateStrategy updateStrategy);
 
   /**
-   * Sends command to game. When command is executed response is returned in asynchronous fashion
+   * Sends command to game. When command is executed response is returned in asynchronous fashion.
+   * Returns whether command was queued
    */
-  void sendCommandToGame(CommandWithResponse commandWithResponse);
+  EnqueueStatus sendCommandToGame(CommandWithResponse commandWithResponse);
 
   /**
-   * Sends command to game. No response is returned
+   * Sends command to game. No response is returned. Returns whether command was queued
    */
-  void sendCommandToGame(CommandWithoutResponse commandWithoutResponse);
+  EnqueueStatus sendCommandToGame(CommandWithoutResponse commandWithoutResponse);
 
   /**
-   * Updates all instances
+   * Schedules command to be sent to game in frame. Returned handle cancels it
+   */
+  ScheduledCommand scheduleCommand(Command command, int atFrame);
+
+  /**
+   * Schedules command to be sent to game each period of frames, starting in next frame. Same
+   * instance of command is sent each time. Returned handle cancels it
    */
-  void updateAll(UpdateStrategy updateStrategy, IResponseReceiver<Boolean> responseReceiver);
+  ScheduledCommand scheduleCommandEvery(Command command, int periodFrames);
+
+  /**
+   * Returns number of pending commands of type, so producers can adapt to the backlog
+   */
+  int getQueueDepth(CommandType commandType);
+
+  /**
+   * Updates all instances. Receiver gets false when update is discarded without execution. Returns
+   * whether update was queued
+   */
+  EnqueueStatus updateAll(UpdateStrategy updateStrategy,
+      IResponseReceiver<Boolean> responseReceiver);
 
   /**
    * Updates all instances
    */
   void updateAll(UpdateStrategy updateStrategy);
 
+  /**
+   * Sends command to game. Returned future is completed by result of command when command is
+   * executed or exceptionally when command fails, is not queued or is discarded later
+   */
+  default <V> CompletableFuture<V> sendCommandToGameAsync(CommandType commandType,
+      ExecutableStrategy<V> executableStrategy) {
+    CompletableFuture<V> future = new CompletableFuture<>();
+    EnqueueStatus status = sendCommandToGame(CommandWithResponse
+        .completing(commandType, future, executableStrategy));
+    if (!status.isQueued()) {
+      future.completeExceptionally(
+          new RejectedExecutionException("Command was not queued: " + status + "."));
+    }
+    return future;
+  }
+
+  /**
+   * Updates all instances. Returned future is completed when update is executed, by false when
+   * update is not queued or it is discarded
+   */
+  default CompletableFuture<Boolean> updateAllAsync(UpdateStrategy updateStrategy) {
+    CompletableFuture<Boolean> future = new CompletableFuture<>();
+    if (!updateAll(updateStrategy, future::complete).isQueued()) {
+      future.complete(false);
+    }
+    return future;
+  }
+
+  /**
+   * Updates container. Returned future is completed when update is executed, by false when
+   * container can not be updated
+   */
+  CompletableFuture<Boolean> updateAsync(AContainer container, UpdateStrategy updateStrategy);
+
+  /**
+   * Updates all containers in same frame. Returned future is completed when all of them are
+   * updated, by false when some of them can not be updated or update is discarded
+   */
+  CompletableFuture<Boolean> updateBatch(Collection<? extends AContainer> containers,
+      UpdateStrategy updateStrategy);
+
   void update(BaseLocation baseLocation, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> updateNotificationReceiver);
 
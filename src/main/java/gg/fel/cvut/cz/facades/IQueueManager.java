@@ -1,6 +1,9 @@
 package gg.fel.cvut.cz.facades;
 
 import gg.fel.cvut.cz.facades.queue.Command;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandType;
+import gg.fel.cvut.cz.facades.queue.implementation.EnqueueStatus;
+import gg.fel.cvut.cz.facades.queue.implementation.ScheduledCommand;
 
 /**
  * Contract for command executor
@@ -8,13 +11,29 @@ import gg.fel.cvut.cz.facades.queue.Command;
 public interface IQueueManager {
 
   /**
-   * Adds command to queue so it can be executed in the future
+   * Execute as many commands as possible in given time interval
    */
   void executeCommands(long timeResources);
 
   /**
-   * Execute as many commands as possible in given time interval
+   * Adds command to queue so it can be executed in the future. Returns whether command was queued
+   * - producer should back off when queue of type is full.
+   */
+  EnqueueStatus addCommand(Command command);
+
+  /**
+   * Schedules command to be added to queue in frame
+   */
+  ScheduledCommand schedule(Command command, int atFrame);
+
+  /**
+   * Schedules command to be added to queue each period of frames, starting in next frame
+   */
+  ScheduledCommand scheduleEvery(Command command, int periodFrames);
+
+  /**
+   * Returns number of pending commands of type
    */
-  void addCommand(Command command);
+  int getQueueDepth(CommandType commandType);
 
 }
@@ -4,6 +4,7 @@ import gg.fel.cvut.cz.data.AContainer;
 import gg.fel.cvut.cz.data.readonly.Bullet;
 import gg.fel.cvut.cz.data.readonly.Race;
 import gg.fel.cvut.cz.data.readonly.TechType;
+import gg.fel.cvut.cz.data.readonly.TileGrid;
 import gg.fel.cvut.cz.data.readonly.Unit;
 import gg.fel.cvut.cz.data.readonly.UnitType;
 import gg.fel.cvut.cz.data.readonly.UpgradeType;
@@ -34,6 +35,11 @@ public interface IUpdateManager extends IGameDataWrapper {
 
   Optional<UpdatableGame> getGame();
 
+  /**
+   * Grid with all tiles of map, present once game is set
+   */
+  Optional<TileGrid> getTileGrid();
+
   Stream<Unit> getUnits();
 
   Stream<Bullet> getBullets();
@@ -0,0 +1,49 @@
+package gg.fel.cvut.cz.facades.data;
+
+import gg.fel.cvut.cz.data.AContainer;
+import gg.fel.cvut.cz.data.IUpdatableContainer;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Tracks containers which data may have changed since they were parsed last time. Containers are
+ * marked by callbacks of game and by sweep of time-sensitive containers each frame, so parser does
+ * not have to go through all containers.
+ */
+public class DirtyContainerTracker {
+
+  private final Set<IUpdatableContainer<?, ?>> dirtyContainers = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Marks container as dirty. Containers which are not updatable are ignored.
+   */
+  public void markDirty(AContainer container) {
+    if (container instanceof IUpdatableContainer<?, ?>) {
+      dirtyContainers.add((IUpdatableContainer<?, ?>) container);
+    }
+  }
+
+  public boolean isDirty(AContainer container) {
+    return dirtyContainers.contains(container);
+  }
+
+  public int getDirtyCount() {
+    return dirtyContainers.size();
+  }
+
+  /**
+   * Passes all dirty containers to consumer and unmarks them. Container marked during draining is
+   * either passed or kept for next draining.
+   */
+  public void drainDirty(Consumer<IUpdatableContainer<?, ?>> consumer) {
+    Iterator<IUpdatableContainer<?, ?>> iterator = dirtyContainers.iterator();
+    while (iterator.hasNext()) {
+      IUpdatableContainer<?, ?> container = iterator.next();
+      iterator.remove();
+      consumer.accept(container);
+    }
+  }
+
+}
@@ -0,0 +1,119 @@
+package gg.fel.cvut.cz.facades.data;
+
+import gg.fel.cvut.cz.data.AContainer;
+import gg.fel.cvut.cz.data.IUpdatableContainer;
+import gg.fel.cvut.cz.facades.managers.UpdateManager;
+import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Manage update tree from object in parallel. Tree is traversed level by level as in
+ * UpdateTreeExecutor, containers in same level are updated by ForkJoin tasks. Each container is
+ * scheduled by the first task which adds it to containers met by traversal - as all tasks of
+ * level discover containers in same depth, the same containers are updated as by sequential
+ * executor, only order differs.
+ * <p>
+ * Updates of containers have to be safe to run concurrently - containers take their write locks.
+ */
+public class ParallelUpdateTreeExecutor {
+
+  //size of part of level which is not split anymore
+  private static final int SEQUENTIAL_THRESHOLD = 32;
+
+  private final Set<Integer> visited = ConcurrentHashMap.newKeySet();
+  private final UpdateStrategy updateStrategy;
+  private final int currentFrame;
+  private final UpdateManager updateManager;
+
+  private ParallelUpdateTreeExecutor(UpdateStrategy updateStrategy, int currentFrame,
+      UpdateManager updateManager) {
+    this.updateStrategy = updateStrategy;
+    this.currentFrame = currentFrame;
+    this.updateManager = updateManager;
+  }
+
+  /**
+   * Executes update of given notes and all referenced node we care about - by update strategy
+   */
+  public static void executeUpdate(IUpdatableContainer<?, ?> fromNode,
+      UpdateStrategy updateStrategy, int currentFrame, UpdateManager updateManager,
+      ForkJoinPool pool) {
+    if (fromNode.shouldBeUpdated(updateStrategy, 0, currentFrame)) {
+      ParallelUpdateTreeExecutor executor = new ParallelUpdateTreeExecutor(updateStrategy,
+          currentFrame, updateManager);
+      executor.visited.add(fromNode.getContainer().getContainerIndex());
+      List<IUpdatableContainer<?, ?>> level = Collections.singletonList(fromNode);
+      int depth = 0;
+      while (!level.isEmpty()) {
+        Queue<IUpdatableContainer<?, ?>> nextLevel = new ConcurrentLinkedQueue<>();
+        pool.invoke(executor.new LevelUpdate(level, 0, level.size(), depth + 1, nextLevel));
+        level = new ArrayList<>(nextLevel);
+        depth++;
+      }
+    }
+  }
+
+  /**
+   * Registers container for update in next level if it has not been met yet
+   */
+  private void updateTree(AContainer container, int depth,
+      Queue<IUpdatableContainer<?, ?>> nextLevel) {
+
+    //only first task which meets container decides about it, depth is same for all of them
+    if (container instanceof IUpdatableContainer<?, ?>
+        && visited.add(container.getContainerIndex())) {
+      IUpdatableContainer<?, ?> updatable = (IUpdatableContainer<?, ?>) container;
+      if (updatable.shouldBeUpdated(updateStrategy, depth, currentFrame)) {
+        nextLevel.add(updatable);
+      }
+    }
+  }
+
+  /**
+   * Updates part of level and collects references for next level
+   */
+  private class LevelUpdate extends RecursiveAction {
+
+    private final List<IUpdatableContainer<?, ?>> level;
+    private final int from, to, nextDepth;
+    private final Queue<IUpdatableContainer<?, ?>> nextLevel;
+
+    private LevelUpdate(List<IUpdatableContainer<?, ?>> level, int from, int to, int nextDepth,
+        Queue<IUpdatableContainer<?, ?>> nextLevel) {
+      this.level = level;
+      this.from = from;
+      this.to = to;
+      this.nextDepth = nextDepth;
+      this.nextLevel = nextLevel;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= SEQUENTIAL_THRESHOLD) {
+        for (int i = from; i < to; i++) {
+          IUpdatableContainer<?, ?> container = level.get(i);
+
+          //execute update
+          container.update(updateManager, currentFrame);
+
+          //check references
+          container.forEachReferencedContainer(currentFrame,
+              o -> updateTree(o, nextDepth, nextLevel));
+        }
+      } else {
+        int middle = (from + to) >>> 1;
+        invokeAll(new LevelUpdate(level, from, middle, nextDepth, nextLevel),
+            new LevelUpdate(level, middle, to, nextDepth, nextLevel));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,54 @@
+package gg.fel.cvut.cz.facades.data;
+
+import java.util.Arrays;
+
+/**
+ * Detects units whose state observed in game has changed since they were checked last time - its
+ * position, hit points, shields, energy, resources or activity. Sweep of units then passes only
+ * moving, fighting or otherwise changing units to parser, idle buildings and untouched resources
+ * are skipped. Other changes of units are reported by callbacks of game.
+ * <p>
+ * State is kept as hash in array indexed by id of unit. Detector is used by game thread only.
+ */
+public class UnitChangeDetector {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  //zero stands for unit which has not been checked yet
+  private long[] states = new long[INITIAL_CAPACITY];
+
+  /**
+   * Returns true when state of unit differs from the one it had when it was checked last time
+   */
+  public boolean hasChanged(bwapi.Unit unit) {
+    bwapi.Position position = unit.getPosition();
+    long state = 17;
+    state = 31 * state + position.getX();
+    state = 31 * state + position.getY();
+    state = 31 * state + unit.getHitPoints();
+    state = 31 * state + unit.getShields();
+    state = 31 * state + unit.getEnergy();
+    state = 31 * state + unit.getResources();
+    state = 31 * state + (unit.isIdle() ? 1 : 0);
+    return hasChanged(unit.getID(), state);
+  }
+
+  /**
+   * Returns true when hash of state of unit with id differs from the one it had when it was checked
+   * last time. Hash is remembered
+   */
+  public boolean hasChanged(int id, long state) {
+    if (id >= states.length) {
+      states = Arrays.copyOf(states, Math.max(states.length * 2, id + 1));
+    }
+    if (state == 0) {
+      state = 1;
+    }
+    if (states[id] == state) {
+      return false;
+    }
+    states[id] = state;
+    return true;
+  }
+
+}
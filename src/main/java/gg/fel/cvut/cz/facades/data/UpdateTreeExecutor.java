@@ -1,30 +1,45 @@
 package gg.fel.cvut.cz.facades.data;
 
-import gg.fel.cvut.cz.api.Tuple;
+import gg.fel.cvut.cz.data.AContainer;
 import gg.fel.cvut.cz.data.IUpdatableContainer;
 import gg.fel.cvut.cz.facades.managers.UpdateManager;
 import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.function.Consumer;
 
 /**
- * Manage update tree from object
+ * Manage update tree from object. Containers met by traversal are marked in bitmap of thread, queue
+ * is kept in arrays reused by all traversals of thread, so traversal does not allocate.
+ * <p>
+ * Traversal started from update of container shares containers met with traversal which runs it -
+ * containers already met by any of them are not updated again.
  */
 public class UpdateTreeExecutor {
 
-  private final Queue<Tuple<IUpdatableContainer<?, ?>, Integer>> toUpdate = new LinkedList<>();
-  private final Set<IUpdatableContainer<?, ?>> containersScheduledForUpdate = new HashSet<>();
-  private final UpdateStrategy updateStrategy;
-  private final int currentFrame;
-  private final UpdateManager updateManager;
+  private static final int INITIAL_CAPACITY = 64;
 
-  private UpdateTreeExecutor(UpdateStrategy updateStrategy, int currentFrame,
-      UpdateManager updateManager) {
-    this.updateStrategy = updateStrategy;
-    this.currentFrame = currentFrame;
-    this.updateManager = updateManager;
+  private static final ThreadLocal<UpdateTreeExecutor> EXECUTORS = ThreadLocal
+      .withInitial(() -> new UpdateTreeExecutor(new VisitedContainers(), false));
+
+  private IUpdatableContainer<?, ?>[] toUpdate = new IUpdatableContainer<?, ?>[INITIAL_CAPACITY];
+  private int[] depths = new int[INITIAL_CAPACITY];
+  private int head, tail;
+  private boolean running;
+
+  //containers met by traversal of thread, nested traversal does not clear them
+  private final VisitedContainers visited;
+  private final boolean nested;
+
+  //state of current traversal
+  private int depthOfReferences;
+  private UpdateStrategy updateStrategy;
+  private int currentFrame;
+  private UpdateManager updateManager;
+  private final Consumer<AContainer> referenceConsumer = this::updateTree;
+
+  private UpdateTreeExecutor(VisitedContainers visited, boolean nested) {
+    this.visited = visited;
+    this.nested = nested;
   }
 
   /**
@@ -34,12 +49,44 @@ public class UpdateTreeExecutor {
       UpdateStrategy updateStrategy,
       int currentFrame, UpdateManager updateManager) {
     if (fromNode.shouldBeUpdated(updateStrategy, 0, currentFrame)) {
-      UpdateTreeExecutor updateTreeExecutor = new UpdateTreeExecutor(updateStrategy, currentFrame,
-          updateManager);
-      updateTreeExecutor.updateTree(fromNode, 0);
-      while (!updateTreeExecutor.toUpdate.isEmpty()) {
-        updateTreeExecutor.executeUpdate();
+      UpdateTreeExecutor updateTreeExecutor = EXECUTORS.get();
+
+      //update tree may be executed from update of container
+      if (updateTreeExecutor.running) {
+        updateTreeExecutor = new UpdateTreeExecutor(updateTreeExecutor.visited, true);
+      }
+      updateTreeExecutor.execute(fromNode, updateStrategy, currentFrame, updateManager);
+    }
+  }
+
+  private void execute(IUpdatableContainer<?, ?> fromNode, UpdateStrategy updateStrategy,
+      int currentFrame, UpdateManager updateManager) {
+    this.running = true;
+    this.updateStrategy = updateStrategy;
+    this.currentFrame = currentFrame;
+    this.updateManager = updateManager;
+    try {
+
+      //root met by outer traversal is updated by it
+      if (!visited.add(fromNode.getContainer())) {
+        return;
       }
+      enqueue(fromNode, 0);
+      while (head < tail) {
+        executeUpdate();
+      }
+    } finally {
+
+      //do not keep containers reachable
+      Arrays.fill(toUpdate, 0, tail, null);
+      head = 0;
+      tail = 0;
+      if (!nested) {
+        visited.clear();
+      }
+      this.updateStrategy = null;
+      this.updateManager = null;
+      this.running = false;
     }
   }
 
@@ -47,33 +94,42 @@ public class UpdateTreeExecutor {
    * Executes single update from queue and then add references to tree
    */
   private void executeUpdate() {
-    Tuple<IUpdatableContainer<?, ?>, Integer> tuple = toUpdate.poll();
+    IUpdatableContainer<?, ?> container = toUpdate[head];
+    int depth = depths[head];
+    head++;
 
     //execute update
-    tuple.getFirst().get().update(updateManager, currentFrame);
+    container.update(updateManager, currentFrame);
 
     //check references
-    tuple.getFirst().get().getReferencedContainers(currentFrame)
-        .filter(o -> o instanceof IUpdatableContainer<?, ?>)
-        .forEach(o -> updateTree((IUpdatableContainer<?, ?>) o, tuple.getSecond().get() + 1));
+    depthOfReferences = depth + 1;
+    container.forEachReferencedContainer(currentFrame, referenceConsumer);
   }
 
   /**
-   * Registers container for update. We traverse graph of dependencies using DFS.
+   * Registers container for update. We traverse graph of dependencies using BFS.
    */
-  private void updateTree(IUpdatableContainer<?, ?> container, int depth) {
+  private void updateTree(AContainer container) {
 
-    //check if we have met this container
-    if (!containersScheduledForUpdate.contains(container)) {
+    //check if we have met this container, it is processed at its lowest depth relative to root
+    if (container instanceof IUpdatableContainer<?, ?> && visited.add(container)) {
 
-      //object is not in queue. if it makes sense add it to it
-      if (container.shouldBeUpdated(updateStrategy, depth, currentFrame)) {
-        toUpdate.add(new Tuple<>(container, depth));
+      //if it makes sense add it to queue
+      IUpdatableContainer<?, ?> updatable = (IUpdatableContainer<?, ?>) container;
+      if (updatable.shouldBeUpdated(updateStrategy, depthOfReferences, currentFrame)) {
+        enqueue(updatable, depthOfReferences);
       }
+    }
+  }
 
-      //we processed it and find its lowest depth relative to root
-      containersScheduledForUpdate.add(container);
+  private void enqueue(IUpdatableContainer<?, ?> container, int depth) {
+    if (tail == toUpdate.length) {
+      toUpdate = Arrays.copyOf(toUpdate, tail * 2);
+      depths = Arrays.copyOf(depths, tail * 2);
     }
+    toUpdate[tail] = container;
+    depths[tail] = depth;
+    tail++;
   }
 
 }
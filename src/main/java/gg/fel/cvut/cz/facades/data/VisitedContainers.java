@@ -0,0 +1,49 @@
+package gg.fel.cvut.cz.facades.data;
+
+import gg.fel.cvut.cz.data.AContainer;
+import java.util.Arrays;
+
+/**
+ * Containers met by traversal of update tree, kept as bitmap indexed by dense index of container.
+ * Words with set bits are remembered, so set is cleared in time proportional to traversal, not to
+ * number of containers. Set is owned by single thread and reused by all its traversals.
+ */
+class VisitedContainers {
+
+  private static final int INITIAL_WORDS = 64;
+
+  private long[] words = new long[INITIAL_WORDS];
+  private int[] touchedWords = new int[INITIAL_WORDS];
+  private int touched;
+
+  /**
+   * Marks container as met. Returns false when it has been met before
+   */
+  boolean add(AContainer container) {
+    int index = container.getContainerIndex();
+    int word = index >>> 6;
+    if (word >= words.length) {
+      words = Arrays.copyOf(words, Math.max(words.length * 2, word + 1));
+    }
+    long bit = 1L << index, current = words[word];
+    if ((current & bit) != 0) {
+      return false;
+    }
+    if (current == 0) {
+      if (touched == touchedWords.length) {
+        touchedWords = Arrays.copyOf(touchedWords, touched * 2);
+      }
+      touchedWords[touched++] = word;
+    }
+    words[word] = current | bit;
+    return true;
+  }
+
+  void clear() {
+    for (int i = 0; i < touched; i++) {
+      words[touchedWords[i]] = 0;
+    }
+    touched = 0;
+  }
+
+}
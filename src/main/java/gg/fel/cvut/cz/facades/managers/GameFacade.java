@@ -14,7 +14,11 @@ import gg.fel.cvut.cz.api.ITilePosition;
 import gg.fel.cvut.cz.counters.IBWClock;
 import gg.fel.cvut.cz.data.AContainer;
 import gg.fel.cvut.cz.data.IUpdatableContainer;
+import gg.fel.cvut.cz.data.events.EventType;
+import gg.fel.cvut.cz.data.events.UnitEventBus;
+import gg.fel.cvut.cz.data.events.UnitEventBus.UnitEventContext;
 import gg.fel.cvut.cz.data.events.UpdatableEventsRegister;
+import gg.fel.cvut.cz.data.events.dispatch.AsyncEventDispatcher;
 import gg.fel.cvut.cz.data.events.subscribers.IGameHasEndedNotificationSubscriber;
 import gg.fel.cvut.cz.data.events.subscribers.IGameHasStartedNotificationSubscriber;
 import gg.fel.cvut.cz.data.events.subscribers.INukeDetectedNotificationSubscriber;
@@ -31,6 +35,7 @@ import gg.fel.cvut.cz.data.readonly.Player;
 import gg.fel.cvut.cz.data.readonly.Position;
 import gg.fel.cvut.cz.data.readonly.Race;
 import gg.fel.cvut.cz.data.readonly.Region;
+import gg.fel.cvut.cz.data.readonly.StaticMapLayer;
 import gg.fel.cvut.cz.data.readonly.TechType;
 import gg.fel.cvut.cz.data.readonly.TilePosition;
 import gg.fel.cvut.cz.data.readonly.Unit;
@@ -41,6 +46,7 @@ import gg.fel.cvut.cz.data.readonly.WeaponType;
 import gg.fel.cvut.cz.data.updatable.UpdatableBaseLocation;
 import gg.fel.cvut.cz.data.updatable.UpdatableBullet;
 import gg.fel.cvut.cz.data.updatable.UpdatableChokePoint;
+import gg.fel.cvut.cz.data.updatable.UpdatableGame;
 import gg.fel.cvut.cz.data.updatable.UpdatablePlayer;
 import gg.fel.cvut.cz.data.updatable.UpdatablePosition;
 import gg.fel.cvut.cz.data.updatable.UpdatableRace;
@@ -53,6 +59,7 @@ import gg.fel.cvut.cz.data.updatable.UpdatableUpgradeType;
 import gg.fel.cvut.cz.data.updatable.UpdatableWalkPosition;
 import gg.fel.cvut.cz.data.updatable.UpdatableWeaponType;
 import gg.fel.cvut.cz.enums.GameTypeEnum;
+import gg.fel.cvut.cz.enums.IGameTypes;
 import gg.fel.cvut.cz.enums.RaceTypeEnum;
 import gg.fel.cvut.cz.enums.TechTypeEnum;
 import gg.fel.cvut.cz.enums.UnitTypeEnum;
@@ -62,12 +69,21 @@ import gg.fel.cvut.cz.facades.IBWGameDataWrapper;
 import gg.fel.cvut.cz.facades.IGameDataAccessAdapter;
 import gg.fel.cvut.cz.facades.IGameDataUpdateAdapter;
 import gg.fel.cvut.cz.facades.IQueueManager;
+import gg.fel.cvut.cz.facades.data.DirtyContainerTracker;
+import gg.fel.cvut.cz.facades.queue.Command;
 import gg.fel.cvut.cz.facades.queue.IResponseReceiver;
 import gg.fel.cvut.cz.facades.queue.implementation.CommandType;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandWithResponse.ExecutableStrategy;
 import gg.fel.cvut.cz.facades.queue.implementation.CommandWithResponse;
 import gg.fel.cvut.cz.facades.queue.implementation.CommandWithoutResponse;
+import gg.fel.cvut.cz.facades.queue.implementation.DirtyTrackingParsingQueueManager;
+import gg.fel.cvut.cz.facades.queue.implementation.EnqueueStatus;
 import gg.fel.cvut.cz.facades.queue.implementation.ParsingQueueManager;
+import gg.fel.cvut.cz.facades.queue.implementation.PriorityClass;
 import gg.fel.cvut.cz.facades.queue.implementation.QueueManager;
+import gg.fel.cvut.cz.facades.queue.implementation.ScheduledCommand;
+import gg.fel.cvut.cz.facades.queue.implementation.UpdateCommandCoalescer;
+import gg.fel.cvut.cz.facades.queue.metrics.QueueMetrics;
 import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
 import gg.fel.cvut.cz.wrappers.WBaseLocation;
 import gg.fel.cvut.cz.wrappers.WBullet;
@@ -84,7 +100,13 @@ import gg.fel.cvut.cz.wrappers.WUpgradeType;
 import gg.fel.cvut.cz.wrappers.WWalkPosition;
 import gg.fel.cvut.cz.wrappers.WWeaponType;
 import gg.fel.cvut.cz.wrappers.Wrapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -107,6 +129,12 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
   private IQueueManager queueManager;
   private final UpdatableEventsRegister eventsRegister = new UpdatableEventsRegister();
   private final UpdateStrategy updateStrategy = UpdateStrategy.builder().build();
+  private final DirtyContainerTracker dirtyContainerTracker = new DirtyContainerTracker();
+  private final UpdateCommandCoalescer updateCommandCoalescer = new UpdateCommandCoalescer();
+
+  //subscribers of unit events with filters, notified with single subscribers of events
+  @Getter
+  private final UnitEventBus unitEventBus = new UnitEventBus();
 
   @Builder.Default
   private int gameDefaultSpeed = 20;
@@ -117,6 +145,36 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
   @Builder.Default
   private boolean gameHasEnded = false;
 
+  //cache of static map layer, map is analysed every game when it is not set
+  @Builder.Default
+  private Optional<StaticMapCache> staticMapCache = Optional.empty();
+
+  //replay parser refreshes only containers changed by events and visible ones, not all of them
+  @Builder.Default
+  private boolean parseOnlyChangedContainers = false;
+
+  //commands are admitted when 95th percentile of their recent costs fits remaining frame time
+  @Builder.Default
+  private boolean percentileScheduling = false;
+
+  //pool to execute update trees in parallel, trees are updated sequentially when it is not set
+  @Builder.Default
+  private Optional<ForkJoinPool> parallelUpdatePool = Optional.empty();
+
+  //workers to execute commands which do not touch BWAPI outside of frame, such commands are
+  //executed in frame when it is not set
+  @Builder.Default
+  private Optional<ExecutorService> commandWorkerPool = Optional.empty();
+
+  //metrics of queues and frames, exported as MBeans. nothing is recorded when it is not set
+  @Builder.Default
+  private Optional<QueueMetrics> queueMetrics = Optional.empty();
+
+  //dispatcher delivering events to subscribers by its threads, subscribers are notified by game
+  //thread when it is not set
+  @Builder.Default
+  private Optional<AsyncEventDispatcher> eventDispatcher = Optional.empty();
+
   //event notification receivers
   @Builder.Default
   private Optional<IUnitNotificationSubscriber> onUnitDiscover = Optional.empty();
@@ -175,9 +233,11 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
       .getCommandType("UPGRADE_TYPE_UPDATE");
   private static final CommandType WEAPON_TYPE_UPDATE = CommandType
       .getCommandType("WEAPON_TYPE_UPDATE");
-  private static final CommandType UPDATE_ALL = CommandType.getCommandType("UPDATE_ALL");
+  private static final CommandType UPDATE_ALL = CommandType
+      .getCommandType("UPDATE_ALL", PriorityClass.BACKGROUND, 1);
   private static final CommandType WALK_POSITION_UPDATE = CommandType
       .getCommandType("WALK_POSITION_UPDATE");
+  private static final CommandType UPDATE_BATCH = CommandType.getCommandType("UPDATE_BATCH");
 
   @Getter
   @Setter
@@ -218,8 +278,16 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
     try {
 
       updateManager.setGame(mirror.getGame());
+      parallelUpdatePool.ifPresent(updateManager::setParallelUpdatePool);
 
-      //analyze map
+      //fill static layer of map
+      updateManager.getTileGrid().ifPresent(grid -> staticMapCache
+          .map(cache -> cache.getOrAnalyze(mirror.getGame()))
+          .orElseGet(() -> StaticMapLayer.analyze(mirror.getGame()))
+          .fillGrid(grid));
+
+      //analyze map even on hit of cache - regions, chokepoints and base locations wrap objects
+      //of BWTA, so they are not part of static layer
       log.info("Analyzing map...");
       BWTA.analyze();
       log.info("Finished: Analyzing map.");
@@ -244,6 +312,17 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
   public void onEnd(boolean b) {
     eventsRegister.onEnd(getCurrentFrame() + 1, b);
     gameHasEnded = true;
+    if (queueManager instanceof QueueManager) {
+      QueueManager manager = (QueueManager) queueManager;
+      log.info("Frame execution time was exceeded in " + manager.getExceededDeadlines() + " of "
+          + manager.getExecutions() + " frames.");
+    }
+    log.info("Coalescing saved " + updateCommandCoalescer.getSavedExecutions() + " of "
+        + updateCommandCoalescer.getRequests() + " requested updates.");
+    queueMetrics.ifPresent(QueueMetrics::unregisterMBeans);
+
+    //all events are delivered before end of game
+    eventDispatcher.ifPresent(AsyncEventDispatcher::close);
     onEnd.ifPresent(subscriber -> {
       subscriber.notifySubscriber(b);
     });
@@ -251,9 +330,9 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
 
   @Override
   public void onSendText(String s) {
-    onSendText.ifPresent(subscriber -> {
-      subscriber.notifySubscriber(s);
-    });
+    if (onSendText.isPresent()) {
+      dispatchEvent(EventType.SEND_TEXT, s, null);
+    }
     eventsRegister.onSendText(s);
   }
 
@@ -261,7 +340,7 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
   public void onReceiveText(bwapi.Player player, String s) {
     Optional<Player> p = updateManager.getDataContainer(WPlayer.getOrCreateWrapper(player));
     if (p.isPresent() && onReceiveText.isPresent()) {
-      onReceiveText.get().notifySubscriber(p.get(), s);
+      dispatchEvent(EventType.RECEIVE_TEXT, p.get(), s);
     }
     eventsRegister.onReceiveText(p.get(), s);
   }
@@ -270,16 +349,17 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
   public void onPlayerLeft(bwapi.Player player) {
     Optional<Player> p = updateManager.getDataContainer(WPlayer.getOrCreateWrapper(player));
     if (p.isPresent() && onPlayerLeft.isPresent()) {
-      onPlayerLeft.get().notifySubscriber(p.get());
+      dispatchEvent(EventType.PLAYER_LEFT, p.get(), null);
     }
     eventsRegister.onPlayerLeft(p.get());
+    markDirty(p);
   }
 
   @Override
   public void onNukeDetect(bwapi.Position position) {
     Optional<Position> p = updateManager.getDataContainer(WPosition.getOrCreateWrapper(position));
     if (p.isPresent() && onNukeDetect.isPresent()) {
-      onNukeDetect.get().notifySubscriber(p.get());
+      dispatchEvent(EventType.NUKE_DETECT, p.get(), null);
     }
     eventsRegister.onNukeDetect(p.get());
   }
@@ -287,82 +367,204 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
   @Override
   public void onUnitDiscover(bwapi.Unit unit) {
     Optional<Unit> u = updateManager.getDataContainer(WUnit.getOrCreateWrapper(unit));
-    if (u.isPresent() && onUnitDiscover.isPresent()) {
-      onUnitDiscover.get().notifySubscriber(u.get());
+    if (u.isPresent() && isObserved(EventType.UNIT_DISCOVER, onUnitDiscover)) {
+      dispatchEvent(EventType.UNIT_DISCOVER, u.get(),
+          unitEventContext(EventType.UNIT_DISCOVER, unit));
     }
     eventsRegister.onUnitDiscover(u.get());
+    markDirty(u);
   }
 
   @Override
   public void onUnitEvade(bwapi.Unit unit) {
     Optional<Unit> u = updateManager.getDataContainer(WUnit.getOrCreateWrapper(unit));
-    if (u.isPresent() && onUnitEvade.isPresent()) {
-      onUnitEvade.get().notifySubscriber(u.get());
+    if (u.isPresent() && isObserved(EventType.UNIT_EVADE, onUnitEvade)) {
+      dispatchEvent(EventType.UNIT_EVADE, u.get(), unitEventContext(EventType.UNIT_EVADE, unit));
     }
     eventsRegister.onUnitEvade(u.get());
+    markDirty(u);
   }
 
   @Override
   public void onUnitShow(bwapi.Unit unit) {
     Optional<Unit> u = updateManager.getDataContainer(WUnit.getOrCreateWrapper(unit));
-    if (u.isPresent() && onUnitShow.isPresent()) {
-      onUnitShow.get().notifySubscriber(u.get());
+    if (u.isPresent() && isObserved(EventType.UNIT_SHOW, onUnitShow)) {
+      dispatchEvent(EventType.UNIT_SHOW, u.get(), unitEventContext(EventType.UNIT_SHOW, unit));
     }
     eventsRegister.onUnitShow(u.get());
+    markDirty(u);
   }
 
   @Override
   public void onUnitHide(bwapi.Unit unit) {
     Optional<Unit> u = updateManager.getDataContainer(WUnit.getOrCreateWrapper(unit));
-    if (u.isPresent() && onUnitHide.isPresent()) {
-      onUnitHide.get().notifySubscriber(u.get());
+    if (u.isPresent() && isObserved(EventType.UNIT_HIDE, onUnitHide)) {
+      dispatchEvent(EventType.UNIT_HIDE, u.get(), unitEventContext(EventType.UNIT_HIDE, unit));
     }
     eventsRegister.onUnitHide(u.get());
+    markDirty(u);
   }
 
   @Override
   public void onUnitCreate(bwapi.Unit unit) {
     Optional<Unit> u = updateManager.getDataContainer(WUnit.getOrCreateWrapper(unit));
-    if (u.isPresent() && onUnitCreate.isPresent()) {
-      onUnitCreate.get().notifySubscriber(u.get());
+    if (u.isPresent() && isObserved(EventType.UNIT_CREATE, onUnitCreate)) {
+      dispatchEvent(EventType.UNIT_CREATE, u.get(), unitEventContext(EventType.UNIT_CREATE, unit));
     }
     eventsRegister.onUnitCreate(u.get());
+    markDirty(u);
   }
 
   @Override
   public void onUnitDestroy(bwapi.Unit unit) {
     Optional<Unit> u = updateManager.getDataContainer(WUnit.getOrCreateWrapper(unit));
-    if (u.isPresent() && onUnitDestroy.isPresent()) {
-      onUnitDestroy.get().notifySubscriber(u.get());
+    if (u.isPresent() && isObserved(EventType.UNIT_DESTROY, onUnitDestroy)) {
+      dispatchEvent(EventType.UNIT_DESTROY, u.get(),
+          unitEventContext(EventType.UNIT_DESTROY, unit));
     }
     eventsRegister.onUnitDestroy(u.get());
+    markDirty(u);
   }
 
   @Override
   public void onUnitMorph(bwapi.Unit unit) {
     Optional<Unit> u = updateManager.getDataContainer(WUnit.getOrCreateWrapper(unit));
-    if (u.isPresent() && onUnitMorph.isPresent()) {
-      onUnitMorph.get().notifySubscriber(u.get());
+    if (u.isPresent() && isObserved(EventType.UNIT_MORPH, onUnitMorph)) {
+      dispatchEvent(EventType.UNIT_MORPH, u.get(), unitEventContext(EventType.UNIT_MORPH, unit));
     }
     eventsRegister.onUnitMorph(u.get());
+    markDirty(u);
   }
 
   @Override
   public void onUnitRenegade(bwapi.Unit unit) {
     Optional<Unit> u = updateManager.getDataContainer(WUnit.getOrCreateWrapper(unit));
-    if (u.isPresent() && onUnitRenegade.isPresent()) {
-      onUnitRenegade.get().notifySubscriber(u.get());
+    if (u.isPresent() && isObserved(EventType.UNIT_RENEGADE, onUnitRenegade)) {
+      dispatchEvent(EventType.UNIT_RENEGADE, u.get(),
+          unitEventContext(EventType.UNIT_RENEGADE, unit));
     }
     eventsRegister.onUnitRenegade(u.get());
+    markDirty(u);
   }
 
   @Override
   public void onUnitComplete(bwapi.Unit unit) {
     Optional<Unit> u = updateManager.getDataContainer(WUnit.getOrCreateWrapper(unit));
-    if (u.isPresent() && onUnitComplete.isPresent()) {
-      onUnitComplete.get().notifySubscriber(u.get());
+    if (u.isPresent() && isObserved(EventType.UNIT_COMPLETE, onUnitComplete)) {
+      dispatchEvent(EventType.UNIT_COMPLETE, u.get(),
+          unitEventContext(EventType.UNIT_COMPLETE, unit));
     }
     eventsRegister.onUnitComplete(u.get());
+    markDirty(u);
+  }
+
+  /**
+   * Returns true when event of unit has single subscriber or subscribers in bus
+   */
+  private boolean isObserved(EventType type, Optional<IUnitNotificationSubscriber> subscriber) {
+    return subscriber.isPresent() || unitEventBus.hasSubscribers(type);
+  }
+
+  /**
+   * Resolves owner, type and region of unit from game for filters of bus when event is observed by
+   * it. Region is resolved only when it is filtered
+   */
+  private UnitEventContext unitEventContext(EventType type, bwapi.Unit unit) {
+    if (!unitEventBus.hasSubscribers(type)) {
+      return UnitEventContext.UNKNOWN;
+    }
+    Optional<IPlayer> player = Optional.ofNullable(unit.getPlayer())
+        .flatMap(p -> updateManager.getDataContainer(WPlayer.getOrCreateWrapper(p)))
+        .map(p -> p);
+    Optional<UnitTypeEnum> unitType = Optional.ofNullable(unit.getType())
+        .map(t -> IGameTypes.getIndexInList(IGameTypes.UNIT_TYPES, t))
+        .filter(index -> index >= 0)
+        .map(index -> UnitTypeEnum.values()[index]);
+    Optional<IRegion> region = Optional.empty();
+    if (unitEventBus.filtersRegion(type)) {
+      region = Optional.ofNullable(unit.getPosition())
+          .map(BWTA::getRegion)
+          .flatMap(r -> updateManager.getDataContainer(WRegion.getOrCreateWrapper(r)))
+          .map(r -> r);
+    }
+    return new UnitEventContext(player, unitType, region);
+  }
+
+  /**
+   * Notifies subscriber of event directly or passes event to dispatcher
+   */
+  private void dispatchEvent(EventType type, Object subject, Object detail) {
+    if (eventDispatcher.isPresent()) {
+      eventDispatcher.get().publish(type, getCurrentFrame(), subject, detail);
+    } else {
+      deliverEvent(type, getCurrentFrame(), subject, detail);
+    }
+  }
+
+  /**
+   * Notifies subscriber of event type
+   */
+  private void deliverEvent(EventType type, int frame, Object subject, Object detail) {
+    switch (type) {
+      case SEND_TEXT:
+        onSendText.ifPresent(subscriber -> subscriber.notifySubscriber((String) subject));
+        break;
+      case RECEIVE_TEXT:
+        onReceiveText.ifPresent(subscriber -> subscriber
+            .notifySubscriber((Player) subject, (String) detail));
+        break;
+      case PLAYER_LEFT:
+        onPlayerLeft.ifPresent(subscriber -> subscriber.notifySubscriber((Player) subject));
+        break;
+      case NUKE_DETECT:
+        onNukeDetect.ifPresent(subscriber -> subscriber.notifySubscriber((Position) subject));
+        break;
+      case UNIT_DISCOVER:
+        onUnitDiscover.ifPresent(subscriber -> subscriber.notifySubscriber((Unit) subject));
+        unitEventBus.publish(type, (Unit) subject, (UnitEventContext) detail);
+        break;
+      case UNIT_EVADE:
+        onUnitEvade.ifPresent(subscriber -> subscriber.notifySubscriber((Unit) subject));
+        unitEventBus.publish(type, (Unit) subject, (UnitEventContext) detail);
+        break;
+      case UNIT_SHOW:
+        onUnitShow.ifPresent(subscriber -> subscriber.notifySubscriber((Unit) subject));
+        unitEventBus.publish(type, (Unit) subject, (UnitEventContext) detail);
+        break;
+      case UNIT_HIDE:
+        onUnitHide.ifPresent(subscriber -> subscriber.notifySubscriber((Unit) subject));
+        unitEventBus.publish(type, (Unit) subject, (UnitEventContext) detail);
+        break;
+      case UNIT_CREATE:
+        onUnitCreate.ifPresent(subscriber -> subscriber.notifySubscriber((Unit) subject));
+        unitEventBus.publish(type, (Unit) subject, (UnitEventContext) detail);
+        break;
+      case UNIT_DESTROY:
+        onUnitDestroy.ifPresent(subscriber -> subscriber.notifySubscriber((Unit) subject));
+        unitEventBus.publish(type, (Unit) subject, (UnitEventContext) detail);
+        break;
+      case UNIT_MORPH:
+        onUnitMorph.ifPresent(subscriber -> subscriber.notifySubscriber((Unit) subject));
+        unitEventBus.publish(type, (Unit) subject, (UnitEventContext) detail);
+        break;
+      case UNIT_RENEGADE:
+        onUnitRenegade.ifPresent(subscriber -> subscriber.notifySubscriber((Unit) subject));
+        unitEventBus.publish(type, (Unit) subject, (UnitEventContext) detail);
+        break;
+      case UNIT_COMPLETE:
+        onUnitComplete.ifPresent(subscriber -> subscriber.notifySubscriber((Unit) subject));
+        unitEventBus.publish(type, (Unit) subject, (UnitEventContext) detail);
+        break;
+    }
+  }
+
+  /**
+   * Marks container for parsing when only changed containers are parsed
+   */
+  private void markDirty(Optional<? extends AContainer> container) {
+    if (isForReplay && parseOnlyChangedContainers) {
+      container.ifPresent(dirtyContainerTracker::markDirty);
+    }
   }
 
   @Override
@@ -370,10 +572,23 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
     try {
       //if replay parser
       if (isForReplay) {
-        queueManager = new ParsingQueueManager(updateManager);
+        if (parseOnlyChangedContainers) {
+          queueManager = new DirtyTrackingParsingQueueManager(updateManager,
+              dirtyContainerTracker);
+        } else {
+          queueManager = new ParsingQueueManager(updateManager);
+        }
       } else {
-        queueManager = new QueueManager();
+        QueueManager manager = new QueueManager(System::nanoTime, percentileScheduling,
+            updateManager);
+        commandWorkerPool.ifPresent(manager::setWorkerPool);
+        queueMetrics.ifPresent(metrics -> {
+          manager.setMetrics(metrics);
+          metrics.registerMBeans();
+        });
+        queueManager = manager;
       }
+      eventDispatcher.ifPresent(dispatcher -> dispatcher.start(this::deliverEvent));
       mirror.getModule().setEventListener(this);
       mirror.startGame();
     } catch (Exception e) {
@@ -398,19 +613,34 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
   }
 
   @Override
-  public void sendCommandToGame(CommandWithResponse commandWithResponse) {
-    queueManager.addCommand(commandWithResponse);
+  public EnqueueStatus sendCommandToGame(CommandWithResponse commandWithResponse) {
+    return queueManager.addCommand(commandWithResponse);
+  }
+
+  @Override
+  public EnqueueStatus sendCommandToGame(CommandWithoutResponse commandWithoutResponse) {
+    return queueManager.addCommand(commandWithoutResponse);
   }
 
   @Override
-  public void sendCommandToGame(CommandWithoutResponse commandWithoutResponse) {
-    queueManager.addCommand(commandWithoutResponse);
+  public ScheduledCommand scheduleCommand(Command command, int atFrame) {
+    return queueManager.schedule(command, atFrame);
   }
 
   @Override
-  public void updateAll(UpdateStrategy updateStrategy,
+  public ScheduledCommand scheduleCommandEvery(Command command, int periodFrames) {
+    return queueManager.scheduleEvery(command, periodFrames);
+  }
+
+  @Override
+  public int getQueueDepth(CommandType commandType) {
+    return queueManager.getQueueDepth(commandType);
+  }
+
+  @Override
+  public EnqueueStatus updateAll(UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(UPDATE_ALL, responseReceiver,
+    return queueManager.addCommand(new CommandWithResponse<>(UPDATE_ALL, responseReceiver,
         () -> {
           int currentFrame = getCurrentFrame();
           getAllGameInstances()
@@ -418,7 +648,7 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
               .forEach(
                   o -> ((IUpdatableContainer<?, ?>) o).update(updateManager, currentFrame));
           return true;
-        }));
+        }, () -> responseReceiver.receiveResponse(false)));
   }
 
   @Override
@@ -433,6 +663,111 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
         }));
   }
 
+  /**
+   * Queues update of container. Same update which is already pending is not queued again, receiver
+   * is attached to it instead. Returns false when update was not queued
+   */
+  private boolean queueUpdate(CommandType commandType, AContainer container,
+      UpdateStrategy updateStrategy, Optional<IResponseReceiver<Boolean>> responseReceiver,
+      ExecutableStrategy<Boolean> update) {
+    Optional<Command> command = updateCommandCoalescer
+        .coalesce(commandType, container, updateStrategy, responseReceiver, update);
+
+    //update attached to pending one is answered by it
+    return !command.isPresent() || queueManager.addCommand(command.get()).isQueued();
+  }
+
+  @Override
+  public CompletableFuture<Boolean> updateAsync(AContainer container,
+      UpdateStrategy updateStrategy) {
+    CompletableFuture<Boolean> future = new CompletableFuture<>();
+    Optional<CommandType> commandType = updateCommandType(container);
+    if (!commandType.isPresent()) {
+      future.complete(false);
+      return future;
+    }
+    boolean queued = queueUpdate(commandType.get(), container, updateStrategy,
+        Optional.of(future::complete), () -> {
+          ((IUpdatableContainer<?, ?>) container).update(updateManager, updateStrategy);
+          return true;
+        });
+    if (!queued) {
+      future.complete(false);
+    }
+    return future;
+  }
+
+  @Override
+  public CompletableFuture<Boolean> updateBatch(Collection<? extends AContainer> containers,
+      UpdateStrategy updateStrategy) {
+    CompletableFuture<Boolean> future = new CompletableFuture<>();
+    List<AContainer> batch = new ArrayList<>(containers);
+    CommandWithResponse<Boolean> command = new CommandWithResponse<>(UPDATE_BATCH,
+        future::complete, () -> {
+      try {
+
+        //all containers are updated by single command, so in same frame
+        boolean allUpdated = true;
+        for (AContainer container : batch) {
+          if (container instanceof IUpdatableContainer<?, ?>) {
+            ((IUpdatableContainer<?, ?>) container).update(updateManager, updateStrategy);
+          } else {
+            allUpdated = false;
+          }
+        }
+        return allUpdated;
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+        throw e;
+      }
+    }, () -> future.complete(false));
+    if (!queueManager.addCommand(command).isQueued()) {
+      future.complete(false);
+    }
+    return future;
+  }
+
+  /**
+   * Returns type of command updating container or nothing when container can not be updated
+   */
+  private static Optional<CommandType> updateCommandType(AContainer container) {
+    if (!(container instanceof IUpdatableContainer<?, ?>)) {
+      return Optional.empty();
+    }
+    if (container instanceof Unit) {
+      return Optional.of(UNIT_UPDATE);
+    } else if (container instanceof Bullet) {
+      return Optional.of(BULLET_UPDATE);
+    } else if (container instanceof Player) {
+      return Optional.of(PLAYER_UPDATE);
+    } else if (container instanceof Game) {
+      return Optional.of(GAME_UPDATE);
+    } else if (container instanceof TilePosition) {
+      return Optional.of(TILE_POSITION_UPDATE);
+    } else if (container instanceof WalkPosition) {
+      return Optional.of(WALK_POSITION_UPDATE);
+    } else if (container instanceof Position) {
+      return Optional.of(POSITION_UPDATE);
+    } else if (container instanceof BaseLocation) {
+      return Optional.of(BASE_LOCATION_UPDATE);
+    } else if (container instanceof ChokePoint) {
+      return Optional.of(CHOKE_POINT_UPDATE);
+    } else if (container instanceof Region) {
+      return Optional.of(REGION_UPDATE);
+    } else if (container instanceof UnitType) {
+      return Optional.of(UNIT_TYPE_UPDATE);
+    } else if (container instanceof WeaponType) {
+      return Optional.of(WEAPON_TYPE_UPDATE);
+    } else if (container instanceof UpgradeType) {
+      return Optional.of(UPGRADE_TYPE_UPDATE);
+    } else if (container instanceof TechType) {
+      return Optional.of(TECH_TYPE_UPDATE);
+    } else if (container instanceof Race) {
+      return Optional.of(RACE_UPDATE);
+    }
+    return Optional.empty();
+  }
+
   @Override
   public int getCurrentFrame() {
     return updateManager.getCurrentFrame();
@@ -440,56 +775,57 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
 
   @Override
   public void update(BaseLocation baseLocation, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(BASE_LOCATION_UPDATE,
-        () -> updateManager.update((UpdatableBaseLocation) baseLocation, updateStrategy)));
+    queueUpdate(BASE_LOCATION_UPDATE, baseLocation, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableBaseLocation) baseLocation, updateStrategy));
   }
 
   @Override
   public void update(BaseLocation baseLocation, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(BASE_LOCATION_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableBaseLocation) baseLocation, updateStrategy)));
+    queueUpdate(BASE_LOCATION_UPDATE, baseLocation, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableBaseLocation) baseLocation, updateStrategy));
   }
 
   @Override
   public void update(Bullet bullet, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(BULLET_UPDATE,
-        () -> updateManager.update((UpdatableBullet) bullet, updateStrategy)));
+    queueUpdate(BULLET_UPDATE, bullet, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableBullet) bullet, updateStrategy));
   }
 
   @Override
   public void update(Bullet bullet, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(BULLET_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableBullet) bullet, updateStrategy)));
+    queueUpdate(BULLET_UPDATE, bullet, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableBullet) bullet, updateStrategy));
   }
 
   @Override
   public void update(ChokePoint chokePoint, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(CHOKE_POINT_UPDATE,
-        () -> updateManager.update((UpdatableChokePoint) chokePoint, updateStrategy)));
+    queueUpdate(CHOKE_POINT_UPDATE, chokePoint, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableChokePoint) chokePoint, updateStrategy));
   }
 
   @Override
   public void update(ChokePoint chokePoint, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(CHOKE_POINT_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableChokePoint) chokePoint, updateStrategy)));
+    queueUpdate(CHOKE_POINT_UPDATE, chokePoint, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableChokePoint) chokePoint, updateStrategy));
   }
 
   @Override
   public void updateGame(UpdateStrategy updateStrategy) {
     updateManager.getGame()
-        .ifPresent(game -> queueManager.addCommand(new CommandWithoutResponse(GAME_UPDATE,
-            () -> updateManager.update(game, updateStrategy))));
+        .ifPresent(game -> queueUpdate(GAME_UPDATE, game, updateStrategy, Optional.empty(),
+            () -> updateManager.update(game, updateStrategy)));
   }
 
   @Override
   public void updateGame(UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
     if (updateManager.getGame().isPresent()) {
-      queueManager.addCommand(new CommandWithResponse<>(GAME_UPDATE, responseReceiver,
-          () -> updateManager.update(updateManager.getGame().get(), updateStrategy)));
+      UpdatableGame game = updateManager.getGame().get();
+      queueUpdate(GAME_UPDATE, game, updateStrategy, Optional.of(responseReceiver),
+          () -> updateManager.update(game, updateStrategy));
     } else {
       responseReceiver.receiveResponse(false);
     }
@@ -497,145 +833,145 @@ public class GameFacade extends DefaultBWListener implements IGameDataUpdateAdap
 
   @Override
   public void update(Player player, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(PLAYER_UPDATE,
-        () -> updateManager.update((UpdatablePlayer) player, updateStrategy)));
+    queueUpdate(PLAYER_UPDATE, player, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatablePlayer) player, updateStrategy));
   }
 
   @Override
   public void update(Player player, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(PLAYER_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatablePlayer) player, updateStrategy)));
+    queueUpdate(PLAYER_UPDATE, player, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatablePlayer) player, updateStrategy));
   }
 
   @Override
   public void update(Position position, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(POSITION_UPDATE,
-        () -> updateManager.update((UpdatablePosition) position, updateStrategy)));
+    queueUpdate(POSITION_UPDATE, position, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatablePosition) position, updateStrategy));
   }
 
   @Override
   public void update(Position position, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(POSITION_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatablePosition) position, updateStrategy)));
+    queueUpdate(POSITION_UPDATE, position, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatablePosition) position, updateStrategy));
   }
 
   @Override
   public void update(Race race, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(RACE_UPDATE,
-        () -> updateManager.update((UpdatableRace) race, updateStrategy)));
+    queueUpdate(RACE_UPDATE, race, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableRace) race, updateStrategy));
   }
 
   @Override
   public void update(Race race, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(RACE_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableRace) race, updateStrategy)));
+    queueUpdate(RACE_UPDATE, race, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableRace) race, updateStrategy));
   }
 
   @Override
   public void update(Region region, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(REGION_UPDATE,
-        () -> updateManager.update((UpdatableRegion) region, updateStrategy)));
+    queueUpdate(REGION_UPDATE, region, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableRegion) region, updateStrategy));
   }
 
   @Override
   public void update(Region region, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(REGION_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableRegion) region, updateStrategy)));
+    queueUpdate(REGION_UPDATE, region, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableRegion) region, updateStrategy));
   }
 
   @Override
   public void update(TechType techType, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(TECH_TYPE_UPDATE,
-        () -> updateManager.update((UpdatableTechType) techType, updateStrategy)));
+    queueUpdate(TECH_TYPE_UPDATE, techType, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableTechType) techType, updateStrategy));
   }
 
   @Override
   public void update(TechType techType, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(TECH_TYPE_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableTechType) techType, updateStrategy)));
+    queueUpdate(TECH_TYPE_UPDATE, techType, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableTechType) techType, updateStrategy));
   }
 
   @Override
   public void update(TilePosition tilePosition, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(TILE_POSITION_UPDATE,
-        () -> updateManager.update((UpdatableTilePosition) tilePosition, updateStrategy)));
+    queueUpdate(TILE_POSITION_UPDATE, tilePosition, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableTilePosition) tilePosition, updateStrategy));
   }
 
   @Override
   public void update(TilePosition tilePosition, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(TILE_POSITION_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableTilePosition) tilePosition, updateStrategy)));
+    queueUpdate(TILE_POSITION_UPDATE, tilePosition, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableTilePosition) tilePosition, updateStrategy));
   }
 
   @Override
   public void update(Unit unit, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(UNIT_UPDATE,
-        () -> updateManager.update((UpdatableUnit) unit, updateStrategy)));
+    queueUpdate(UNIT_UPDATE, unit, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableUnit) unit, updateStrategy));
   }
 
   @Override
   public void update(Unit unit, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(UNIT_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableUnit) unit, updateStrategy)));
+    queueUpdate(UNIT_UPDATE, unit, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableUnit) unit, updateStrategy));
   }
 
   @Override
   public void update(UnitType unitType, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(UNIT_TYPE_UPDATE,
-        () -> updateManager.update((UpdatableUnitType) unitType, updateStrategy)));
+    queueUpdate(UNIT_TYPE_UPDATE, unitType, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableUnitType) unitType, updateStrategy));
   }
 
   @Override
   public void update(UnitType unitType, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(UNIT_TYPE_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableUnitType) unitType, updateStrategy)));
+    queueUpdate(UNIT_TYPE_UPDATE, unitType, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableUnitType) unitType, updateStrategy));
   }
 
   @Override
   public void update(UpgradeType upgradeType, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(UPGRADE_TYPE_UPDATE,
-        () -> updateManager.update((UpdatableUpgradeType) upgradeType, updateStrategy)));
+    queueUpdate(UPGRADE_TYPE_UPDATE, upgradeType, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableUpgradeType) upgradeType, updateStrategy));
   }
 
   @Override
   public void update(UpgradeType upgradeType, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(UPGRADE_TYPE_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableUpgradeType) upgradeType, updateStrategy)));
+    queueUpdate(UPGRADE_TYPE_UPDATE, upgradeType, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableUpgradeType) upgradeType, updateStrategy));
   }
 
   @Override
   public void update(WeaponType weaponType, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(WEAPON_TYPE_UPDATE,
-        () -> updateManager.update((UpdatableWeaponType) weaponType, updateStrategy)));
+    queueUpdate(WEAPON_TYPE_UPDATE, weaponType, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableWeaponType) weaponType, updateStrategy));
   }
 
   @Override
   public void update(WeaponType weaponType, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(WEAPON_TYPE_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableWeaponType) weaponType, updateStrategy)));
+    queueUpdate(WEAPON_TYPE_UPDATE, weaponType, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableWeaponType) weaponType, updateStrategy));
   }
 
   @Override
   public void update(WalkPosition walkPosition, UpdateStrategy updateStrategy,
       IResponseReceiver<Boolean> responseReceiver) {
-    queueManager.addCommand(new CommandWithResponse<>(WALK_POSITION_UPDATE, responseReceiver,
-        () -> updateManager.update((UpdatableWalkPosition) walkPosition, updateStrategy)));
+    queueUpdate(WALK_POSITION_UPDATE, walkPosition, updateStrategy, Optional.of(responseReceiver),
+        () -> updateManager.update((UpdatableWalkPosition) walkPosition, updateStrategy));
   }
 
   @Override
   public void update(WalkPosition walkPosition, UpdateStrategy updateStrategy) {
-    queueManager.addCommand(new CommandWithoutResponse(WALK_POSITION_UPDATE,
-        () -> updateManager.update((UpdatableWalkPosition) walkPosition, updateStrategy)));
+    queueUpdate(WALK_POSITION_UPDATE, walkPosition, updateStrategy, Optional.empty(),
+        () -> updateManager.update((UpdatableWalkPosition) walkPosition, updateStrategy));
   }
 
   @Override
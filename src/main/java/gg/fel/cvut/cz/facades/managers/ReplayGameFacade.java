@@ -11,7 +11,11 @@ import gg.fel.cvut.cz.api.ITilePosition;
 import gg.fel.cvut.cz.counters.BWReplayCounter;
 import gg.fel.cvut.cz.counters.IBWReplayCounter;
 import gg.fel.cvut.cz.data.AContainer;
+import gg.fel.cvut.cz.data.events.EventType;
 import gg.fel.cvut.cz.data.events.EventsRegister;
+import gg.fel.cvut.cz.data.events.UnitEvent;
+import gg.fel.cvut.cz.data.events.UnitEventBus;
+import gg.fel.cvut.cz.data.events.UnitEventBus.UnitEventContext;
 import gg.fel.cvut.cz.data.events.subscribers.IGameHasEndedNotificationSubscriber;
 import gg.fel.cvut.cz.data.events.subscribers.INukeDetectedNotificationSubscriber;
 import gg.fel.cvut.cz.data.events.subscribers.IOnFrameNotificationSubscriber;
@@ -35,6 +39,7 @@ import gg.fel.cvut.cz.enums.UpgradeTypeEnum;
 import gg.fel.cvut.cz.enums.WeaponTypeEnum;
 import gg.fel.cvut.cz.facades.IGameDataAccessAdapter;
 import java.io.Serializable;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 import lombok.AllArgsConstructor;
@@ -64,6 +69,10 @@ public class ReplayGameFacade implements
   private final ImmutableMap<UpgradeTypeEnum, UpgradeType> upgradeTypes;
   private final ImmutableMap<WeaponTypeEnum, WeaponType> weaponTypes;
 
+  //subscribers of unit events with filters, units of replay do not provide owner, type or position
+  @Builder.Default
+  private transient UnitEventBus unitEventBus = new UnitEventBus(false);
+
   //event notification receivers
   @Setter
   @Builder.Default
@@ -111,6 +120,27 @@ public class ReplayGameFacade implements
   @Builder.Default
   private transient Optional<IOnFrameNotificationSubscriber> onFrame = Optional.empty();
 
+  /**
+   * Returns bus of unit events, subscribers are notified about events of frame when clock is moved.
+   * Events can not be filtered by owner, type or region of unit as units of replay do not provide
+   * them
+   */
+  public synchronized UnitEventBus getUnitEventBus() {
+
+    //transient bus is not restored with deserialized replay
+    if (unitEventBus == null) {
+      unitEventBus = new UnitEventBus(false);
+    }
+    return unitEventBus;
+  }
+
+  /**
+   * Returns events of unit in range of frames, both inclusive, ordered by frame
+   */
+  public List<UnitEvent> eventsOf(Unit unit, int fromFrame, int toFrame) {
+    return eventsRegister.eventsOf(unit, fromFrame, toFrame);
+  }
+
   public Stream<Unit> getUnits() {
     return units.stream();
   }
@@ -198,14 +228,52 @@ public class ReplayGameFacade implements
   public synchronized void decreaseClock() {
     bwCounter.decreaseClock();
     onFrame.ifPresent(ns -> ns.notifySubscriber(bwCounter.getCurrentFrame()));
-    notifySubscribersOnEvent();
+    notifySubscribersOnEvent(getCurrentFrame(), getCurrentFrame());
   }
 
   @Override
   public synchronized void increaseClocks() {
     bwCounter.increaseClocks();
     onFrame.ifPresent(ns -> ns.notifySubscriber(bwCounter.getCurrentFrame()));
-    notifySubscribersOnEvent();
+    notifySubscribersOnEvent(getCurrentFrame(), getCurrentFrame());
+  }
+
+  /**
+   * Moves clock directly to frame, subscribers are not notified
+   */
+  @Override
+  public void seek(int frame) {
+    seek(frame, SkippedEventsDelivery.NONE);
+  }
+
+  /**
+   * Moves clock directly to frame. Frames in between are not visited - subscribers are notified
+   * about the target frame only when events are aggregated, events of skipped frames are included
+   * when moving forward
+   */
+  public synchronized void seek(int frame, SkippedEventsDelivery delivery) {
+    int previousFrame = bwCounter.getCurrentFrame();
+    bwCounter.seek(frame);
+    if (delivery == SkippedEventsDelivery.AGGREGATED) {
+      int currentFrame = bwCounter.getCurrentFrame();
+      onFrame.ifPresent(ns -> ns.notifySubscriber(currentFrame));
+      notifySubscribersOnEvent(Math.min(previousFrame + 1, currentFrame), currentFrame);
+    }
+  }
+
+  /**
+   * Plays replay from current frame up to given one at full speed. Clock is moved frame by frame,
+   * only visitor is called in each frame, subscribers are not notified. Playing stops at the end of
+   * replay
+   */
+  public synchronized void play(int toFrame, IOnFrameNotificationSubscriber visitor) {
+    for (int frame = bwCounter.getCurrentFrame() + 1; frame <= toFrame; frame++) {
+      bwCounter.seek(frame);
+      if (bwCounter.getCurrentFrame() != frame) {
+        break;
+      }
+      visitor.notifySubscriber(frame);
+    }
   }
 
   @Override
@@ -243,21 +311,34 @@ public class ReplayGameFacade implements
     return Optional.empty();
   }
 
-  private void notifySubscribersOnEvent() {
-    onUnitDiscover.ifPresent(ns -> eventsRegister.onUnitDiscover(getCurrentFrame(), ns));
-    onUnitEvade.ifPresent(ns -> eventsRegister.onUnitEvade(getCurrentFrame(), ns));
-    onUnitShow.ifPresent(ns -> eventsRegister.onUnitShow(getCurrentFrame(), ns));
-    onUnitHide.ifPresent(ns -> eventsRegister.onUnitHide(getCurrentFrame(), ns));
-    onUnitCreate.ifPresent(ns -> eventsRegister.onUnitCreate(getCurrentFrame(), ns));
-    onUnitDestroy.ifPresent(ns -> eventsRegister.onUnitDestroy(getCurrentFrame(), ns));
-    onUnitMorph.ifPresent(ns -> eventsRegister.onUnitMorph(getCurrentFrame(), ns));
-    onUnitRenegade.ifPresent(ns -> eventsRegister.onUnitRenegade(getCurrentFrame(), ns));
-    onUnitComplete.ifPresent(ns -> eventsRegister.onUnitComplete(getCurrentFrame(), ns));
-    onEnd.ifPresent(ns -> eventsRegister.onEnd(getCurrentFrame(), ns));
-    onNukeDetect.ifPresent(ns -> eventsRegister.onNukeDetect(getCurrentFrame(), ns));
-    onPlayerLeft.ifPresent(ns -> eventsRegister.onPlayerLeft(getCurrentFrame(), ns));
-    onReceiveText.ifPresent(ns -> eventsRegister.onReceiveText(getCurrentFrame(), ns));
-    onSendText.ifPresent(ns -> eventsRegister.onSendText(getCurrentFrame(), ns));
+  /**
+   * Notifies subscribers about events in range of frames, both inclusive. Event repeated in range is
+   * delivered once
+   */
+  private void notifySubscribersOnEvent(int fromFrame, int toFrame) {
+    onUnitDiscover.ifPresent(ns -> eventsRegister.onUnitDiscover(fromFrame, toFrame, ns));
+    onUnitEvade.ifPresent(ns -> eventsRegister.onUnitEvade(fromFrame, toFrame, ns));
+    onUnitShow.ifPresent(ns -> eventsRegister.onUnitShow(fromFrame, toFrame, ns));
+    onUnitHide.ifPresent(ns -> eventsRegister.onUnitHide(fromFrame, toFrame, ns));
+    onUnitCreate.ifPresent(ns -> eventsRegister.onUnitCreate(fromFrame, toFrame, ns));
+    onUnitDestroy.ifPresent(ns -> eventsRegister.onUnitDestroy(fromFrame, toFrame, ns));
+    onUnitMorph.ifPresent(ns -> eventsRegister.onUnitMorph(fromFrame, toFrame, ns));
+    onUnitRenegade.ifPresent(ns -> eventsRegister.onUnitRenegade(fromFrame, toFrame, ns));
+    onUnitComplete.ifPresent(ns -> eventsRegister.onUnitComplete(fromFrame, toFrame, ns));
+    onEnd.ifPresent(ns -> eventsRegister.onEnd(toFrame, ns));
+    onNukeDetect.ifPresent(ns -> eventsRegister.onNukeDetect(fromFrame, toFrame, ns));
+    onPlayerLeft.ifPresent(ns -> eventsRegister.onPlayerLeft(fromFrame, toFrame, ns));
+    onReceiveText.ifPresent(ns -> eventsRegister.onReceiveText(fromFrame, toFrame, ns));
+    onSendText.ifPresent(ns -> eventsRegister.onSendText(fromFrame, toFrame, ns));
+
+    //subscribers in bus
+    UnitEventBus bus = getUnitEventBus();
+    for (EventType type : EventType.values()) {
+      if (type.isUnitEvent() && bus.hasSubscribers(type)) {
+        eventsRegister.getEventLog().forEachDistinctInRange(fromFrame, toFrame, type,
+            (frame, unit) -> bus.publish(type, (Unit) unit, UnitEventContext.UNKNOWN));
+      }
+    }
   }
 
 }
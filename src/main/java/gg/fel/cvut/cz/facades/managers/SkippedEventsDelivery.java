@@ -0,0 +1,18 @@
+package gg.fel.cvut.cz.facades.managers;
+
+/**
+ * Delivery of events to subscribers when replay is moved to frame directly
+ */
+public enum SkippedEventsDelivery {
+
+  /**
+   * Subscribers are not notified
+   */
+  NONE,
+
+  /**
+   * Subscribers are notified once about target frame and events of skipped frames - each event
+   * once, with the first frame in which it occurred
+   */
+  AGGREGATED
+}
@@ -0,0 +1,103 @@
+package gg.fel.cvut.cz.facades.managers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gg.fel.cvut.cz.data.readonly.StaticMapLayer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * On-disk cache of static map layers keyed by map name and hash. Failure of cache is only logged,
+ * layer is analysed again in such case.
+ * <p>
+ * Scope of cache is limited to static properties of tiles. Hit of cache does not skip
+ * BWTA.analyze() - containers of regions, chokepoints and base locations wrap objects of BWTA,
+ * which are read by each their update and by lookups of regions, so they can not be restored from
+ * file. BWTA keeps its own cache of analysis on disk.
+ */
+@Slf4j
+public class StaticMapCache {
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private final Path directory;
+
+  public StaticMapCache(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Returns cached layer of map or analyses it in game and stores it
+   */
+  public StaticMapLayer getOrAnalyze(bwapi.Game game) {
+    return getOrAnalyze(game.mapName(), game.mapHash(), () -> StaticMapLayer.analyze(game));
+  }
+
+  /**
+   * Returns cached layer of map or analyses it by given analysis and stores it
+   */
+  public StaticMapLayer getOrAnalyze(String mapName, String mapHash,
+      Supplier<StaticMapLayer> analysis) {
+    Optional<StaticMapLayer> cached = load(mapName, mapHash);
+    if (cached.isPresent()) {
+      log.info("Static layer of map was loaded from cache.");
+      return cached.get();
+    }
+    StaticMapLayer layer = analysis.get();
+    store(layer);
+    return layer;
+  }
+
+  public Optional<StaticMapLayer> load(String mapName, String mapHash) {
+    Path file = fileFor(mapName, mapHash);
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+    try {
+      StaticMapLayer layer = mapper.readValue(file.toFile(), StaticMapLayer.class);
+
+      //file name is sanitized, check that it is really the map
+      if (layer.getMapName().equals(mapName) && layer.getMapHash().equals(mapHash)) {
+        return Optional.of(layer);
+      }
+    } catch (IOException | RuntimeException e) {
+      log.error("Could not load static layer of map from " + file + ": " + e.getMessage());
+    }
+    return Optional.empty();
+  }
+
+  public void store(StaticMapLayer layer) {
+    Path file = fileFor(layer.getMapName(), layer.getMapHash());
+    Path temporary = null;
+    try {
+      Files.createDirectories(directory);
+
+      //write to temporary file first, so other games never read partial layer
+      temporary = Files.createTempFile(directory, "map", ".tmp");
+      mapper.writeValue(temporary.toFile(), layer);
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.error("Could not store static layer of map to " + file + ": " + e.getMessage());
+    } finally {
+
+      //temporary file is left only when it was not moved
+      if (temporary != null) {
+        try {
+          Files.deleteIfExists(temporary);
+        } catch (IOException e) {
+          log.error("Could not delete " + temporary + ": " + e.getMessage());
+        }
+      }
+    }
+  }
+
+  private Path fileFor(String mapName, String mapHash) {
+    return directory
+        .resolve(mapName.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + mapHash + ".json");
+  }
+
+}
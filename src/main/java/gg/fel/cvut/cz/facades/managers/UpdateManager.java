@@ -13,6 +13,7 @@ import gg.fel.cvut.cz.data.readonly.Position;
 import gg.fel.cvut.cz.data.readonly.Race;
 import gg.fel.cvut.cz.data.readonly.Region;
 import gg.fel.cvut.cz.data.readonly.TechType;
+import gg.fel.cvut.cz.data.readonly.TileGrid;
 import gg.fel.cvut.cz.data.readonly.TilePosition;
 import gg.fel.cvut.cz.data.readonly.Unit;
 import gg.fel.cvut.cz.data.readonly.UnitType;
@@ -35,6 +36,7 @@ import gg.fel.cvut.cz.data.updatable.UpdatableUpgradeType;
 import gg.fel.cvut.cz.data.updatable.UpdatableWalkPosition;
 import gg.fel.cvut.cz.data.updatable.UpdatableWeaponType;
 import gg.fel.cvut.cz.facades.IUpdateManager;
+import gg.fel.cvut.cz.facades.data.ParallelUpdateTreeExecutor;
 import gg.fel.cvut.cz.facades.data.UpdateTreeExecutor;
 import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
 import gg.fel.cvut.cz.wrappers.WBaseLocation;
@@ -53,6 +55,8 @@ import gg.fel.cvut.cz.wrappers.WUpgradeType;
 import gg.fel.cvut.cz.wrappers.WWalkPosition;
 import gg.fel.cvut.cz.wrappers.WWeaponType;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import lombok.Getter;
 
@@ -67,6 +71,11 @@ public class UpdateManager implements IUpdateManager, IBWCounter {
   private Optional<UpdatableGame> game = Optional.empty();
   @Getter
   private Optional<UpdatablePlayer> self = Optional.empty();
+  @Getter
+  private Optional<TileGrid> tileGrid = Optional.empty();
+
+  //when set, update trees are executed in parallel
+  private Optional<ForkJoinPool> parallelUpdatePool = Optional.empty();
 
   private final ContainerRegister<WBullet, Bullet, UpdatableBullet> bulletUpdater = new ContainerRegister<WBullet, Bullet, UpdatableBullet>(
       instance -> new UpdatableBullet(bwCounter, instance));
@@ -99,6 +108,26 @@ public class UpdateManager implements IUpdateManager, IBWCounter {
   private final ContainerRegister<WWalkPosition, WalkPosition, UpdatableWalkPosition> walkPositionUpdater = new ContainerRegister<WWalkPosition, WalkPosition, UpdatableWalkPosition>(
       instance -> new UpdatableWalkPosition(bwCounter, instance));
 
+  /**
+   * Sets pool to execute update trees in parallel. Null switches back to sequential execution.
+   */
+  public void setParallelUpdatePool(ForkJoinPool parallelUpdatePool) {
+    this.parallelUpdatePool = Optional.ofNullable(parallelUpdatePool);
+  }
+
+  /**
+   * Executes update tree from container - in parallel when pool is set
+   */
+  private void executeUpdate(IUpdatableContainer<?, ?> container, UpdateStrategy updateStrategy) {
+    if (parallelUpdatePool.isPresent()) {
+      ParallelUpdateTreeExecutor.executeUpdate(container, updateStrategy,
+          bwCounter.getCurrentFrame(), this, parallelUpdatePool.get());
+    } else {
+      UpdateTreeExecutor
+          .executeUpdate(container, updateStrategy, bwCounter.getCurrentFrame(), this);
+    }
+  }
+
   @Override
   public Stream<Unit> getUnits() {
     return unitUpdater.getAllContainers();
@@ -138,6 +167,10 @@ public class UpdateManager implements IUpdateManager, IBWCounter {
   public Optional<UpdatableGame> setGame(bwapi.Game game) {
     this.game = gameUpdater.getWrappedInstance(WGame.getOrCreateWrapper(game));
     this.self = playerUpdater.getWrappedInstance(WPlayer.getOrCreateWrapper(game.self()));
+
+    //all tiles are created at once and indexed by coordinates
+    this.tileGrid = Optional.of(new TileGrid(game.mapWidth(), game.mapHeight(),
+        (grid, x, y) -> new UpdatableTilePosition(bwCounter, x, y, grid)));
     return this.game;
   }
 
@@ -157,8 +190,7 @@ public class UpdateManager implements IUpdateManager, IBWCounter {
 
   @Override
   public boolean update(UpdatableBullet bulletToUpdate, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor
-        .executeUpdate(bulletToUpdate, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(bulletToUpdate, updateStrategy);
     return true;
   }
 
@@ -168,97 +200,126 @@ public class UpdateManager implements IUpdateManager, IBWCounter {
         gameUpdater.getAllContainers(), playerUpdater.getAllContainers(),
         walkPositionUpdater.getAllContainers(), positionUpdater.getAllContainers(),
         raceUpdater.getAllContainers(), regionUpdater.getAllContainers(),
-        techTypeUpdater.getAllContainers(), tilePositionUpdater.getAllContainers(),
+        techTypeUpdater.getAllContainers(), getTilePositions(),
         unitUpdater.getAllContainers(), unitTypeUpdater.getAllContainers(),
         upgradeTypeUpdater.getAllContainers(), weaponTypeUpdater.getAllContainers())
         .flatMap(stream -> stream);
   }
 
+  /**
+   * Returns tiles of grid once it is created, registered tiles otherwise. Only tiles outside of map
+   * are registered when grid exists, so each tile comes from one source
+   */
+  private Stream<? extends AContainer> getTilePositions() {
+    return tileGrid.isPresent() ? tileGrid.get().getTiles()
+        : tilePositionUpdater.getAllContainers();
+  }
+
+  /**
+   * Returns containers which may change each frame - game, players, bullets of current frame and
+   * units passing filter, e.g. those which have changed
+   */
+  public Stream<? extends AContainer> getTimeSensitiveContainers(
+      Predicate<bwapi.Unit> unitFilter) {
+    if (!game.isPresent()) {
+      return Stream.empty();
+    }
+    bwapi.Game bwGame = game.get().getWrappedSCInstance().getScInstance();
+    Stream<Unit> units = bwGame.getAllUnits().stream()
+        .filter(unitFilter)
+        .map(unit -> getDataContainer(WUnit.getOrCreateWrapper(unit)))
+        .filter(Optional::isPresent)
+        .map(Optional::get);
+    Stream<Bullet> bullets = bwGame.getBullets().stream()
+        .map(bullet -> getDataContainer(WBullet.getOrCreateWrapper(bullet)))
+        .filter(Optional::isPresent)
+        .map(Optional::get);
+    return Stream.of(gameUpdater.getAllContainers(), playerUpdater.getAllContainers(), units,
+        bullets)
+        .flatMap(stream -> stream);
+  }
+
   @Override
   public boolean update(UpdatableBaseLocation baseLocation, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor
-        .executeUpdate(baseLocation, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(baseLocation, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatableChokePoint chokePoint, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor.executeUpdate(chokePoint, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(chokePoint, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatableGame game, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor.executeUpdate(game, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(game, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatablePlayer player, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor.executeUpdate(player, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(player, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatablePosition position, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor.executeUpdate(position, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(position, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatableRace race, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor.executeUpdate(race, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(race, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatableRegion region, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor.executeUpdate(region, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(region, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatableTechType techType, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor.executeUpdate(techType, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(techType, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatableTilePosition tilePosition, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor
-        .executeUpdate(tilePosition, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(tilePosition, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatableUnit unit, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor.executeUpdate(unit, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(unit, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatableUnitType unitType, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor.executeUpdate(unitType, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(unitType, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatableUpgradeType upgradeType, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor
-        .executeUpdate(upgradeType, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(upgradeType, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatableWeaponType weaponType, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor.executeUpdate(weaponType, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(weaponType, updateStrategy);
     return true;
   }
 
   @Override
   public boolean update(UpdatableWalkPosition walkPosition, UpdateStrategy updateStrategy) {
-    UpdateTreeExecutor
-        .executeUpdate(walkPosition, updateStrategy, bwCounter.getCurrentFrame(), this);
+    executeUpdate(walkPosition, updateStrategy);
     return true;
   }
 
@@ -304,6 +365,12 @@ public class UpdateManager implements IUpdateManager, IBWCounter {
 
   @Override
   public Optional<TilePosition> getDataContainer(WTilePosition tilePosition) {
+    if (tileGrid.isPresent()) {
+      TilePosition tile = tileGrid.get().getTile(tilePosition.getX(), tilePosition.getY());
+      if (tile != null) {
+        return Optional.of(tile);
+      }
+    }
     return tilePositionUpdater.getWrappedInstance(tilePosition).map(o -> o);
   }
 
@@ -1,6 +1,7 @@
 package gg.fel.cvut.cz.facades.queue;
 
 import gg.fel.cvut.cz.facades.queue.implementation.CommandType;
+import java.util.Optional;
 import lombok.Getter;
 
 /**
@@ -11,8 +12,17 @@ public abstract class Command {
   @Getter
   private final CommandType commandType;
 
+  //pending commands with same key do same work, newer one may replace older one
+  @Getter
+  private final Optional<Object> coalescingKey;
+
   protected Command(CommandType commandType) {
+    this(commandType, Optional.empty());
+  }
+
+  protected Command(CommandType commandType, Optional<Object> coalescingKey) {
     this.commandType = commandType;
+    this.coalescingKey = coalescingKey;
   }
 
   /**
@@ -20,4 +30,21 @@ public abstract class Command {
    */
   public abstract void execute();
 
+  /**
+   * Executes command and returns delivery of its response, so response can be delivered later by
+   * other thread. Command without response has nothing to deliver.
+   */
+  public Runnable executeDeferringResponse() {
+    execute();
+    return () -> {
+    };
+  }
+
+  /**
+   * Method to be called by queue manager when command is discarded without execution
+   */
+  public void discard() {
+    //EMPTY
+  }
+
 }
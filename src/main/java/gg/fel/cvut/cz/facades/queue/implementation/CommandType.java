@@ -1,43 +1,109 @@
 package gg.fel.cvut.cz.facades.queue.implementation;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 
 /**
- * Represents types of commands
+ * Represents types of commands. Type has priority class and weight - share of execution time of
+ * type among other types in same class. Number of pending commands of type may be limited by
+ * capacity, overflow policy decides what happens with command added to full queue. Commands which
+ * do not touch BWAPI may be executed by workers outside of frame, as given by execution lane.
+ * <p>
+ * Each type gets dense ordinal when it is registered, so queues can be indexed by it.
  */
 @EqualsAndHashCode(of = "id")
 public class CommandType {
 
+  @Getter
   private final String id;
-  private static final Map<String, CommandType> commandTypesRegister = new HashMap<>();
-  private static final ReadWriteLock LOCK = new ReentrantReadWriteLock(true);
+  @Getter
+  private final int ordinal;
+  @Getter
+  private final PriorityClass priorityClass;
+  @Getter
+  private final int weight;
+  @Getter
+  private final int capacity;
+  @Getter
+  private final OverflowPolicy overflowPolicy;
+  @Getter
+  private final ExecutionLane executionLane;
+  private static final ConcurrentMap<String, CommandType> commandTypesRegister =
+      new ConcurrentHashMap<>();
+  private static final AtomicInteger nextOrdinal = new AtomicInteger();
 
-  private CommandType(String id) {
+  private CommandType(String id, int ordinal, PriorityClass priorityClass, int weight, int capacity,
+      OverflowPolicy overflowPolicy, ExecutionLane executionLane) {
     this.id = id;
+    this.ordinal = ordinal;
+    this.priorityClass = priorityClass;
+    this.weight = weight;
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    this.executionLane = executionLane;
   }
 
+  /**
+   * Returns type of commands with id. New type is created with normal priority and weight 1.
+   */
   public static CommandType getCommandType(String id) {
-    CommandType commandType;
-    try {
-      LOCK.readLock().lock();
-      commandType = commandTypesRegister.get(id);
-    } finally {
-      LOCK.readLock().unlock();
+    return getCommandType(id, PriorityClass.NORMAL, 1);
+  }
+
+  /**
+   * Returns type of commands with id. Priority class and weight are used only when type is
+   * created, existing type keeps its settings.
+   */
+  public static CommandType getCommandType(String id, PriorityClass priorityClass, int weight) {
+    return getCommandType(id, priorityClass, weight, Integer.MAX_VALUE, OverflowPolicy.REJECT);
+  }
+
+  /**
+   * Returns type of commands with id and bounded queue. Settings are used only when type is
+   * created, existing type keeps its settings.
+   */
+  public static CommandType getCommandType(String id, PriorityClass priorityClass, int weight,
+      int capacity, OverflowPolicy overflowPolicy) {
+    return getCommandType(id, priorityClass, weight, capacity, overflowPolicy,
+        ExecutionLane.GAME_THREAD);
+  }
+
+  /**
+   * Returns type of commands with id executed in lane. Priority class and weight matter only in
+   * lane of game thread, capacity bounds commands in flight in lanes of workers. Settings are used
+   * only when type is created, existing type keeps its settings.
+   */
+  public static CommandType getCommandType(String id, ExecutionLane executionLane, int capacity,
+      OverflowPolicy overflowPolicy) {
+    return getCommandType(id, PriorityClass.NORMAL, 1, capacity, overflowPolicy, executionLane);
+  }
+
+  private static CommandType getCommandType(String id, PriorityClass priorityClass, int weight,
+      int capacity, OverflowPolicy overflowPolicy, ExecutionLane executionLane) {
+    if (weight < 1) {
+      throw new IllegalArgumentException("Weight of command type has to be positive.");
+    }
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity of command type has to be positive.");
     }
+    CommandType commandType = commandTypesRegister.get(id);
     if (commandType != null) {
       return commandType;
     }
-    commandType = new CommandType(id);
-    try {
-      LOCK.writeLock().lock();
-      commandTypesRegister.put(id, commandType);
-    } finally {
-      LOCK.writeLock().unlock();
-    }
-    return commandType;
+
+    //type is created at most once, so ordinals stay dense
+    return commandTypesRegister.computeIfAbsent(id,
+        key -> new CommandType(key, nextOrdinal.getAndIncrement(), priorityClass, weight, capacity,
+            overflowPolicy, executionLane));
+  }
+
+  /**
+   * Returns number of registered types, ordinals of types are lower
+   */
+  public static int count() {
+    return nextOrdinal.get();
   }
 }
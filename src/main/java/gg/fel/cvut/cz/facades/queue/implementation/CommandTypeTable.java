@@ -0,0 +1,59 @@
+package gg.fel.cvut.cz.facades.queue.implementation;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Table of values of command types indexed by ordinal of type. Reading is single array access
+ * without lock, table is copied on write as new types of commands are rare.
+ */
+public class CommandTypeTable<V> {
+
+  private volatile Object[] values = new Object[0];
+
+  /**
+   * Returns value of type or null
+   */
+  @SuppressWarnings("unchecked")
+  public V get(CommandType commandType) {
+    Object[] values = this.values;
+    int ordinal = commandType.getOrdinal();
+    return ordinal < values.length ? (V) values[ordinal] : null;
+  }
+
+  /**
+   * Returns value of type, value is created when type does not have any
+   */
+  public V computeIfAbsent(CommandType commandType, Function<CommandType, ? extends V> factory) {
+    V value = get(commandType);
+    return value != null ? value : create(commandType, factory);
+  }
+
+  public void forEach(Consumer<? super V> consumer) {
+    values().forEach(consumer);
+  }
+
+  @SuppressWarnings("unchecked")
+  public Stream<V> values() {
+    return Arrays.stream(values)
+        .filter(Objects::nonNull)
+        .map(value -> (V) value);
+  }
+
+  private synchronized V create(CommandType commandType,
+      Function<CommandType, ? extends V> factory) {
+    V value = get(commandType);
+    if (value == null) {
+      value = factory.apply(commandType);
+      Object[] copy = Arrays.copyOf(values,
+          Math.max(values.length, Math.max(commandType.getOrdinal() + 1, CommandType.count())));
+      copy[commandType.getOrdinal()] = value;
+      values = copy;
+    }
+    return value;
+  }
+
+}
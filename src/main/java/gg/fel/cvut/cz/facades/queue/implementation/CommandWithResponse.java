@@ -2,21 +2,69 @@ package gg.fel.cvut.cz.facades.queue.implementation;
 
 import gg.fel.cvut.cz.facades.queue.Command;
 import gg.fel.cvut.cz.facades.queue.IResponseReceiver;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
- * Command which sends response to reciever on its execution
+ * Command which sends response to reciever on its execution. Handler of discard is called when
+ * command is discarded without execution, so waiting producer can be answered
  */
 public class CommandWithResponse<V> extends Command {
 
   private final IResponseReceiver<V> responseReceiver;
   private final ExecutableStrategy<V> executableStrategy;
+  private final Optional<Runnable> discardHandler;
 
   public CommandWithResponse(CommandType commandType,
       IResponseReceiver<V> responseReceiver,
       ExecutableStrategy<V> executableStrategy) {
-    super(commandType);
+    this(commandType, Optional.empty(), responseReceiver, executableStrategy, Optional.empty());
+  }
+
+  public CommandWithResponse(CommandType commandType, IResponseReceiver<V> responseReceiver,
+      ExecutableStrategy<V> executableStrategy, Runnable discardHandler) {
+    this(commandType, Optional.empty(), responseReceiver, executableStrategy,
+        Optional.of(discardHandler));
+  }
+
+  public CommandWithResponse(CommandType commandType, Object coalescingKey,
+      IResponseReceiver<V> responseReceiver, ExecutableStrategy<V> executableStrategy) {
+    this(commandType, Optional.of(coalescingKey), responseReceiver, executableStrategy,
+        Optional.empty());
+  }
+
+  public CommandWithResponse(CommandType commandType, Object coalescingKey,
+      IResponseReceiver<V> responseReceiver, ExecutableStrategy<V> executableStrategy,
+      Runnable discardHandler) {
+    this(commandType, Optional.of(coalescingKey), responseReceiver, executableStrategy,
+        Optional.of(discardHandler));
+  }
+
+  private CommandWithResponse(CommandType commandType, Optional<Object> coalescingKey,
+      IResponseReceiver<V> responseReceiver, ExecutableStrategy<V> executableStrategy,
+      Optional<Runnable> discardHandler) {
+    super(commandType, coalescingKey);
     this.responseReceiver = responseReceiver;
     this.executableStrategy = executableStrategy;
+    this.discardHandler = discardHandler;
+  }
+
+  /**
+   * Creates command completing future by its result. Future is completed exceptionally when
+   * command fails or when it is discarded without execution
+   */
+  public static <V> CommandWithResponse<V> completing(CommandType commandType,
+      CompletableFuture<V> future, ExecutableStrategy<V> executableStrategy) {
+    return new CommandWithResponse<>(commandType, future::complete, () -> {
+      try {
+        return executableStrategy.execute();
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+        throw e;
+      }
+    }, () -> future.completeExceptionally(
+        new RejectedExecutionException("Command was discarded.")));
   }
 
 
@@ -31,6 +79,17 @@ public class CommandWithResponse<V> extends Command {
     responseReceiver.receiveResponse(executeStrategy());
   }
 
+  @Override
+  public Runnable executeDeferringResponse() {
+    V response = executeStrategy();
+    return () -> responseReceiver.receiveResponse(response);
+  }
+
+  @Override
+  public void discard() {
+    discardHandler.ifPresent(Runnable::run);
+  }
+
   /**
    * Represents contract for code to be executed
    */
@@ -1,6 +1,7 @@
 package gg.fel.cvut.cz.facades.queue.implementation;
 
 import gg.fel.cvut.cz.facades.queue.Command;
+import java.util.Optional;
 
 /**
  * Represents command which will be just executed.
@@ -15,6 +16,12 @@ public class CommandWithoutResponse extends Command {
     this.executableStrategy = executableStrategy;
   }
 
+  public CommandWithoutResponse(CommandType commandType, Object coalescingKey,
+      ExecutableStrategy executableStrategy) {
+    super(commandType, Optional.of(coalescingKey));
+    this.executableStrategy = executableStrategy;
+  }
+
   @Override
   public void execute() {
     executableStrategy.execute();
@@ -0,0 +1,75 @@
+package gg.fel.cvut.cz.facades.queue.implementation;
+
+import gg.fel.cvut.cz.facades.IQueueManager;
+import gg.fel.cvut.cz.facades.data.DirtyContainerTracker;
+import gg.fel.cvut.cz.facades.data.UnitChangeDetector;
+import gg.fel.cvut.cz.facades.managers.UpdateManager;
+import gg.fel.cvut.cz.facades.queue.Command;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Queue manager for parsing. Unlike ParsingQueueManager, it parses only containers marked as dirty
+ * by callbacks of game and time-sensitive containers - game, players, bullets and units which
+ * state has changed. Static data are parsed once when game starts. Containers are refreshed
+ * directly, update trees are not executed as they would reach static data again - only containers
+ * referenced by refreshed ones which have never been parsed are parsed as well, so containers
+ * created during game are parsed even when they are reachable only by references.
+ */
+@Slf4j
+public class DirtyTrackingParsingQueueManager implements IQueueManager {
+
+  private final UpdateManager updateManager;
+  private final DirtyContainerTracker dirtyContainerTracker;
+  private final UnitChangeDetector unitChangeDetector = new UnitChangeDetector();
+
+  public DirtyTrackingParsingQueueManager(UpdateManager updateManager,
+      DirtyContainerTracker dirtyContainerTracker) {
+    this.updateManager = updateManager;
+    this.dirtyContainerTracker = dirtyContainerTracker;
+  }
+
+  @Override
+  public void executeCommands(long timeResources) {
+    int currentFrame = updateManager.getCurrentFrame();
+
+    //sweep containers which may change each frame
+    updateManager.getTimeSensitiveContainers(unitChangeDetector::hasChanged)
+        .forEach(dirtyContainerTracker::markDirty);
+
+    //containers reached for the first time are parsed in same frame
+    while (dirtyContainerTracker.getDirtyCount() > 0) {
+      dirtyContainerTracker.drainDirty(container -> {
+        if (container.deltaOfUpdate(currentFrame) != 0) {
+          container.update(updateManager, currentFrame);
+          container.forEachReferencedContainer(currentFrame, referenced -> {
+            if (referenced.updatedInFrame() < 0) {
+              dirtyContainerTracker.markDirty(referenced);
+            }
+          });
+        }
+      });
+    }
+  }
+
+  @Override
+  public EnqueueStatus addCommand(Command command) {
+    //commands are not executed when parsing
+    command.discard();
+    return EnqueueStatus.DROPPED;
+  }
+
+  @Override
+  public ScheduledCommand schedule(Command command, int atFrame) {
+    return ScheduledCommand.discarded(command, 0);
+  }
+
+  @Override
+  public ScheduledCommand scheduleEvery(Command command, int periodFrames) {
+    return ScheduledCommand.discarded(command, periodFrames);
+  }
+
+  @Override
+  public int getQueueDepth(CommandType commandType) {
+    return 0;
+  }
+}
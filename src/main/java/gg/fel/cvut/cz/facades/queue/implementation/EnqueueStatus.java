@@ -0,0 +1,39 @@
+package gg.fel.cvut.cz.facades.queue.implementation;
+
+/**
+ * Result of adding command to queue
+ */
+public enum EnqueueStatus {
+
+  /**
+   * Command was queued
+   */
+  QUEUED,
+
+  /**
+   * Command was queued, oldest pending command of its type was discarded
+   */
+  QUEUED_DROPPED_OLDEST,
+
+  /**
+   * Command replaced pending command with same coalescing key
+   */
+  COALESCED,
+
+  /**
+   * Queue of type is full, command was not queued
+   */
+  REJECTED,
+
+  /**
+   * Command was discarded without execution
+   */
+  DROPPED;
+
+  /**
+   * Returns true when command will be executed
+   */
+  public boolean isQueued() {
+    return this == QUEUED || this == QUEUED_DROPPED_OLDEST || this == COALESCED;
+  }
+}
@@ -0,0 +1,26 @@
+package gg.fel.cvut.cz.facades.queue.implementation;
+
+/**
+ * Lanes in which commands are executed
+ */
+public enum ExecutionLane {
+
+  /**
+   * Command is executed by game thread in time given to frame. Commands touching BWAPI have to be
+   * executed in this lane.
+   */
+  GAME_THREAD,
+
+  /**
+   * Command does not touch BWAPI, it is executed by worker outside of frame time. Receiver gets
+   * response on worker.
+   */
+  WORKER,
+
+  /**
+   * Command does not touch BWAPI, it is executed by worker outside of frame time. Receiver gets
+   * response on game thread at the beginning of frame, responses keep order in which commands were
+   * added.
+   */
+  WORKER_WITH_ORDERED_RESPONSE
+}
@@ -0,0 +1,140 @@
+package gg.fel.cvut.cz.facades.queue.implementation;
+
+import gg.fel.cvut.cz.facades.queue.Command;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel of commands scheduled to frames. Slot of command is given by its due frame,
+ * commands due in later rotations wait in slot until their frame. Commands are linked in slots
+ * intrusively, so scheduling and cancellation take constant time and periodic command allocates
+ * nothing when it is rescheduled. Commands are scheduled by any thread, wheel is advanced by game
+ * thread - due commands are added to queues of QueueManager as any other command.
+ */
+public class FrameTimerWheel {
+
+  //number of slots, power of two
+  private static final int SLOTS = 256;
+  private static final int MASK = SLOTS - 1;
+
+  private final ScheduledCommand[] slots = new ScheduledCommand[SLOTS];
+
+  //last frame which has been processed
+  private int currentFrame;
+  private int scheduled = 0;
+
+  public FrameTimerWheel(int currentFrame) {
+    this.currentFrame = currentFrame;
+  }
+
+  /**
+   * Schedules command to frame. Command scheduled to past or current frame fires in next one
+   */
+  public synchronized ScheduledCommand schedule(Command command, int atFrame) {
+    ScheduledCommand scheduledCommand = new ScheduledCommand(command,
+        Math.max(atFrame, currentFrame + 1), 0, this);
+    link(scheduledCommand);
+    return scheduledCommand;
+  }
+
+  /**
+   * Schedules command to be fired each period, starting in next frame
+   */
+  public synchronized ScheduledCommand scheduleEvery(Command command, int periodFrames) {
+    if (periodFrames < 1) {
+      throw new IllegalArgumentException("Period of command has to be positive.");
+    }
+    ScheduledCommand scheduledCommand = new ScheduledCommand(command, currentFrame + 1,
+        periodFrames, this);
+    link(scheduledCommand);
+    return scheduledCommand;
+  }
+
+  synchronized boolean cancel(ScheduledCommand scheduledCommand) {
+    if (scheduledCommand.isCancelled() || !isLinked(scheduledCommand)) {
+      return false;
+    }
+    unlink(scheduledCommand);
+    scheduledCommand.markCancelled();
+    return true;
+  }
+
+  /**
+   * Advances wheel to frame and passes commands which are due to consumer
+   */
+  public void advance(int toFrame, Consumer<Command> dueCommands) {
+    while (true) {
+      Command command;
+      synchronized (this) {
+        command = pollDue(toFrame);
+      }
+      if (command == null) {
+        return;
+      }
+
+      //commands are passed outside of lock, consumer may schedule new ones
+      dueCommands.accept(command);
+    }
+  }
+
+  public synchronized int getScheduledCount() {
+    return scheduled;
+  }
+
+  /**
+   * Returns next due command or null when frames up to given one are processed
+   */
+  private Command pollDue(int toFrame) {
+    while (true) {
+      int slot = (currentFrame + 1) & MASK;
+      for (ScheduledCommand scheduledCommand = slots[slot]; scheduledCommand != null;
+          scheduledCommand = scheduledCommand.next) {
+        if (scheduledCommand.getDueFrame() <= toFrame
+            && scheduledCommand.getDueFrame() <= currentFrame + 1) {
+          unlink(scheduledCommand);
+          if (scheduledCommand.getPeriodFrames() > 0) {
+            scheduledCommand.setDueFrame(
+                Math.max(scheduledCommand.getDueFrame() + scheduledCommand.getPeriodFrames(),
+                    currentFrame + 2));
+            link(scheduledCommand);
+          }
+          return scheduledCommand.getCommand();
+        }
+      }
+      if (currentFrame >= toFrame) {
+        return null;
+      }
+      currentFrame++;
+    }
+  }
+
+  private boolean isLinked(ScheduledCommand scheduledCommand) {
+    return scheduledCommand.previous != null
+        || slots[scheduledCommand.getDueFrame() & MASK] == scheduledCommand;
+  }
+
+  private void link(ScheduledCommand scheduledCommand) {
+    int slot = scheduledCommand.getDueFrame() & MASK;
+    scheduledCommand.previous = null;
+    scheduledCommand.next = slots[slot];
+    if (slots[slot] != null) {
+      slots[slot].previous = scheduledCommand;
+    }
+    slots[slot] = scheduledCommand;
+    scheduled++;
+  }
+
+  private void unlink(ScheduledCommand scheduledCommand) {
+    if (scheduledCommand.previous != null) {
+      scheduledCommand.previous.next = scheduledCommand.next;
+    } else {
+      slots[scheduledCommand.getDueFrame() & MASK] = scheduledCommand.next;
+    }
+    if (scheduledCommand.next != null) {
+      scheduledCommand.next.previous = scheduledCommand.previous;
+    }
+    scheduledCommand.previous = null;
+    scheduledCommand.next = null;
+    scheduled--;
+  }
+
+}
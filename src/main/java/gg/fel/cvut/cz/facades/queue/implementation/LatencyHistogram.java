@@ -0,0 +1,91 @@
+package gg.fel.cvut.cz.facades.queue.implementation;
+
+/**
+ * Decaying histogram of latencies in nanoseconds. Buckets grow exponentially - each power of two is
+ * split to 4 buckets, so percentile is estimated with error up to 19%. Older samples weight less,
+ * so single outlier is forgotten after some executions and histogram follows change of cost.
+ * <p>
+ * Histogram is not thread-safe, it is meant to be used by game thread only.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKETS_BITS = 2, SUB_BUCKETS = 1 << SUB_BUCKETS_BITS;
+  private static final int BUCKETS = (64 - SUB_BUCKETS_BITS) * SUB_BUCKETS;
+
+  //weights are renormalized when increment grows too much
+  private static final double RENORMALIZATION_LIMIT = 1e100;
+
+  private final double[] weights = new double[BUCKETS];
+  private final double decay;
+  private double increment = 1, totalWeight = 0;
+
+  /**
+   * Creates histogram where weight of sample is multiplied by decay with each newer sample
+   */
+  public LatencyHistogram(double decay) {
+    if (decay <= 0 || decay > 1) {
+      throw new IllegalArgumentException("Decay has to be in (0, 1].");
+    }
+    this.decay = decay;
+  }
+
+  /**
+   * Records sample. Instead of decaying all weights, weight of new samples grows.
+   */
+  public void record(long nanos) {
+    int bucket = bucketOf(Math.max(0, nanos));
+    weights[bucket] += increment;
+    totalWeight += increment;
+    increment /= decay;
+    if (increment > RENORMALIZATION_LIMIT) {
+      for (int i = 0; i < BUCKETS; i++) {
+        weights[i] /= increment;
+      }
+      totalWeight /= increment;
+      increment = 1;
+    }
+  }
+
+  public boolean isEmpty() {
+    return totalWeight == 0;
+  }
+
+  /**
+   * Returns upper bound of bucket containing given percentile, 0 when there are no samples
+   */
+  public long percentile(double percentile) {
+    if (isEmpty()) {
+      return 0;
+    }
+    double threshold = percentile * totalWeight, cumulative = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      cumulative += weights[i];
+      if (cumulative >= threshold && weights[i] > 0) {
+        return upperBoundOf(i);
+      }
+    }
+    return upperBoundOf(BUCKETS - 1);
+  }
+
+  static int bucketOf(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+    int subBucket = (int) (nanos >>> (magnitude - SUB_BUCKETS_BITS)) & (SUB_BUCKETS - 1);
+    return (magnitude - SUB_BUCKETS_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int magnitude = bucket / SUB_BUCKETS + SUB_BUCKETS_BITS - 1;
+    long subBucket = bucket % SUB_BUCKETS;
+    if (magnitude >= 62) {
+      return Long.MAX_VALUE;
+    }
+    return ((SUB_BUCKETS + subBucket + 1) << (magnitude - SUB_BUCKETS_BITS)) - 1;
+  }
+
+}
@@ -0,0 +1,28 @@
+package gg.fel.cvut.cz.facades.queue.implementation;
+
+/**
+ * Policies applied when command is added to queue of type which is full
+ */
+public enum OverflowPolicy {
+
+  /**
+   * Command is not queued, producer is told to back off
+   */
+  REJECT,
+
+  /**
+   * Oldest pending command of type is discarded to make room for command
+   */
+  DROP_OLDEST,
+
+  /**
+   * Command is silently discarded
+   */
+  DROP_NEWEST,
+
+  /**
+   * Pending command with same coalescing key is replaced by command. Command without such pending
+   * one is rejected.
+   */
+  COALESCE
+}
@@ -26,7 +26,24 @@ public class ParsingQueueManager implements IQueueManager {
   }
 
   @Override
-  public void addCommand(Command command) {
-    //EMPTY
+  public EnqueueStatus addCommand(Command command) {
+    //commands are not executed when parsing
+    command.discard();
+    return EnqueueStatus.DROPPED;
+  }
+
+  @Override
+  public ScheduledCommand schedule(Command command, int atFrame) {
+    return ScheduledCommand.discarded(command, 0);
+  }
+
+  @Override
+  public ScheduledCommand scheduleEvery(Command command, int periodFrames) {
+    return ScheduledCommand.discarded(command, periodFrames);
+  }
+
+  @Override
+  public int getQueueDepth(CommandType commandType) {
+    return 0;
   }
 }
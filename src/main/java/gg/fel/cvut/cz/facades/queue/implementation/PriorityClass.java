@@ -0,0 +1,9 @@
+package gg.fel.cvut.cz.facades.queue.implementation;
+
+/**
+ * Priority classes of commands. Commands of higher class are executed before commands of lower
+ * class, class which has been starving for several frames is served first.
+ */
+public enum PriorityClass {
+  CRITICAL, NORMAL, BACKGROUND
+}
@@ -1,53 +1,189 @@
 package gg.fel.cvut.cz.facades.queue.implementation;
 
+import gg.fel.cvut.cz.counters.BWCounter;
+import gg.fel.cvut.cz.counters.IBWClock;
 import gg.fel.cvut.cz.facades.IQueueManager;
 import gg.fel.cvut.cz.facades.queue.Command;
+import gg.fel.cvut.cz.facades.queue.metrics.CommandTypeMetrics;
+import gg.fel.cvut.cz.facades.queue.metrics.QueueMetrics;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 import lombok.EqualsAndHashCode;
 
 /**
  * Manages queued items - to order them by type that each type has fair chance that its commands
- * will be executed
+ * will be executed. Types are grouped by priority classes, classes are served by priority and types
+ * in class by weighted deficit round robin. Class which has been starving for several frames gets
+ * its command executed first. Commands are added by many threads and executed by game thread only,
+ * so queues are lock-free and directory of queues indexed by ordinal of type is copied on write -
+ * new types of commands are rare.
  */
 public class QueueManager implements IQueueManager {
 
-  private final Map<CommandType, MyQueue> queues = new HashMap<>();
-  private final List<MyQueue> orderOfMyQueues = new ArrayList<>();
-  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+  //time given to queue of weight 1 in each round of deficit round robin
+  private static final long QUANTUM = TimeUnit.MILLISECONDS.toNanos(1);
+
+  //minimal cost charged for command, commands without measurable duration are not free
+  private static final long MINIMAL_COST = TimeUnit.MICROSECONDS.toNanos(1);
+
+  //class with pending commands which has not executed any for this number of frames is served first
+  private static final int AGING_FRAMES = 8;
+
+  //weight of older executions in histogram of costs, about last 100 executions matter
+  private static final double LATENCY_DECAY = 0.98;
+
+  private final CommandTypeTable<MyQueue> queues = new CommandTypeTable<>();
+  private final PriorityClassQueues[] classes = new PriorityClassQueues[PriorityClass
+      .values().length];
   private List<MyQueue> toExecute = new ArrayList<>();
 
+  //source of time in nanoseconds
+  private final LongSupplier clock;
+
+  //predict cost of command by 95th percentile of its type instead of mean
+  private final boolean predictByPercentile;
+
+  //source of frames, each call of executeCommands is frame when it is not given
+  private final IBWClock frameClock;
+  private final Optional<BWCounter> ownFrameCounter;
+  private final FrameTimerWheel timerWheel;
+
+  //lane for commands which do not touch BWAPI, such commands are executed by game thread without it
+  private Optional<WorkerLane> workerLane = Optional.empty();
+
+  //metrics are recorded only when they are set
+  private Optional<QueueMetrics> metrics = Optional.empty();
+
+  //statistics of deadlines, written by game thread only
+  private volatile long executions = 0, exceededDeadlines = 0;
+
+  public QueueManager() {
+    this(System::nanoTime, false);
+  }
+
+  /**
+   * Creates queue manager timing commands by clock in nanoseconds. With percentile prediction,
+   * command is executed only if 95th percentile of recent costs of its type fits remaining time.
+   */
+  public QueueManager(LongSupplier clock, boolean predictByPercentile) {
+    this(clock, predictByPercentile, Optional.empty());
+  }
+
+  /**
+   * Creates queue manager as above, commands are scheduled to frames of given clock
+   */
+  public QueueManager(LongSupplier clock, boolean predictByPercentile, IBWClock frameClock) {
+    this(clock, predictByPercentile, Optional.of(frameClock));
+  }
+
+  private QueueManager(LongSupplier clock, boolean predictByPercentile,
+      Optional<IBWClock> frameClock) {
+    this.clock = clock;
+    this.predictByPercentile = predictByPercentile;
+    this.ownFrameCounter = frameClock.isPresent() ? Optional.empty() : Optional.of(new BWCounter());
+    this.frameClock = frameClock.orElseGet(ownFrameCounter::get);
+    this.timerWheel = new FrameTimerWheel(this.frameClock.getCurrentFrame());
+    for (int i = 0; i < classes.length; i++) {
+      classes[i] = new PriorityClassQueues();
+    }
+  }
+
+  /**
+   * Sets workers to execute commands which do not touch BWAPI outside of frame
+   */
+  public void setWorkerPool(ExecutorService workers) {
+    this.workerLane = Optional.of(new WorkerLane(workers));
+  }
+
+  /**
+   * Sets metrics to record queues and frames to. It has to be set before commands are added
+   */
+  public void setMetrics(QueueMetrics metrics) {
+    metrics.setQueueDepth(this::getQueueDepth);
+    this.metrics = Optional.of(metrics);
+  }
+
+  /**
+   * Returns number of calls of executeCommands
+   */
+  public long getExecutions() {
+    return executions;
+  }
+
+  /**
+   * Returns number of calls of executeCommands which took more than given time resources
+   */
+  public long getExceededDeadlines() {
+    return exceededDeadlines;
+  }
+
   @Override
   public void executeCommands(long timeResources) {
-    long start = System.currentTimeMillis();
-    boolean executedAnyCommand, hasTimeRemaining = true;
+    long start = clock.getAsLong(), deadline = TimeUnit.MILLISECONDS.toNanos(timeResources);
+    try {
+      ownFrameCounter.ifPresent(BWCounter::increaseClocks);
+      timerWheel.advance(frameClock.getCurrentFrame(), this::addCommand);
+      workerLane.ifPresent(WorkerLane::deliverResponses);
+      executeCommands(start, deadline);
+    } finally {
+      executions++;
+      long duration = clock.getAsLong() - start;
+      if (duration > deadline) {
+        exceededDeadlines++;
+      }
+      if (metrics.isPresent()) {
+        metrics.get().recordFrame(frameClock.getCurrentFrame(), duration, duration > deadline);
+      }
+    }
+  }
+
+  /**
+   * Executes command of queue out of round robin
+   */
+  private void execute(MyQueue myQueue) {
+    if (myQueue.executeCommand() >= 0) {
+      classes[myQueue.commandType.getPriorityClass().ordinal()].executedInFrame = true;
+    }
+  }
+
+  private long remaining(long start, long deadline) {
+    return deadline - (clock.getAsLong() - start);
+  }
+
+  private void executeCommands(long start, long deadline) {
+    boolean hasTimeRemaining = true;
 
     //try to execute previous requests
     List<MyQueue> toExecuteNext = new ArrayList<>();
 
     //execute at least one from previous request
     if (!toExecute.isEmpty()) {
-      toExecute.remove(0).executedCommand();
+      execute(toExecute.remove(0));
     }
 
     for (int i = 0; i < toExecute.size(); i++) {
       if (toExecute.get(i).canBeExpectedToBeExecuteInInterval(
-          timeResources - (System.currentTimeMillis() - start))) {
-        toExecute.get(i).executedCommand();
+          remaining(start, deadline))) {
+        execute(toExecute.get(i));
       } else {
 
         //higher priority is assigned
         toExecuteNext.add(toExecute.get(i));
       }
-      if (timeResources - (System.currentTimeMillis() - start) <= 0) {
+      if (remaining(start, deadline) <= 0) {
 
         //reschedule
         if (i + 1 < toExecute.size()) {
@@ -64,124 +200,418 @@ public class QueueManager implements IQueueManager {
     Set<MyQueue> queuesToSkip = new HashSet<>(toExecuteNext);
 
     //execute new requests if there is still time
-    if (hasTimeRemaining && timeResources - (System.currentTimeMillis() - start) > 0) {
-      int queues;
-      try {
-        lock.readLock().lock();
-        queues = orderOfMyQueues.size();
-      } finally {
-        lock.readLock().unlock();
-      }
-
-      //execute new request while there is a time
-      while (true) {
-        executedAnyCommand = false;
-        for (int i = 0; i < queues; i++) {
-          if (timeResources - (System.currentTimeMillis() - start) <= 0) {
+    if (hasTimeRemaining && remaining(start, deadline) > 0) {
 
-            //exit execution and resume next time where it ended
-            hasTimeRemaining = false;
-            break;
-          }
-          MyQueue myQueue;
-          try {
-            lock.readLock().lock();
-            myQueue = orderOfMyQueues.get(i);
-          } finally {
-            lock.readLock().unlock();
-          }
-          if (myQueue.canBeExpectedToBeExecuteInInterval(
-              timeResources - (System.currentTimeMillis() - start))) {
-            if (myQueue.executedCommand()) {
-              executedAnyCommand = true;
-            }
-          } else {
-
-            //higher priority is assigned
-            if (!queuesToSkip.contains(myQueue)) {
-              toExecute.add(myQueue);
-              queuesToSkip.add(myQueue);
-            }
-          }
+      //classes starving for too long get their command first
+      for (PriorityClassQueues priorityClass : classes) {
+        if (priorityClass.framesStarving >= AGING_FRAMES) {
+          priorityClass.serve(start, deadline, true, queuesToSkip);
         }
-        if (!executedAnyCommand || !hasTimeRemaining) {
+      }
+
+      //then classes are served by priority while there is a time
+      for (PriorityClassQueues priorityClass : classes) {
+        if (remaining(start, deadline) <= 0) {
           break;
         }
+        priorityClass.serve(start, deadline, false, queuesToSkip);
       }
     }
+
+    for (PriorityClassQueues priorityClass : classes) {
+      priorityClass.age();
+    }
   }
 
   @Override
-  public void addCommand(Command command) {
-    MyQueue myQueue;
+  public ScheduledCommand schedule(Command command, int atFrame) {
+    return timerWheel.schedule(command, atFrame);
+  }
 
-    //is myQueue to handle this type present
-    try {
-      lock.readLock().lock();
-      myQueue = queues.get(command.getCommandType());
-    } finally {
-      lock.readLock().unlock();
+  @Override
+  public ScheduledCommand scheduleEvery(Command command, int periodFrames) {
+    return timerWheel.scheduleEvery(command, periodFrames);
+  }
+
+  @Override
+  public int getQueueDepth(CommandType commandType) {
+    MyQueue myQueue = queues.get(commandType);
+    return (myQueue == null ? 0 : myQueue.depth.get())
+        + workerLane.map(lane -> lane.getInFlight(commandType)).orElse(0);
+  }
+
+  @Override
+  public EnqueueStatus addCommand(Command command) {
+    EnqueueStatus status = enqueue(command);
+    if (metrics.isPresent()) {
+      metrics.get().forCommandType(command.getCommandType()).recordEnqueued(status);
+    }
+    return status;
+  }
+
+  private EnqueueStatus enqueue(Command command) {
+
+    //commands which do not touch BWAPI are passed to worker lane when it is set
+    if (workerLane.isPresent()
+        && command.getCommandType().getExecutionLane() != ExecutionLane.GAME_THREAD) {
+      return workerLane.get().submit(command);
     }
 
     //create new myQueue to handle new types of commands
-    if (myQueue == null) {
-      try {
-        lock.writeLock().lock();
-        myQueue = new MyQueue(command.getCommandType());
-        queues.put(myQueue.commandType, myQueue);
-        orderOfMyQueues.add(myQueue);
-      } finally {
-        lock.writeLock().unlock();
-      }
-    }
-    myQueue.addCommand(command);
+    MyQueue myQueue = queues.computeIfAbsent(command.getCommandType(), commandType -> {
+      MyQueue newQueue = new MyQueue(commandType, clock, predictByPercentile,
+          metrics.map(queueMetrics -> queueMetrics.forCommandType(commandType)));
+      classes[commandType.getPriorityClass().ordinal()].queues.add(newQueue);
+      return newQueue;
+    });
+
+    //time of enqueue is remembered only when it is measured
+    return myQueue.addCommand(metrics.isPresent()
+        ? new TimedCommand(command, clock.getAsLong()) : command);
   }
 
   /**
-   * Maintains queue for command type
+   * Maintains queue for command type. Commands are added by any thread, only game thread polls
+   * them and keeps statistics of execution.
    */
   @EqualsAndHashCode(of = "commandType")
   private static class MyQueue {
 
     private final CommandType commandType;
-    private final Object queueMonitor = new Object();
-    private final Queue<Command> commands = new LinkedList<>();
+    private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+
+    //size of concurrent queue is not constant-time operation, so it is counted
+    private final AtomicInteger depth = new AtomicInteger();
+
+    //pending slots of commands by coalescing key, used only by types which coalesce
+    private final Map<Object, CoalescingSlot> slots = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final boolean predictByPercentile;
+    private final LatencyHistogram latencies = new LatencyHistogram(LATENCY_DECAY);
+    private final Optional<CommandTypeMetrics> metrics;
     private long averageExecution = 0;
     private int countOfExecutions = 0;
 
-    MyQueue(CommandType commandType) {
+    //remaining time of queue in current round of deficit round robin
+    private long deficit = 0;
+
+    MyQueue(CommandType commandType, LongSupplier clock, boolean predictByPercentile,
+        Optional<CommandTypeMetrics> metrics) {
       this.commandType = commandType;
+      this.metrics = metrics;
+      this.clock = clock;
+      this.predictByPercentile = predictByPercentile;
     }
 
-    void addCommand(Command command) {
-      synchronized (queueMonitor) {
-        commands.add(command);
+    /**
+     * Adds command to queue. Queue is bounded by capacity of type, command added to full queue is
+     * handled by overflow policy of type
+     */
+    EnqueueStatus addCommand(Command command) {
+      if (depth.incrementAndGet() <= commandType.getCapacity()) {
+        commands.add(inSlot(command));
+        return EnqueueStatus.QUEUED;
       }
+      depth.decrementAndGet();
+      switch (commandType.getOverflowPolicy()) {
+        case DROP_OLDEST:
+          commands.add(command);
+          depth.incrementAndGet();
+
+          //other producers may drop concurrently, so queue is trimmed until it fits
+          while (depth.get() > commandType.getCapacity()) {
+            Command oldest = commands.poll();
+            if (oldest == null) {
+              break;
+            }
+            depth.decrementAndGet();
+            oldest.discard();
+          }
+          return EnqueueStatus.QUEUED_DROPPED_OLDEST;
+        case COALESCE:
+
+          //command takes place of pending one, so it does not wait at the tail of queue
+          if (command.getCoalescingKey().isPresent()) {
+            CoalescingSlot slot = slots.get(command.getCoalescingKey().get());
+            if (slot != null && slot.replace(command)) {
+              return EnqueueStatus.COALESCED;
+            }
+          }
+          command.discard();
+          return EnqueueStatus.REJECTED;
+        case DROP_NEWEST:
+          command.discard();
+          return EnqueueStatus.DROPPED;
+        default:
+          command.discard();
+          return EnqueueStatus.REJECTED;
+      }
+    }
+
+    /**
+     * Puts command with coalescing key of coalescing type to slot, which is registered by the key
+     * unless other command with the key is pending
+     */
+    private Command inSlot(Command command) {
+      if (commandType.getOverflowPolicy() != OverflowPolicy.COALESCE
+          || !command.getCoalescingKey().isPresent()) {
+        return command;
+      }
+      CoalescingSlot slot = new CoalescingSlot(command);
+      slots.putIfAbsent(command.getCoalescingKey().get(), slot);
+      return slot;
+    }
+
+    /**
+     * Returns command to execute, slot is unregistered before its command is taken
+     */
+    private Optional<Command> unwrap(Command command) {
+      if (!(command instanceof CoalescingSlot)) {
+        return Optional.of(command);
+      }
+      slots.remove(command.getCoalescingKey().get(), command);
+      return ((CoalescingSlot) command).take();
     }
 
     boolean canBeExpectedToBeExecuteInInterval(long interval) {
+      if (predictByPercentile) {
+        return interval > latencies.percentile(0.95);
+      }
       return interval > averageExecution;
     }
 
-    boolean executedCommand() {
-      Optional<Command> command;
-      synchronized (queueMonitor) {
-        command = Optional.ofNullable(commands.poll());
+    boolean hasCommands() {
+      return !commands.isEmpty();
+    }
+
+    /**
+     * Executes command and returns its duration, negative number when there is no command
+     */
+    long executeCommand() {
+      Command polled = commands.poll();
+      if (polled == null) {
+        return -1;
       }
+      depth.decrementAndGet();
+      Optional<Command> command = unwrap(polled);
       if (command.isPresent()) {
 
         //execute command and update average execution time
-        long start = System.currentTimeMillis(), duration;
+        long start = clock.getAsLong(), duration;
         command.get().execute();
-        duration = System.currentTimeMillis() - start;
+        duration = clock.getAsLong() - start;
+        latencies.record(duration);
         averageExecution =
             ((averageExecution * countOfExecutions) + duration) / (countOfExecutions + 1);
         countOfExecutions++;
-        return true;
+        if (metrics.isPresent() && command.get() instanceof TimedCommand) {
+          metrics.get().recordExecution(start - ((TimedCommand) command.get()).enqueuedAt,
+              duration);
+        }
+        return duration;
+      }
+      return -1;
+    }
+
+  }
+
+  /**
+   * Queues of command types in priority class. Queues are served by deficit round robin, so each
+   * type gets share of time by its weight.
+   */
+  private class PriorityClassQueues {
+
+    private final List<MyQueue> queues = new CopyOnWriteArrayList<>();
+    private int nextQueue = 0;
+    private boolean nextQueueCharged = false;
+    private boolean executedInFrame = false;
+    private int framesStarving = 0;
+
+    /**
+     * Serves queues - each visited queue gets quantum by its weight and executes commands while it
+     * has remaining deficit. Serving stops when time runs out, no queue can execute command or
+     * after first command when requested.
+     */
+    void serve(long start, long deadline, boolean onlyFirstCommand, Set<MyQueue> queuesToSkip) {
+      int size = queues.size(), idle = 0;
+      while (size > 0) {
+        if (idle == size) {
+
+          //lap without execution, queues in debt are charged for laps they would wait
+          if (!chargeQueuesInDebt()) {
+            return;
+          }
+          idle = 0;
+        }
+        MyQueue myQueue = queues.get(nextQueue);
+        if (!nextQueueCharged) {
+
+          //positive deficit is not accumulated over one quantum
+          long quantum = QUANTUM * myQueue.commandType.getWeight();
+          myQueue.deficit = Math.min(myQueue.deficit + quantum, quantum);
+          nextQueueCharged = true;
+        }
+        boolean progress = false;
+        while (myQueue.deficit > 0 && myQueue.hasCommands()) {
+          long remaining = remaining(start, deadline);
+          if (remaining <= 0) {
+
+            //resume with this queue next time
+            return;
+          }
+          if (!myQueue.canBeExpectedToBeExecuteInInterval(remaining)) {
+
+            //higher priority is assigned
+            if (queuesToSkip.add(myQueue)) {
+              toExecute.add(myQueue);
+            }
+            break;
+          }
+          long cost = myQueue.executeCommand();
+          if (cost < 0) {
+            break;
+          }
+          myQueue.deficit -= Math.max(cost, MINIMAL_COST);
+          executedInFrame = true;
+          progress = true;
+          if (onlyFirstCommand) {
+            return;
+          }
+        }
+
+        //idle queue does not keep its deficit
+        if (!myQueue.hasCommands()) {
+          myQueue.deficit = 0;
+        }
+        idle = progress ? 0 : idle + 1;
+        nextQueue = (nextQueue + 1) % size;
+        nextQueueCharged = false;
+      }
+    }
+
+    /**
+     * Charges queues which have commands but no deficit after lap without execution. Each of them
+     * gets at once quanta of laps in which the first of them would get positive deficit, so
+     * commands are not postponed by laps spent only by charging. Returns false when no queue is in
+     * debt.
+     */
+    private boolean chargeQueuesInDebt() {
+      long laps = Long.MAX_VALUE;
+      for (int i = 0; i < queues.size(); i++) {
+        MyQueue myQueue = queues.get(i);
+        if (myQueue.hasCommands() && myQueue.deficit <= 0) {
+          long quantum = QUANTUM * myQueue.commandType.getWeight();
+          laps = Math.min(laps, -myQueue.deficit / quantum);
+        }
+      }
+      if (laps == Long.MAX_VALUE) {
+        return false;
+      }
+      for (int i = 0; i < queues.size(); i++) {
+        MyQueue myQueue = queues.get(i);
+        if (myQueue.hasCommands() && myQueue.deficit <= 0) {
+          myQueue.deficit += laps * QUANTUM * myQueue.commandType.getWeight();
+        }
+      }
+      return true;
+    }
+
+    boolean hasCommands() {
+      for (int i = 0; i < queues.size(); i++) {
+        if (queues.get(i).hasCommands()) {
+          return true;
+        }
       }
       return false;
     }
 
+    /**
+     * Updates number of frames for which class has been waiting for execution of its commands
+     */
+    void age() {
+      if (executedInFrame || !hasCommands()) {
+        framesStarving = 0;
+      } else {
+        framesStarving++;
+      }
+      executedInFrame = false;
+    }
+
+  }
+
+  /**
+   * Place of pending command in queue. Newer command with same key replaces pending one in its
+   * place and pending command is discarded, so its receiver is answered. Slot is emptied when it
+   * is polled and then it can not be replaced anymore.
+   */
+  private static class CoalescingSlot extends Command {
+
+    private final AtomicReference<Command> command;
+
+    private CoalescingSlot(Command command) {
+      super(command.getCommandType(), command.getCoalescingKey());
+      this.command = new AtomicReference<>(command);
+    }
+
+    /**
+     * Replaces pending command by given one, returns false when slot has been already polled
+     */
+    private boolean replace(Command newer) {
+      while (true) {
+        Command pending = command.get();
+        if (pending == null) {
+          return false;
+        }
+        if (command.compareAndSet(pending, newer)) {
+          pending.discard();
+          return true;
+        }
+      }
+    }
+
+    private Optional<Command> take() {
+      return Optional.ofNullable(command.getAndSet(null));
+    }
+
+    @Override
+    public void execute() {
+      take().ifPresent(Command::execute);
+    }
+
+    @Override
+    public void discard() {
+      take().ifPresent(Command::discard);
+    }
+  }
+
+  /**
+   * Command remembering time when it was added to queue
+   */
+  private static class TimedCommand extends Command {
+
+    private final Command command;
+    private final long enqueuedAt;
+
+    private TimedCommand(Command command, long enqueuedAt) {
+      super(command.getCommandType(), command.getCoalescingKey());
+      this.command = command;
+      this.enqueuedAt = enqueuedAt;
+    }
+
+    @Override
+    public void execute() {
+      command.execute();
+    }
+
+    @Override
+    public Runnable executeDeferringResponse() {
+      return command.executeDeferringResponse();
+    }
+
+    @Override
+    public void discard() {
+      command.discard();
+    }
   }
 
 }
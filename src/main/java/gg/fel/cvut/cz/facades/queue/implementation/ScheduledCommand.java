@@ -0,0 +1,72 @@
+package gg.fel.cvut.cz.facades.queue.implementation;
+
+import gg.fel.cvut.cz.facades.queue.Command;
+import lombok.Getter;
+
+/**
+ * Handle of command scheduled to frame. Periodic command is added to queue again each period - same
+ * instance of command is reused, so it has to be executable repeatedly.
+ */
+public class ScheduledCommand {
+
+  @Getter
+  private final Command command;
+
+  //0 for one-shot command
+  @Getter
+  private final int periodFrames;
+
+  //written under lock of wheel
+  private volatile int dueFrame;
+  private volatile boolean cancelled = false;
+
+  //intrusive links of slot of wheel, so command can be removed in constant time
+  ScheduledCommand previous, next;
+  private final FrameTimerWheel wheel;
+
+  ScheduledCommand(Command command, int dueFrame, int periodFrames, FrameTimerWheel wheel) {
+    this.command = command;
+    this.dueFrame = dueFrame;
+    this.periodFrames = periodFrames;
+    this.wheel = wheel;
+  }
+
+  /**
+   * Returns handle of command which is never executed, e.g. when commands are not executed at all
+   */
+  static ScheduledCommand discarded(Command command, int periodFrames) {
+    command.discard();
+    ScheduledCommand scheduledCommand = new ScheduledCommand(command, Integer.MAX_VALUE,
+        periodFrames, null);
+    scheduledCommand.markCancelled();
+    return scheduledCommand;
+  }
+
+  /**
+   * Returns frame in which command is added to queue next time
+   */
+  public int getDueFrame() {
+    return dueFrame;
+  }
+
+  void setDueFrame(int dueFrame) {
+    this.dueFrame = dueFrame;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  void markCancelled() {
+    cancelled = true;
+  }
+
+  /**
+   * Cancels command, command already added to queue is still executed. Returns false when command
+   * has been cancelled or fired already
+   */
+  public boolean cancel() {
+    return wheel != null && wheel.cancel(this);
+  }
+
+}
@@ -0,0 +1,121 @@
+package gg.fel.cvut.cz.facades.queue.implementation;
+
+import gg.fel.cvut.cz.data.AContainer;
+import gg.fel.cvut.cz.facades.queue.Command;
+import gg.fel.cvut.cz.facades.queue.IResponseReceiver;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandWithResponse.ExecutableStrategy;
+import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Coalesces pending update commands. Update is keyed by container and strategy - when same update
+ * is requested while previous one is still waiting in queue, its receiver is attached to queued
+ * command and no new command is created. Request made while update is executed creates new command
+ * as it may need newer data.
+ */
+public class UpdateCommandCoalescer {
+
+  private final ConcurrentMap<Key, CoalescedCommand> pendingCommands = new ConcurrentHashMap<>();
+  private final AtomicLong requests = new AtomicLong(), savedExecutions = new AtomicLong();
+
+  /**
+   * Returns command to queue or nothing when update has been attached to pending one
+   */
+  public Optional<Command> coalesce(CommandType commandType, AContainer container,
+      UpdateStrategy updateStrategy, Optional<IResponseReceiver<Boolean>> responseReceiver,
+      ExecutableStrategy<Boolean> update) {
+    requests.incrementAndGet();
+    Key key = new Key(container, updateStrategy);
+    CoalescedCommand[] created = new CoalescedCommand[1];
+    pendingCommands.compute(key, (k, pending) -> {
+      if (pending == null) {
+        pending = new CoalescedCommand(commandType, k, update);
+        created[0] = pending;
+      }
+      responseReceiver.ifPresent(pending.responseReceivers::add);
+      return pending;
+    });
+    if (created[0] == null) {
+      savedExecutions.incrementAndGet();
+    }
+    return Optional.ofNullable(created[0]);
+  }
+
+  /**
+   * Returns number of requested updates
+   */
+  public long getRequests() {
+    return requests.get();
+  }
+
+  /**
+   * Returns number of requested updates which were attached to pending ones instead of being
+   * executed
+   */
+  public long getSavedExecutions() {
+    return savedExecutions.get();
+  }
+
+  public int getPendingCount() {
+    return pendingCommands.size();
+  }
+
+  @EqualsAndHashCode
+  @AllArgsConstructor
+  private static class Key {
+
+    private final AContainer container;
+
+    //strategies are compared by identity
+    private final UpdateStrategy updateStrategy;
+  }
+
+  /**
+   * Command executing update once for all attached receivers
+   */
+  private class CoalescedCommand extends Command {
+
+    private final Key key;
+    private final ExecutableStrategy<Boolean> update;
+    private final Queue<IResponseReceiver<Boolean>> responseReceivers = new ConcurrentLinkedQueue<>();
+
+    private CoalescedCommand(CommandType commandType, Key key,
+        ExecutableStrategy<Boolean> update) {
+      super(commandType, Optional.of(key));
+      this.key = key;
+      this.update = update;
+    }
+
+    @Override
+    public void execute() {
+
+      //later requests are not attached anymore
+      pendingCommands.remove(key, this);
+      Boolean response = false;
+      try {
+        response = update.execute();
+      } finally {
+
+        //receivers are always answered, so nobody waits for failed update forever
+        Boolean result = response;
+        responseReceivers.forEach(responseReceiver -> responseReceiver.receiveResponse(result));
+      }
+    }
+
+    @Override
+    public void discard() {
+
+      //update was not executed, so new request has to be queued again
+      pendingCommands.remove(key, this);
+      responseReceivers.forEach(responseReceiver -> responseReceiver.receiveResponse(false));
+    }
+  }
+
+}
@@ -0,0 +1,111 @@
+package gg.fel.cvut.cz.facades.queue.implementation;
+
+import gg.fel.cvut.cz.facades.queue.Command;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes commands which do not touch BWAPI by workers, outside of time given to frame.
+ * QueueManager passes such commands to lane once workers are set. Number of commands of type in
+ * flight is bounded by capacity of type - submitted command can not be recalled, so overflow is
+ * handled by rejecting or dropping new command. Ordered responses are delivered by game thread in
+ * order of submission.
+ */
+@Slf4j
+public class WorkerLane {
+
+  private final ExecutorService workers;
+  private final CommandTypeTable<AtomicInteger> inFlight = new CommandTypeTable<>();
+  private final Queue<OrderedResponse> orderedResponses = new ConcurrentLinkedQueue<>();
+
+  public WorkerLane(ExecutorService workers) {
+    this.workers = workers;
+  }
+
+  /**
+   * Submits command to workers
+   */
+  public EnqueueStatus submit(Command command) {
+    CommandType commandType = command.getCommandType();
+    AtomicInteger count = inFlight.computeIfAbsent(commandType, type -> new AtomicInteger());
+    if (count.incrementAndGet() > commandType.getCapacity()) {
+      count.decrementAndGet();
+      command.discard();
+      return commandType.getOverflowPolicy() == OverflowPolicy.DROP_NEWEST
+          ? EnqueueStatus.DROPPED : EnqueueStatus.REJECTED;
+    }
+    try {
+      if (commandType.getExecutionLane() == ExecutionLane.WORKER_WITH_ORDERED_RESPONSE) {
+        OrderedResponse orderedResponse = new OrderedResponse();
+        workers.execute(() -> {
+          try {
+            orderedResponse.delivery = command.executeDeferringResponse();
+          } finally {
+            count.decrementAndGet();
+            orderedResponse.executed = true;
+          }
+        });
+
+        //response of rejected command would block delivery of later ones, so it is added only
+        //once command is accepted. It may be already executed, it waits for delivery anyway
+        orderedResponses.add(orderedResponse);
+      } else {
+        workers.execute(() -> {
+          try {
+            command.execute();
+          } finally {
+            count.decrementAndGet();
+          }
+        });
+      }
+      return EnqueueStatus.QUEUED;
+    } catch (RejectedExecutionException e) {
+
+      //workers are shut down or saturated
+      count.decrementAndGet();
+      command.discard();
+      return EnqueueStatus.REJECTED;
+    }
+  }
+
+  /**
+   * Delivers responses of executed commands in order of their submission. Delivery stops at first
+   * command which is still executed.
+   */
+  public void deliverResponses() {
+    OrderedResponse orderedResponse = orderedResponses.peek();
+    while (orderedResponse != null && orderedResponse.executed) {
+      orderedResponses.poll();
+      try {
+        orderedResponse.delivery.run();
+      } catch (RuntimeException e) {
+        log.error("Delivery of response failed: " + e.getMessage());
+      }
+      orderedResponse = orderedResponses.peek();
+    }
+  }
+
+  /**
+   * Returns number of commands of type which are executed or waiting for worker
+   */
+  public int getInFlight(CommandType commandType) {
+    AtomicInteger count = inFlight.get(commandType);
+    return count == null ? 0 : count.get();
+  }
+
+  /**
+   * Response of command waiting for delivery
+   */
+  private static class OrderedResponse {
+
+    //failed command delivers nothing
+    private Runnable delivery = () -> {
+    };
+    private volatile boolean executed = false;
+  }
+
+}
@@ -0,0 +1,99 @@
+package gg.fel.cvut.cz.facades.queue.metrics;
+
+import gg.fel.cvut.cz.facades.queue.implementation.CommandType;
+import gg.fel.cvut.cz.facades.queue.implementation.EnqueueStatus;
+import gg.fel.cvut.cz.facades.queue.implementation.LatencyHistogram;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of command type. Commands are added by any thread, executions are recorded by game thread
+ * and histograms are read by JMX threads, so they are guarded by lock of instance.
+ */
+public class CommandTypeMetrics implements CommandTypeMetricsMXBean {
+
+  private final CommandType commandType;
+  private final QueueMetrics queueMetrics;
+  private final LongAdder enqueued = new LongAdder(), notQueued = new LongAdder();
+  private final LatencyHistogram queueLatencies = new LatencyHistogram(QueueMetrics.DECAY);
+  private final LatencyHistogram executionTimes = new LatencyHistogram(QueueMetrics.DECAY);
+  private long executed = 0;
+
+  CommandTypeMetrics(CommandType commandType, QueueMetrics queueMetrics) {
+    this.commandType = commandType;
+    this.queueMetrics = queueMetrics;
+  }
+
+  public void recordEnqueued(EnqueueStatus status) {
+    if (status.isQueued()) {
+      enqueued.increment();
+    } else {
+      notQueued.increment();
+    }
+  }
+
+  /**
+   * Records execution of command which waited in queue for given time
+   */
+  public synchronized void recordExecution(long queueLatency, long executionTime) {
+    queueLatencies.record(queueLatency);
+    executionTimes.record(executionTime);
+    executed++;
+    queueMetrics.commandExecuted();
+  }
+
+  @Override
+  public String getCommandType() {
+    return commandType.getId();
+  }
+
+  @Override
+  public int getQueueDepth() {
+    return queueMetrics.getQueueDepth(commandType);
+  }
+
+  @Override
+  public long getEnqueued() {
+    return enqueued.sum();
+  }
+
+  @Override
+  public long getNotQueued() {
+    return notQueued.sum();
+  }
+
+  @Override
+  public synchronized long getExecuted() {
+    return executed;
+  }
+
+  @Override
+  public synchronized long getQueueLatencyP50Micros() {
+    return micros(queueLatencies.percentile(0.5));
+  }
+
+  @Override
+  public synchronized long getQueueLatencyP95Micros() {
+    return micros(queueLatencies.percentile(0.95));
+  }
+
+  @Override
+  public synchronized long getExecutionTimeP50Micros() {
+    return micros(executionTimes.percentile(0.5));
+  }
+
+  @Override
+  public synchronized long getExecutionTimeP95Micros() {
+    return micros(executionTimes.percentile(0.95));
+  }
+
+  @Override
+  public synchronized long getExecutionTimeP99Micros() {
+    return micros(executionTimes.percentile(0.99));
+  }
+
+  static long micros(long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+
+}
@@ -0,0 +1,28 @@
+package gg.fel.cvut.cz.facades.queue.metrics;
+
+/**
+ * Metrics of command type exported over JMX. Times are in microseconds.
+ */
+public interface CommandTypeMetricsMXBean {
+
+  String getCommandType();
+
+  int getQueueDepth();
+
+  long getEnqueued();
+
+  long getNotQueued();
+
+  long getExecuted();
+
+  long getQueueLatencyP50Micros();
+
+  long getQueueLatencyP95Micros();
+
+  long getExecutionTimeP50Micros();
+
+  long getExecutionTimeP95Micros();
+
+  long getExecutionTimeP99Micros();
+
+}
@@ -0,0 +1,13 @@
+package gg.fel.cvut.cz.facades.queue.metrics;
+
+/**
+ * Receives metrics of queue manager periodically
+ */
+public interface IQueueMetricsReporter {
+
+  /**
+   * Reports metrics in frame. Called by game thread, so it should be cheap
+   */
+  void report(int frame, QueueMetrics metrics);
+
+}
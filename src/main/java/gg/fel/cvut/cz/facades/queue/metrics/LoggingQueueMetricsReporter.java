@@ -0,0 +1,23 @@
+package gg.fel.cvut.cz.facades.queue.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reporter writing metrics to log
+ */
+@Slf4j
+public class LoggingQueueMetricsReporter implements IQueueMetricsReporter {
+
+  @Override
+  public void report(int frame, QueueMetrics metrics) {
+    log.info("Frame " + frame + " - exceeded deadlines: " + metrics.getExceededDeadlines() + " of "
+        + metrics.getFrames() + ", frame time p95: " + metrics.getFrameTimeP95Micros()
+        + " us, commands per frame: " + String.format("%.2f", metrics.getAverageCommandsPerFrame()));
+    metrics.getCommandTypeMetrics().forEach(commandType -> log.info(
+        commandType.getCommandType() + " - depth: " + commandType.getQueueDepth() + ", executed: "
+            + commandType.getExecuted() + ", not queued: " + commandType.getNotQueued()
+            + ", queue latency p95: " + commandType.getQueueLatencyP95Micros()
+            + " us, execution p95: " + commandType.getExecutionTimeP95Micros() + " us"));
+  }
+
+}
@@ -0,0 +1,205 @@
+package gg.fel.cvut.cz.facades.queue.metrics;
+
+import gg.fel.cvut.cz.facades.queue.implementation.CommandType;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandTypeTable;
+import gg.fel.cvut.cz.facades.queue.implementation.LatencyHistogram;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of metrics of queue manager - queue depths, latencies from enqueue to execution,
+ * execution times of command types, deadline misses and commands per frame. Metrics can be exported
+ * as JMX MBeans and passed to reporter periodically. Queue manager without metrics records nothing.
+ */
+@Slf4j
+public class QueueMetrics implements QueueMetricsMXBean {
+
+  private static final String DOMAIN = "gg.fel.cvut.cz";
+
+  //weight of older samples in histograms, about last 1000 samples matter
+  static final double DECAY = 0.999;
+
+  private final String name;
+  private final CommandTypeTable<CommandTypeMetrics> commandTypes = new CommandTypeTable<>();
+  private final LatencyHistogram frameTimes = new LatencyHistogram(DECAY);
+  private volatile ToIntFunction<CommandType> queueDepth = commandType -> 0;
+  private Optional<IQueueMetricsReporter> reporter = Optional.empty();
+  private int reportingPeriod = 1;
+  private volatile boolean registeredInJmx = false;
+
+  //written by game thread only
+  private volatile long frames = 0, exceededDeadlines = 0, commands = 0;
+  private volatile int commandsInLastFrame = 0;
+  private int commandsInFrame = 0;
+
+  /**
+   * Creates metrics, name distinguishes MBeans of several games in same JVM
+   */
+  public QueueMetrics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Sets reporter called each period of frames
+   */
+  public void setReporter(IQueueMetricsReporter reporter, int periodFrames) {
+    if (periodFrames < 1) {
+      throw new IllegalArgumentException("Period of reporting has to be positive.");
+    }
+    this.reporter = Optional.of(reporter);
+    this.reportingPeriod = periodFrames;
+  }
+
+  /**
+   * Sets source of depths of queues, it is set by queue manager
+   */
+  public void setQueueDepth(ToIntFunction<CommandType> queueDepth) {
+    this.queueDepth = queueDepth;
+  }
+
+  /**
+   * Returns metrics of command type, creates them when type is met first time
+   */
+  public CommandTypeMetrics forCommandType(CommandType commandType) {
+    return commandTypes.computeIfAbsent(commandType, type -> {
+      CommandTypeMetrics created = new CommandTypeMetrics(type, this);
+      if (registeredInJmx) {
+        register(created, objectName(type.getId()));
+      }
+      return created;
+    });
+  }
+
+  /**
+   * Records frame of queue manager
+   */
+  public void recordFrame(int frame, long frameTime, boolean deadlineExceeded) {
+    synchronized (frameTimes) {
+      frameTimes.record(frameTime);
+    }
+    frames++;
+    if (deadlineExceeded) {
+      exceededDeadlines++;
+    }
+    commandsInLastFrame = commandsInFrame;
+    commands += commandsInFrame;
+    commandsInFrame = 0;
+    if (reporter.isPresent() && frames % reportingPeriod == 0) {
+      reporter.get().report(frame, this);
+    }
+  }
+
+  void commandExecuted() {
+    commandsInFrame++;
+  }
+
+  int getQueueDepth(CommandType commandType) {
+    return queueDepth.applyAsInt(commandType);
+  }
+
+  public List<CommandTypeMetrics> getCommandTypeMetrics() {
+    return commandTypes.values().collect(Collectors.toList());
+  }
+
+  /**
+   * Registers metrics of queue manager and of all command types in platform MBean server. Failure
+   * is only logged.
+   */
+  public void registerMBeans() {
+    registeredInJmx = true;
+    register(this, objectName(null));
+    commandTypes.forEach(metrics -> register(metrics, objectName(metrics.getCommandType())));
+  }
+
+  /**
+   * Unregisters all MBeans of metrics
+   */
+  public void unregisterMBeans() {
+    registeredInJmx = false;
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    List<ObjectName> names = new ArrayList<>();
+    names.add(objectName(null));
+    commandTypes.forEach(metrics -> names.add(objectName(metrics.getCommandType())));
+    for (ObjectName objectName : names) {
+      try {
+        if (server.isRegistered(objectName)) {
+          server.unregisterMBean(objectName);
+        }
+      } catch (JMException e) {
+        log.error("Could not unregister MBean " + objectName + ": " + e.getMessage());
+      }
+    }
+  }
+
+  private void register(Object mbean, ObjectName objectName) {
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, objectName);
+    } catch (JMException e) {
+      log.error("Could not register MBean " + objectName + ": " + e.getMessage());
+    }
+  }
+
+  private ObjectName objectName(String commandType) {
+    String objectName = DOMAIN + ":type=QueueMetrics,name=" + ObjectName.quote(name);
+    if (commandType != null) {
+      objectName += ",commandType=" + ObjectName.quote(commandType);
+    }
+    try {
+      return new ObjectName(objectName);
+    } catch (JMException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @Override
+  public long getFrames() {
+    return frames;
+  }
+
+  @Override
+  public long getExceededDeadlines() {
+    return exceededDeadlines;
+  }
+
+  @Override
+  public int getCommandsInLastFrame() {
+    return commandsInLastFrame;
+  }
+
+  @Override
+  public double getAverageCommandsPerFrame() {
+    long frames = this.frames;
+    return frames == 0 ? 0 : (double) commands / frames;
+  }
+
+  @Override
+  public long getFrameTimeP50Micros() {
+    synchronized (frameTimes) {
+      return CommandTypeMetrics.micros(frameTimes.percentile(0.5));
+    }
+  }
+
+  @Override
+  public long getFrameTimeP95Micros() {
+    synchronized (frameTimes) {
+      return CommandTypeMetrics.micros(frameTimes.percentile(0.95));
+    }
+  }
+
+  @Override
+  public String[] getCommandTypes() {
+    return commandTypes.values()
+        .map(CommandTypeMetrics::getCommandType)
+        .sorted()
+        .toArray(String[]::new);
+  }
+
+}
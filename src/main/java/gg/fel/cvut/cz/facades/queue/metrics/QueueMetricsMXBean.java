@@ -0,0 +1,22 @@
+package gg.fel.cvut.cz.facades.queue.metrics;
+
+/**
+ * Metrics of queue manager exported over JMX. Times are in microseconds.
+ */
+public interface QueueMetricsMXBean {
+
+  long getFrames();
+
+  long getExceededDeadlines();
+
+  int getCommandsInLastFrame();
+
+  double getAverageCommandsPerFrame();
+
+  long getFrameTimeP50Micros();
+
+  long getFrameTimeP95Micros();
+
+  String[] getCommandTypes();
+
+}
@@ -1,6 +1,7 @@
 package gg.fel.cvut.cz.facades.strategies;
 
 import gg.fel.cvut.cz.data.AContainer;
+import java.util.function.Predicate;
 
 /**
  * Interface for strategy to decide if instance should be updated
@@ -22,4 +23,59 @@ public interface IUpdateContainerStrategy<L extends AContainer> {
    */
   boolean shouldBeUpdatedByUser(L container, int deltaUpdate, int depth);
 
+  /**
+   * Strategy which updates container only when both strategies agree
+   */
+  default IUpdateContainerStrategy<L> and(IUpdateContainerStrategy<L> other) {
+    return (container, deltaUpdate, depth) -> shouldBeUpdatedByUser(container, deltaUpdate, depth)
+        && other.shouldBeUpdatedByUser(container, deltaUpdate, depth);
+  }
+
+  /**
+   * Strategy which updates container when any of strategies agrees
+   */
+  default IUpdateContainerStrategy<L> or(IUpdateContainerStrategy<L> other) {
+    return (container, deltaUpdate, depth) -> shouldBeUpdatedByUser(container, deltaUpdate, depth)
+        || other.shouldBeUpdatedByUser(container, deltaUpdate, depth);
+  }
+
+  /**
+   * Updates container every frame
+   */
+  static <L extends AContainer> IUpdateContainerStrategy<L> always() {
+    return (container, deltaUpdate, depth) -> true;
+  }
+
+  /**
+   * Updates container only if it has never been updated - for static data
+   */
+  static <L extends AContainer> IUpdateContainerStrategy<L> once() {
+    return (container, deltaUpdate, depth) -> deltaUpdate == Integer.MAX_VALUE;
+  }
+
+  /**
+   * Updates container when at least given number of frames passed from last update
+   */
+  static <L extends AContainer> IUpdateContainerStrategy<L> everyNthFrame(int frames) {
+    return (container, deltaUpdate, depth) -> deltaUpdate >= frames;
+  }
+
+  /**
+   * Updates container only when it is at most in given depth of update tree
+   */
+  static <L extends AContainer> IUpdateContainerStrategy<L> maxDepth(int maxDepth) {
+    return (container, deltaUpdate, depth) -> depth <= maxDepth;
+  }
+
+  /**
+   * Selects strategy by condition on container - e.g. own units can be updated more often than
+   * units of enemy
+   */
+  static <L extends AContainer> IUpdateContainerStrategy<L> when(Predicate<? super L> condition,
+      IUpdateContainerStrategy<L> ifTrue, IUpdateContainerStrategy<L> otherwise) {
+    return (container, deltaUpdate, depth) -> condition.test(container)
+        ? ifTrue.shouldBeUpdatedByUser(container, deltaUpdate, depth)
+        : otherwise.shouldBeUpdatedByUser(container, deltaUpdate, depth);
+  }
+
 }
@@ -24,6 +24,9 @@ import lombok.Builder;
 @AllArgsConstructor
 public class UpdateStrategy {
 
+  //interval of updates of base locations in tiered strategy, resources change slowly
+  public static final int TIERED_BASE_LOCATION_INTERVAL = 24;
+
   @Builder.Default
   private final IUpdateContainerStrategy<Bullet> bulletUpdateContainerStrategy = (container, deltaUpdate, depth) -> true;
   @Builder.Default
@@ -53,6 +56,32 @@ public class UpdateStrategy {
   @Builder.Default
   private final IUpdateContainerStrategy<WeaponType> weaponTypeUpdateContainerStrategy = (container, deltaUpdate, depth) -> true;
 
+  /**
+   * Returns builder with tiered strategies - types and static map are updated once, base locations
+   * every {@link #TIERED_BASE_LOCATION_INTERVAL} frames, game, players, units and bullets every
+   * frame. Update trees are traversed only up to given depth. Strategies can be overridden per
+   * container type on returned builder, e.g. to update units of enemy less often.
+   */
+  public static UpdateStrategyBuilder tiered(int maxDepth) {
+    return builder()
+        .gameUpdateContainerStrategy(IUpdateContainerStrategy.maxDepth(maxDepth))
+        .playerUpdateContainerStrategy(IUpdateContainerStrategy.maxDepth(maxDepth))
+        .unitUpdateContainerStrategy(IUpdateContainerStrategy.maxDepth(maxDepth))
+        .bulletUpdateContainerStrategy(IUpdateContainerStrategy.maxDepth(maxDepth))
+        .baseLocationUpdateContainerStrategy(
+            IUpdateContainerStrategy.<BaseLocation>everyNthFrame(TIERED_BASE_LOCATION_INTERVAL)
+                .and(IUpdateContainerStrategy.maxDepth(maxDepth)))
+        .chokePointUpdateContainerStrategy(IUpdateContainerStrategy.once())
+        .positionUpdateContainerStrategy(IUpdateContainerStrategy.once())
+        .regionUpdateContainerStrategy(IUpdateContainerStrategy.once())
+        .tilePositionUpdateContainerStrategy(IUpdateContainerStrategy.once())
+        .raceUpdateContainerStrategy(IUpdateContainerStrategy.once())
+        .techTypeUpdateContainerStrategy(IUpdateContainerStrategy.once())
+        .unitTypeUpdateContainerStrategyContainerStrategy(IUpdateContainerStrategy.once())
+        .upgradeTypeUpdateContainerStrategy(IUpdateContainerStrategy.once())
+        .weaponTypeUpdateContainerStrategy(IUpdateContainerStrategy.once());
+  }
+
   public boolean shouldBeUpdated(WeaponType weaponType, int deltaUpdate, int depth) {
     return weaponTypeUpdateContainerStrategy
         .shouldBeUpdated(weaponType, deltaUpdate, depth);
@@ -0,0 +1,113 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gg.fel.cvut.cz.data.events.EventType;
+import gg.fel.cvut.cz.data.events.dispatch.AsyncEventDispatcher;
+import gg.fel.cvut.cz.data.events.dispatch.DispatchOverflowPolicy;
+import gg.fel.cvut.cz.data.events.dispatch.WaitStrategy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+/**
+ * Drives dispatcher of events by synthetic source of callbacks - game thread publishing unit events
+ * in frames
+ */
+@Slf4j
+public class AsyncEventDispatcherTest {
+
+  private static final int FRAMES = 200, EVENTS_IN_FRAME = 10;
+
+  @Test
+  public void testEventsAreDeliveredInFrameOrder() {
+    for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+      AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(64, 2, waitStrategy,
+          DispatchOverflowPolicy.BLOCK);
+      List<Integer> shown = Collections.synchronizedList(new ArrayList<>());
+      List<Integer> destroyed = Collections.synchronizedList(new ArrayList<>());
+      dispatcher.start((type, frame, subject, detail) -> {
+        (type == EventType.UNIT_SHOW ? shown : destroyed).add((Integer) subject);
+
+        //slow subscriber
+        if (type == EventType.UNIT_DESTROY && (Integer) subject % 50 == 0) {
+          LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+      });
+      publishFrames(dispatcher);
+      dispatcher.close();
+
+      //each subscriber got all its events in order in which they were published
+      assertEquals(FRAMES * EVENTS_IN_FRAME / 2, shown.size());
+      assertEquals(FRAMES * EVENTS_IN_FRAME / 2, destroyed.size());
+      for (int i = 1; i < shown.size(); i++) {
+        assertTrue(shown.get(i - 1) < shown.get(i));
+        assertTrue(destroyed.get(i - 1) < destroyed.get(i));
+      }
+      assertEquals(0, dispatcher.getDropped());
+      assertEquals(0, dispatcher.getBacklog());
+      assertTrue(dispatcher.getMaxLatencyNanos() >= dispatcher.getMeanLatencyNanos());
+      log.info(waitStrategy + " - mean latency: " + dispatcher.getMeanLatencyNanos() / 1000
+          + " us, max latency: " + dispatcher.getMaxLatencyNanos() / 1000 + " us");
+    }
+  }
+
+  @Test
+  public void testFullBufferDropsNewestEvents() throws InterruptedException {
+    AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(3, 1, WaitStrategy.SLEEPING,
+        DispatchOverflowPolicy.DROP_NEWEST);
+    assertEquals(4, dispatcher.getCapacity());
+    CountDownLatch blocked = new CountDownLatch(1), release = new CountDownLatch(1);
+    List<Object> delivered = Collections.synchronizedList(new ArrayList<>());
+    dispatcher.start((type, frame, subject, detail) -> {
+      blocked.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      delivered.add(subject);
+    });
+
+    //consumer holds the first slot until it is released, so only 4 events fit
+    assertTrue(dispatcher.publish(EventType.SEND_TEXT, 1, "first", null));
+    assertTrue(blocked.await(10, TimeUnit.SECONDS));
+    int published = 1;
+    for (int i = 0; i < 9; i++) {
+      if (dispatcher.publish(EventType.SEND_TEXT, 2, "text" + i, null)) {
+        published++;
+      }
+    }
+    assertEquals(4, published);
+    assertEquals(6, dispatcher.getDropped());
+    release.countDown();
+    dispatcher.close();
+    assertEquals(4, delivered.size());
+    assertEquals(4, dispatcher.getDelivered());
+
+    //nothing is accepted after dispatcher was closed
+    assertFalse(dispatcher.publish(EventType.SEND_TEXT, 3, "last", null));
+    assertEquals(7, dispatcher.getDropped());
+  }
+
+  /**
+   * Publishes events of frames as callbacks of game would, subject is number of event
+   */
+  private static void publishFrames(AsyncEventDispatcher dispatcher) {
+    int event = 0;
+    for (int frame = 1; frame <= FRAMES; frame++) {
+      for (int i = 0; i < EVENTS_IN_FRAME; i++, event++) {
+        dispatcher.publish(event % 2 == 0 ? EventType.UNIT_SHOW : EventType.UNIT_DESTROY, frame,
+            event, null);
+      }
+    }
+  }
+
+}
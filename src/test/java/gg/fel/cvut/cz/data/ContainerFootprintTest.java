@@ -0,0 +1,240 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import gg.fel.cvut.cz.counters.BWReplayCounter;
+import gg.fel.cvut.cz.data.properties.IntStaticPropertyRegister;
+import gg.fel.cvut.cz.data.properties.Property;
+import gg.fel.cvut.cz.data.properties.StaticPropertyRegister;
+import gg.fel.cvut.cz.data.readonly.Position;
+import gg.fel.cvut.cz.data.readonly.TileGrid;
+import gg.fel.cvut.cz.data.updatable.UpdatableTilePosition;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+/**
+ * Compares heap footprint of tiles on synthetic 256x256 map - baseline layout with own fair lock
+ * and registers per tile against grid of current tiles. Objects reachable from tiles are walked and
+ * their shallow size is estimated for compressed references, so result does not depend on
+ * collector.
+ */
+@Slf4j
+public class ContainerFootprintTest {
+
+  private static final int MAP_SIZE = 256;
+  private static final int[][] NEIGHBOURS_DIFFS = {{0, 1}, {1, 1}, {1, 0}, {-1, 0},
+      {-1, -1}, {0, -1}, {1, -1}, {-1, 1}};
+
+  private final BWReplayCounter counter = new BWReplayCounter();
+
+  //both layouts reference same positions, so only layout of tiles is compared
+  private final Position[] positions = new Position[MAP_SIZE * MAP_SIZE];
+
+  @Test
+  public void testCompactTilesOwnNoLocksAndRegisters() {
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = new Position(counter, (i % MAP_SIZE) * 32, (i / MAP_SIZE) * 32);
+    }
+    Footprint legacy = footprint(legacyTiles());
+    Footprint compact = footprint(compactTiles());
+    log.info("Footprint of " + positions.length + " tiles - legacy: " + legacy + ", compact: "
+        + compact);
+
+    assertEquals(positions.length, legacy.locks);
+    assertEquals(3 * positions.length, legacy.registers);
+    assertEquals(0, compact.locks);
+    assertEquals(0, compact.registers);
+    assertTrue(compact.bytes * 4 < legacy.bytes);
+  }
+
+  private Object[] legacyTiles() {
+    LegacyTilePosition[] tiles = new LegacyTilePosition[positions.length];
+    for (int i = 0; i < tiles.length; i++) {
+      tiles[i] = new LegacyTilePosition(i % MAP_SIZE, i / MAP_SIZE);
+    }
+    for (LegacyTilePosition tile : tiles) {
+      ImmutableSet.Builder<LegacyTilePosition> neighbours = ImmutableSet.builder();
+      for (int[] diff : NEIGHBOURS_DIFFS) {
+        int x = tile.x + diff[0], y = tile.y + diff[1];
+        if (x >= 0 && y >= 0 && x < MAP_SIZE && y < MAP_SIZE) {
+          neighbours.add(tiles[y * MAP_SIZE + x]);
+        }
+      }
+      tile.neighbours.addProperty(neighbours.build(), 0);
+    }
+    return tiles;
+  }
+
+  private Object[] compactTiles() {
+    TileGrid grid = new TileGrid(MAP_SIZE, MAP_SIZE,
+        (tileGrid, x, y) -> new FilledTilePosition(x, y, tileGrid));
+    return grid.getTiles().toArray();
+  }
+
+  /**
+   * Walks objects reachable from tiles, positions, counter and this test (outer instance of tiles)
+   * are shared by layouts and they are not counted
+   */
+  private Footprint footprint(Object[] tiles) {
+    Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    Collections.addAll(visited, (Object[]) positions);
+    Collections.addAll(visited, positions, counter, this);
+    Deque<Object> toVisit = new ArrayDeque<>();
+    toVisit.add(tiles);
+    visited.add(tiles);
+    Footprint footprint = new Footprint();
+    while (!toVisit.isEmpty()) {
+      Object object = toVisit.poll();
+      footprint.add(object);
+      for (Object referenced : references(object)) {
+        if (visited.add(referenced)) {
+          toVisit.add(referenced);
+        }
+      }
+    }
+    return footprint;
+  }
+
+  private static Iterable<Object> references(Object object) {
+    Deque<Object> references = new ArrayDeque<>();
+    Class<?> type = object.getClass();
+    if (type.isArray()) {
+      if (!type.getComponentType().isPrimitive()) {
+        for (int i = 0; i < Array.getLength(object); i++) {
+          Object element = Array.get(object, i);
+          if (element != null) {
+            references.add(element);
+          }
+        }
+      }
+      return references;
+    }
+    for (Field field : instanceFields(type)) {
+      if (!field.getType().isPrimitive()) {
+        try {
+          field.setAccessible(true);
+          Object value = field.get(object);
+          if (value != null && !(value instanceof Class)) {
+            references.add(value);
+          }
+        } catch (IllegalAccessException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    }
+    return references;
+  }
+
+  private static Iterable<Field> instanceFields(Class<?> type) {
+    Deque<Field> fields = new ArrayDeque<>();
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          fields.add(field);
+        }
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * Number of objects, locks and registers and estimated shallow size of them
+   */
+  private static class Footprint {
+
+    private long objects, locks, registers, bytes;
+
+    private void add(Object object) {
+      objects++;
+      if (object instanceof ReadWriteLock) {
+        locks++;
+      }
+      if (object instanceof IPropertyRegister) {
+        registers++;
+      }
+      bytes += shallowSize(object);
+    }
+
+    private static long shallowSize(Object object) {
+      Class<?> type = object.getClass();
+      long size;
+      if (type.isArray()) {
+        size = 16 + (long) Array.getLength(object) * sizeOf(type.getComponentType());
+      } else {
+        size = 12;
+        for (Field field : instanceFields(type)) {
+          size += sizeOf(field.getType());
+        }
+      }
+      return (size + 7) / 8 * 8;
+    }
+
+    private static int sizeOf(Class<?> type) {
+      if (type == long.class || type == double.class) {
+        return 8;
+      }
+      if (type == byte.class || type == boolean.class) {
+        return 1;
+      }
+      if (type == short.class || type == char.class) {
+        return 2;
+      }
+      return 4;
+    }
+
+    @Override
+    public String toString() {
+      return objects + " objects, " + locks + " locks, " + registers + " registers, " + bytes
+          + " B";
+    }
+  }
+
+  /**
+   * Baseline tile - own fair lock and static registers of ground height, position and neighbours
+   */
+  private class LegacyTilePosition {
+
+    private final BWReplayCounter bwCounter = counter;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private volatile int updatedInFrame = 0;
+    private final int x, y;
+    private final IntStaticPropertyRegister groundHeight = new IntStaticPropertyRegister();
+    private final StaticPropertyRegister<Position, Property<Position>> position = new StaticPropertyRegister<Position, Property<Position>>(
+        Property::new);
+    private final StaticPropertyRegister<ImmutableSet<LegacyTilePosition>, Property<ImmutableSet<LegacyTilePosition>>> neighbours = new StaticPropertyRegister<ImmutableSet<LegacyTilePosition>, Property<ImmutableSet<LegacyTilePosition>>>(
+        Property::new);
+
+    private LegacyTilePosition(int x, int y) {
+      this.x = x;
+      this.y = y;
+      groundHeight.addInt((x + y) % 6, 0);
+      position.addProperty(positions[y * MAP_SIZE + x], 0);
+    }
+  }
+
+  /**
+   * Current tile of grid with same properties set as by its update
+   */
+  private class FilledTilePosition extends UpdatableTilePosition {
+
+    private FilledTilePosition(int x, int y, TileGrid grid) {
+      super(counter, x, y, grid);
+      this.groundHeight = (x + y) % 6;
+      this.position = positions[y * MAP_SIZE + x];
+      this.updatedInFrame = 0;
+    }
+  }
+
+}
@@ -0,0 +1,39 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gg.fel.cvut.cz.data.ParallelUpdateTreeExecutorTest.SyntheticContainer;
+import gg.fel.cvut.cz.data.readonly.Position;
+import gg.fel.cvut.cz.facades.data.DirtyContainerTracker;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class DirtyContainerTrackerTest {
+
+  @Test
+  public void testOnlyMarkedContainersAreDrained() {
+    List<SyntheticContainer> graph = ParallelUpdateTreeExecutorTest
+        .createGraph(100, 0, Integer.MAX_VALUE, 0);
+    DirtyContainerTracker tracker = new DirtyContainerTracker();
+    tracker.markDirty(graph.get(1));
+    tracker.markDirty(graph.get(5));
+    tracker.markDirty(graph.get(1));
+
+    //readonly containers can not be parsed
+    tracker.markDirty(new Position(null, 0, 0));
+
+    assertEquals(2, tracker.getDirtyCount());
+    assertTrue(tracker.isDirty(graph.get(5)));
+    assertFalse(tracker.isDirty(graph.get(2)));
+
+    List<IUpdatableContainer<?, ?>> drained = new ArrayList<>();
+    tracker.drainDirty(drained::add);
+    assertEquals(2, drained.size());
+    assertTrue(drained.contains(graph.get(1)) && drained.contains(graph.get(5)));
+    assertEquals(0, tracker.getDirtyCount());
+  }
+
+}
@@ -0,0 +1,73 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import gg.fel.cvut.cz.data.ParallelUpdateTreeExecutorTest.SyntheticContainer;
+import gg.fel.cvut.cz.facades.data.DirtyContainerTracker;
+import gg.fel.cvut.cz.facades.managers.UpdateManager;
+import gg.fel.cvut.cz.facades.queue.implementation.DirtyTrackingParsingQueueManager;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * Parses synthetic graph of containers in which only root is marked as dirty - as if it was unit
+ * reported by callback, referencing containers created during game
+ */
+public class DirtyTrackingParsingQueueManagerTest {
+
+  @Test
+  public void testContainersReachedByReferencesAreParsedOnce() {
+    UpdateManager updateManager = new UpdateManager();
+    DirtyContainerTracker tracker = new DirtyContainerTracker();
+    DirtyTrackingParsingQueueManager queueManager = new DirtyTrackingParsingQueueManager(
+        updateManager, tracker);
+    List<SyntheticContainer> graph = ParallelUpdateTreeExecutorTest
+        .createGraph(500, 2, Integer.MAX_VALUE, 0);
+    SyntheticContainer root = graph.get(0);
+    Set<AContainer> reachable = reachableFrom(root);
+    assertTrue(reachable.size() > 1 && reachable.size() < graph.size());
+
+    //containers which have never been parsed are parsed in frame they are reached
+    updateManager.getBwCounter().increaseClocks();
+    tracker.markDirty(root);
+    queueManager.executeCommands(30);
+    for (SyntheticContainer container : graph) {
+      if (reachable.contains(container)) {
+        assertEquals(updateManager.getCurrentFrame(), container.updatedInFrame());
+        assertEquals(1, container.updatesCount());
+      } else {
+        assertEquals(0, container.updatesCount());
+      }
+    }
+    assertEquals(0, tracker.getDirtyCount());
+
+    //parsed containers are not reached again
+    updateManager.getBwCounter().increaseClocks();
+    tracker.markDirty(root);
+    queueManager.executeCommands(30);
+    assertEquals(2, root.updatesCount());
+    assertEquals(reachable.size() + 1,
+        graph.stream().mapToInt(SyntheticContainer::updatesCount).sum());
+  }
+
+  private static Set<AContainer> reachableFrom(SyntheticContainer root) {
+    Set<AContainer> reachable = new HashSet<>();
+    Deque<AContainer> toVisit = new ArrayDeque<>();
+    reachable.add(root);
+    toVisit.add(root);
+    while (!toVisit.isEmpty()) {
+      ((SyntheticContainer) toVisit.poll()).forEachReferencedContainer(0, container -> {
+        if (reachable.add(container)) {
+          toVisit.add(container);
+        }
+      });
+    }
+    return reachable;
+  }
+
+}
@@ -0,0 +1,147 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import gg.fel.cvut.cz.data.events.EventLog;
+import gg.fel.cvut.cz.data.events.EventType;
+import gg.fel.cvut.cz.data.events.UnitEvent;
+import gg.fel.cvut.cz.data.events.UnitEventIndex;
+import gg.fel.cvut.cz.data.events.UpdatableEventsRegister;
+import gg.fel.cvut.cz.data.readonly.Player;
+import gg.fel.cvut.cz.data.readonly.Position;
+import gg.fel.cvut.cz.data.readonly.Unit;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class EventLogTest {
+
+  @Test
+  public void testEventsAreFoundByFrameAndRange() throws Exception {
+    EventLog eventLog = new EventLog();
+    Unit first = new Unit(null, 1), second = new Unit(null, 2);
+    eventLog.add(EventType.UNIT_CREATE, first);
+    eventLog.add(EventType.UNIT_CREATE, second);
+    eventLog.sealFrame(1);
+
+    //same event is stored once per frame
+    eventLog.add(EventType.UNIT_DESTROY, first);
+    eventLog.add(EventType.UNIT_DESTROY, first);
+    eventLog.sealFrame(5);
+    eventLog.add(EventType.UNIT_DESTROY, second);
+    eventLog.add(EventType.SEND_TEXT, "gg");
+    eventLog.sealFrame(100);
+
+    assertEquals(2, eventLog.countInFrame(1));
+    assertEquals(1, eventLog.countInFrame(5));
+
+    //frames without events do not repeat older ones
+    assertEquals(0, eventLog.countInFrame(3));
+    assertEquals(0, eventLog.countInFrame(101));
+    assertEquals(Arrays.asList("5:1", "100:2"), destroyed(eventLog, 0, 1000));
+    assertEquals(Collections.singletonList("5:1"), destroyed(eventLog, 2, 99));
+
+    //log survives serialization of replay and can be extended
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+      output.writeObject(eventLog);
+    }
+    EventLog deserialized = (EventLog) new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    deserialized.add(EventType.UNIT_DESTROY, first);
+    deserialized.sealFrame(101);
+    assertEquals(Arrays.asList("5:1", "100:2", "101:1"), destroyed(deserialized, 0, 1000));
+  }
+
+  @Test
+  public void testEventsOfUnitAreIndexed() throws Exception {
+    EventLog eventLog = new EventLog();
+    Unit unit = new Unit(null, 1), other = new Unit(null, 2);
+    for (int frame = 1; frame <= 100; frame++) {
+      eventLog.add(frame % 2 == 0 ? EventType.UNIT_SHOW : EventType.UNIT_HIDE, unit);
+      eventLog.add(EventType.UNIT_SHOW, other);
+      if (frame % 10 == 0) {
+        eventLog.add(EventType.UNIT_MORPH, unit);
+      }
+      eventLog.sealFrame(frame);
+    }
+    UnitEventIndex index = eventLog.getUnitEventIndex();
+    assertEquals(2, index.getUnitCount());
+    assertEquals(Arrays.asList(new UnitEvent(19, EventType.UNIT_HIDE),
+        new UnitEvent(20, EventType.UNIT_SHOW), new UnitEvent(20, EventType.UNIT_MORPH),
+        new UnitEvent(21, EventType.UNIT_HIDE)), index.eventsOf(new Unit(null, 1), 19, 21));
+    assertEquals(100, index.eventsOf(other, 0, Integer.MAX_VALUE).size());
+    assertTrue(index.eventsOf(unit, 101, 200).isEmpty());
+    assertTrue(index.eventsOf(new Unit(null, 3), 0, 100).isEmpty());
+
+    //index is persisted with log
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+      output.writeObject(eventLog);
+    }
+    EventLog deserialized = (EventLog) new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    assertEquals(Arrays.asList(new UnitEvent(100, EventType.UNIT_SHOW),
+        new UnitEvent(100, EventType.UNIT_MORPH)),
+        deserialized.getUnitEventIndex().eventsOf(unit, 100, 100));
+  }
+
+  @Test
+  public void testLogSurvivesJsonRoundTrip() throws Exception {
+    UpdatableEventsRegister register = new UpdatableEventsRegister();
+    Unit unit = new Unit(null, 1);
+    Player player = new Player(null, 3);
+    register.onUnitCreate(unit);
+    register.onSendText("gl hf");
+    register.saveEvents(1);
+    register.onReceiveText(player, "gl hf");
+    register.onNukeDetect(new Position(null, 100, 200));
+    register.onPlayerLeft(player);
+    register.saveEvents(2);
+    EventLog eventLog = register.getEventLog();
+
+    //subjects are loaded as containers with the same id or coordinates
+    EventLog loaded = SerializationTest.mapper.readValue(
+        SerializationTest.mapper.writeValueAsString(eventLog), EventLog.class);
+    assertEquals(Collections.singletonList(unit), subjects(loaded, EventType.UNIT_CREATE));
+    assertEquals(Collections.singletonList("gl hf"), subjects(loaded, EventType.SEND_TEXT));
+    assertEquals(Collections.singletonList(new Position(null, 100, 200)),
+        subjects(loaded, EventType.NUKE_DETECT));
+    assertEquals(Collections.singletonList(player), subjects(loaded, EventType.PLAYER_LEFT));
+    assertEquals(1, subjects(loaded, EventType.RECEIVE_TEXT).size());
+    assertEquals(subjects(eventLog, EventType.RECEIVE_TEXT),
+        subjects(loaded, EventType.RECEIVE_TEXT));
+
+    //index of unit events is keyed by id of unit
+    assertEquals(Collections.singletonList(new UnitEvent(1, EventType.UNIT_CREATE)),
+        loaded.getUnitEventIndex().eventsOf(unit, 0, 2));
+
+    //loaded log can be extended
+    loaded.add(EventType.SEND_TEXT, "gg");
+    loaded.add(EventType.SEND_TEXT, "gl hf");
+    loaded.sealFrame(3);
+    assertEquals(Arrays.asList("gl hf", "gg"), subjects(loaded, EventType.SEND_TEXT));
+  }
+
+  private static List<Object> subjects(EventLog eventLog, EventType type) {
+    List<Object> subjects = new ArrayList<>();
+    eventLog.forEachDistinctInRange(0, eventLog.getLastSealedFrame(), type,
+        (frame, subject) -> subjects.add(subject));
+    return subjects;
+  }
+
+  private static List<String> destroyed(EventLog eventLog, int fromFrame, int toFrame) {
+    List<String> events = new ArrayList<>();
+    eventLog.forEachInRange(fromFrame, toFrame, EventType.UNIT_DESTROY,
+        (frame, unit) -> events.add(frame + ":" + (unit.equals(new Unit(null, 1)) ? 1 : 2)));
+    return events;
+  }
+
+}
@@ -0,0 +1,181 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+
+import gg.fel.cvut.cz.facades.data.ParallelUpdateTreeExecutor;
+import gg.fel.cvut.cz.facades.data.UpdateTreeExecutor;
+import gg.fel.cvut.cz.facades.managers.UpdateManager;
+import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
+import gg.fel.cvut.cz.wrappers.WUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+/**
+ * Compares parallel executor of update tree with sequential one on synthetic container graph. Run
+ * main to see speedup.
+ */
+@Slf4j
+public class ParallelUpdateTreeExecutorTest {
+
+  private static final UpdateStrategy updateStrategy = UpdateStrategy.builder().build();
+
+  @Test
+  public void testSameContainersAreUpdated() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    for (int maxDepth : new int[]{0, 1, 3, Integer.MAX_VALUE}) {
+      List<SyntheticContainer> sequential = createGraph(2000, 4, maxDepth, 0);
+      List<SyntheticContainer> parallel = createGraph(2000, 4, maxDepth, 0);
+      for (int frame = 1; frame <= 3; frame++) {
+        UpdateTreeExecutor.executeUpdate(sequential.get(frame), updateStrategy, frame, null);
+        ParallelUpdateTreeExecutor
+            .executeUpdate(parallel.get(frame), updateStrategy, frame, null, pool);
+        assertEquals(updatedIds(sequential, frame), updatedIds(parallel, frame));
+      }
+
+      //each container is updated at most once per frame
+      assertEquals(totalUpdates(sequential), totalUpdates(parallel));
+    }
+    pool.shutdown();
+  }
+
+  public static void main(String[] args) {
+    ForkJoinPool pool = new ForkJoinPool();
+    List<SyntheticContainer> sequential = createGraph(20000, 6, Integer.MAX_VALUE, 2000);
+    List<SyntheticContainer> parallel = createGraph(20000, 6, Integer.MAX_VALUE, 2000);
+    for (int frame = 1; frame <= 10; frame++) {
+      long start = System.nanoTime();
+      UpdateTreeExecutor.executeUpdate(sequential.get(0), updateStrategy, frame, null);
+      long sequentialTime = System.nanoTime() - start;
+      start = System.nanoTime();
+      ParallelUpdateTreeExecutor.executeUpdate(parallel.get(0), updateStrategy, frame, null, pool);
+      long parallelTime = System.nanoTime() - start;
+      log.info("Frame " + frame + " - sequential: " + (sequentialTime / 1000000) + " ms, parallel ("
+          + pool.getParallelism() + " threads): " + (parallelTime / 1000000) + " ms, speedup: "
+          + String.format("%.2f", (double) sequentialTime / parallelTime));
+    }
+    pool.shutdown();
+  }
+
+  private static Set<Integer> updatedIds(List<SyntheticContainer> graph, int frame) {
+    return graph.stream()
+        .filter(container -> container.updatedInFrame() == frame)
+        .map(container -> container.id)
+        .collect(Collectors.toSet());
+  }
+
+  private static int totalUpdates(List<SyntheticContainer> graph) {
+    return graph.stream().mapToInt(container -> container.updates.get()).sum();
+  }
+
+  /**
+   * Creates random graph of containers - same for same parameters
+   */
+  static List<SyntheticContainer> createGraph(int size, int references, int maxDepth,
+      int work) {
+    List<SyntheticContainer> graph = IntStream.range(0, size)
+        .mapToObj(id -> new SyntheticContainer(id, maxDepth, work))
+        .collect(Collectors.toList());
+    Random random = new Random(size);
+    graph.forEach(container -> IntStream.range(0, references)
+        .forEach(i -> container.references.add(graph.get(random.nextInt(size)))));
+    return graph;
+  }
+
+  /**
+   * Container with configurable references and amount of work done in update
+   */
+  static class SyntheticContainer extends AContainerWithID implements
+      IUpdatableContainer<WUnit, SyntheticContainer> {
+
+    private final int id, maxDepth, work;
+    private final List<SyntheticContainer> references = new ArrayList<>();
+    private final AtomicInteger updates = new AtomicInteger();
+    private volatile double result;
+    private Runnable afterUpdate;
+
+    private SyntheticContainer(int id, int maxDepth, int work) {
+      super(null, id);
+      this.id = id;
+      this.maxDepth = maxDepth;
+      this.work = work;
+    }
+
+    int updatesCount() {
+      return updates.get();
+    }
+
+    /**
+     * Sets action run after each update, once lock of container is released
+     */
+    void setAfterUpdate(Runnable afterUpdate) {
+      this.afterUpdate = afterUpdate;
+    }
+
+    @Override
+    public WUnit getWrappedSCInstance() {
+      return null;
+    }
+
+    @Override
+    public SyntheticContainer getContainer() {
+      return this;
+    }
+
+    @Override
+    public Stream<? extends AContainer> getReferencedContainers(int currentFrame) {
+      return references.stream();
+    }
+
+    @Override
+    public void forEachReferencedContainer(int currentFrame,
+        Consumer<? super AContainer> consumer) {
+      for (int i = 0; i < references.size(); i++) {
+        consumer.accept(references.get(i));
+      }
+    }
+
+    @Override
+    public boolean shouldBeUpdated(UpdateStrategy updateStrategy, int depth, int currentFrame) {
+      return deltaOfUpdate(currentFrame) > 0 && depth <= maxDepth;
+    }
+
+    @Override
+    public void update(UpdateManager updateManager, int currentFrame) {
+      try {
+        lock().writeLock().lock();
+
+        //simulate reading of properties
+        double value = result;
+        for (int i = 0; i < work; i++) {
+          value += Math.sqrt(i + id);
+        }
+        result = value;
+        updates.incrementAndGet();
+
+        //updated in frame
+        updatedInFrame = currentFrame;
+      } finally {
+        lock().writeLock().unlock();
+      }
+      if (afterUpdate != null) {
+        afterUpdate.run();
+      }
+    }
+
+    @Override
+    public void update(UpdateManager updateManager, UpdateStrategy updateStrategy) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+}
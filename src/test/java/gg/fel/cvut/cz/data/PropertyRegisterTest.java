@@ -1,10 +1,24 @@
 package gg.fel.cvut.cz.data;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import gg.fel.cvut.cz.counters.BWReplayCounter;
+import gg.fel.cvut.cz.data.properties.BooleanStaticPropertyRegister;
+import gg.fel.cvut.cz.data.properties.DoubleDynamicPropertyRegister;
 import gg.fel.cvut.cz.data.properties.DynamicPropertyRegister;
+import gg.fel.cvut.cz.data.properties.IntDynamicPropertyRegister;
+import gg.fel.cvut.cz.data.properties.IntStaticPropertyRegister;
 import gg.fel.cvut.cz.data.properties.Property;
+import gg.fel.cvut.cz.data.readonly.Game;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 
 public class PropertyRegisterTest {
@@ -26,4 +40,124 @@ public class PropertyRegisterTest {
     assertEquals(dynamicPropertyRegister.getValueInFrame(14).get(), value);
   }
 
+  @Test
+  public void testValuesBetweenChanges() {
+    DynamicPropertyRegister<Integer, Property<Integer>> dynamicPropertyRegister = new DynamicPropertyRegister<Integer, Property<Integer>>(
+        Property::new);
+    dynamicPropertyRegister.addProperty(1, 0);
+    dynamicPropertyRegister.addProperty(1, 5000);
+    dynamicPropertyRegister.addProperty(2, 5001);
+    dynamicPropertyRegister.addProperty(2, 9000);
+    dynamicPropertyRegister.addProperty(3, 10000);
+    assertEquals(1, (int) dynamicPropertyRegister.getValueInFrame(0).get());
+    assertEquals(1, (int) dynamicPropertyRegister.getValueInFrame(4999).get());
+    assertEquals(1, (int) dynamicPropertyRegister.getValueInFrame(5000).get());
+    assertEquals(2, (int) dynamicPropertyRegister.getValueInFrame(5001).get());
+    assertEquals(2, (int) dynamicPropertyRegister.getValueInFrame(9999).get());
+    assertEquals(3, (int) dynamicPropertyRegister.getValueInFrame(10000).get());
+    assertEquals(3, (int) dynamicPropertyRegister.getValueInFrame(20000).get());
+
+    //altering timeline is ignored
+    dynamicPropertyRegister.addProperty(4, 7000);
+    assertEquals(2, (int) dynamicPropertyRegister.getValueInFrame(7000).get());
+  }
+
+  @Test
+  public void testPrimitivePropertyRegisters() {
+    IntDynamicPropertyRegister intRegister = new IntDynamicPropertyRegister();
+    assertFalse(intRegister.hasLatestValue());
+    intRegister.addInt(50, 10);
+    intRegister.addInt(50, 20);
+    intRegister.addInt(42, 30);
+    assertFalse(intRegister.hasValueInFrame(9));
+    assertFalse(intRegister.getValueInFrame(9).isPresent());
+    assertEquals(50, intRegister.getIntInFrame(25));
+    assertEquals(42, intRegister.getIntInFrame(30));
+    assertEquals(42, intRegister.getLatestInt());
+    assertEquals(42, (int) intRegister.getValueInFrame(100).get());
+
+    DoubleDynamicPropertyRegister doubleRegister = new DoubleDynamicPropertyRegister();
+    doubleRegister.addDouble(0.5, 0);
+    doubleRegister.addProperty(1.5, 3);
+    assertEquals(0.5, doubleRegister.getDoubleInFrame(2), 0.0);
+    assertEquals(1.5, doubleRegister.getLatestDouble(), 0.0);
+
+    BooleanStaticPropertyRegister booleanRegister = new BooleanStaticPropertyRegister();
+    assertTrue(booleanRegister.propertyHasNotBeenAdded());
+    booleanRegister.addBoolean(true, 5);
+    booleanRegister.addBoolean(false, 6);
+    assertFalse(booleanRegister.hasValueInFrame(4));
+    assertTrue(booleanRegister.getBooleanInFrame(6));
+  }
+
+  @Test
+  public void testContainerReadsPrimitiveValuesInFrameOfCounter() {
+    BWReplayCounter counter = new BWReplayCounter(100);
+    Game game = new Game(counter) {
+      {
+        for (int frame = 0; frame < 10; frame++) {
+          frameCount.addInt(frame, frame);
+          averageFPS.addDouble(frame / 2.0, frame);
+        }
+        mapWidth.addInt(128, 3);
+      }
+    };
+    counter.seek(2);
+    assertEquals(Optional.of(2), game.getFrameCount());
+    assertEquals(Optional.of(1.0), game.getAverageFPS());
+    assertFalse(game.mapWidth().isPresent());
+    counter.seek(50);
+    assertEquals(Optional.of(9), game.getFrameCount());
+    assertEquals(Optional.of(128), game.mapWidth());
+    assertFalse(game.getFPS().isPresent());
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testMissingPrimitiveValue() {
+    IntStaticPropertyRegister intRegister = new IntStaticPropertyRegister();
+    intRegister.addInt(1, 10);
+    intRegister.getIntInFrame(9);
+  }
+
+  @Test
+  public void testReadingWhileWriting() throws InterruptedException {
+    DynamicPropertyRegister<Integer, Property<Integer>> dynamicPropertyRegister = new DynamicPropertyRegister<Integer, Property<Integer>>(
+        Property::new);
+    IntDynamicPropertyRegister intRegister = new IntDynamicPropertyRegister();
+    int frames = 200000;
+    AtomicInteger writtenFrame = new AtomicInteger(-1);
+    AtomicBoolean consistent = new AtomicBoolean(true);
+
+    //readers check values in frames which have been already written
+    List<Thread> readers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Thread reader = new Thread(() -> {
+        Random random = new Random();
+        while (writtenFrame.get() < frames - 1) {
+          int written = writtenFrame.get();
+          if (written < 0) {
+            continue;
+          }
+          int frame = random.nextInt(written + 1);
+          if (dynamicPropertyRegister.getValueInFrame(frame).get() != frame / 10
+              || intRegister.getIntInFrame(frame) != frame / 10
+              || dynamicPropertyRegister.getLatestValue().get() < written / 10) {
+            consistent.set(false);
+          }
+        }
+      });
+      reader.start();
+      readers.add(reader);
+    }
+    for (int frame = 0; frame < frames; frame++) {
+      dynamicPropertyRegister.addProperty(frame / 10, frame);
+      intRegister.addInt(frame / 10, frame);
+      writtenFrame.set(frame);
+    }
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    assertTrue(consistent.get());
+  }
+
 }
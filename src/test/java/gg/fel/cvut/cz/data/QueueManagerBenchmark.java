@@ -0,0 +1,298 @@
+package gg.fel.cvut.cz.data;
+
+import gg.fel.cvut.cz.facades.IQueueManager;
+import gg.fel.cvut.cz.facades.queue.Command;
+import gg.fel.cvut.cz.facades.queue.IResponseReceiver;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandType;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandWithResponse;
+import gg.fel.cvut.cz.facades.queue.implementation.EnqueueStatus;
+import gg.fel.cvut.cz.facades.queue.implementation.QueueManager;
+import gg.fel.cvut.cz.facades.queue.implementation.ScheduledCommand;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares throughput of QueueManager with previous implementation guarded by locks. Senders
+ * produce commands as in TestQueueManager, only without pause, while game thread executes them
+ * in turns.
+ */
+@Slf4j
+public class QueueManagerBenchmark {
+
+  private static final long duration = 30;
+  private static final int SENDERS = 8, TYPES = 3;
+  private static final long MEASUREMENT = 3000, MAX_PENDING = 100000;
+
+  public static void main(String[] args) throws InterruptedException {
+    for (int round = 0; round < 3; round++) {
+      measure("locked", LegacyQueueManager::new);
+      measure("lock-free", QueueManager::new);
+    }
+  }
+
+  private static void measure(String name, Supplier<IQueueManager> queueManagerFactory)
+      throws InterruptedException {
+    IQueueManager queueManager = queueManagerFactory.get();
+    Receiver receiver = new Receiver();
+    List<Sender> senders = IntStream.range(0, SENDERS).boxed()
+        .map(value -> new Sender(queueManager, receiver,
+            CommandType.getCommandType(String.valueOf(value % TYPES))))
+        .collect(Collectors.toList());
+    senders.forEach(Sender::start);
+    long start = System.currentTimeMillis();
+    while (System.currentTimeMillis() - start < MEASUREMENT) {
+      queueManager.executeCommands(duration);
+    }
+    senders.forEach(Thread::interrupt);
+    for (Sender sender : senders) {
+      sender.join();
+    }
+    long sent = senders.stream().mapToLong(sender -> sender.sent).sum();
+    log.info(name + " - sent: " + (sent * 1000 / MEASUREMENT) + " commands/s, executed: "
+        + (receiver.count.get() * 1000 / MEASUREMENT) + " commands/s");
+  }
+
+  private static class Sender extends Thread {
+
+    private final IQueueManager queueManager;
+    private final Receiver receiver;
+    private final CommandType commandType;
+    private final Random random = new Random();
+    private long sent = 0;
+
+    private Sender(IQueueManager queueManager, Receiver receiver, CommandType commandType) {
+      this.queueManager = queueManager;
+      this.receiver = receiver;
+      this.commandType = commandType;
+    }
+
+    @Override
+    public void run() {
+      while (!isInterrupted()) {
+        queueManager.addCommand(new CommandWithResponse<>(commandType, receiver,
+            () -> random.nextInt() + random.nextInt() >= random.nextInt() + random.nextInt()));
+        sent++;
+
+        //do not let queues grow without limit
+        while (receiver.pending.incrementAndGet() > MAX_PENDING && !isInterrupted()) {
+          receiver.pending.decrementAndGet();
+          Thread.yield();
+        }
+      }
+    }
+  }
+
+  private static class Receiver implements IResponseReceiver<Boolean> {
+
+    private final AtomicLong count = new AtomicLong(), pending = new AtomicLong();
+
+    @Override
+    public void receiveResponse(Boolean response) {
+      count.incrementAndGet();
+      pending.decrementAndGet();
+    }
+  }
+
+  /**
+   * Previous implementation - queues are guarded by monitors and directory by fair lock
+   */
+  private static class LegacyQueueManager implements IQueueManager {
+
+    private final Map<CommandType, MyQueue> queues = new HashMap<>();
+    private final List<MyQueue> orderOfMyQueues = new ArrayList<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private List<MyQueue> toExecute = new ArrayList<>();
+
+    @Override
+    public void executeCommands(long timeResources) {
+      long start = System.currentTimeMillis();
+      boolean executedAnyCommand, hasTimeRemaining = true;
+
+      //try to execute previous requests
+      List<MyQueue> toExecuteNext = new ArrayList<>();
+
+      //execute at least one from previous request
+      if (!toExecute.isEmpty()) {
+        toExecute.remove(0).executedCommand();
+      }
+
+      for (int i = 0; i < toExecute.size(); i++) {
+        if (toExecute.get(i).canBeExpectedToBeExecuteInInterval(
+            timeResources - (System.currentTimeMillis() - start))) {
+          toExecute.get(i).executedCommand();
+        } else {
+
+          //higher priority is assigned
+          toExecuteNext.add(toExecute.get(i));
+        }
+        if (timeResources - (System.currentTimeMillis() - start) <= 0) {
+
+          //reschedule
+          if (i + 1 < toExecute.size()) {
+            toExecuteNext.addAll(toExecute.subList(i + 1, toExecute.size()));
+          }
+
+          //exit execution and resume next time where it ended
+          hasTimeRemaining = false;
+          break;
+        }
+      }
+
+      toExecute = toExecuteNext;
+      Set<MyQueue> queuesToSkip = new HashSet<>(toExecuteNext);
+
+      //execute new requests if there is still time
+      if (hasTimeRemaining && timeResources - (System.currentTimeMillis() - start) > 0) {
+        int queues;
+        try {
+          lock.readLock().lock();
+          queues = orderOfMyQueues.size();
+        } finally {
+          lock.readLock().unlock();
+        }
+
+        //execute new request while there is a time
+        while (true) {
+          executedAnyCommand = false;
+          for (int i = 0; i < queues; i++) {
+            if (timeResources - (System.currentTimeMillis() - start) <= 0) {
+
+              //exit execution and resume next time where it ended
+              hasTimeRemaining = false;
+              break;
+            }
+            MyQueue myQueue;
+            try {
+              lock.readLock().lock();
+              myQueue = orderOfMyQueues.get(i);
+            } finally {
+              lock.readLock().unlock();
+            }
+            if (myQueue.canBeExpectedToBeExecuteInInterval(
+                timeResources - (System.currentTimeMillis() - start))) {
+              if (myQueue.executedCommand()) {
+                executedAnyCommand = true;
+              }
+            } else {
+
+              //higher priority is assigned
+              if (!queuesToSkip.contains(myQueue)) {
+                toExecute.add(myQueue);
+                queuesToSkip.add(myQueue);
+              }
+            }
+          }
+          if (!executedAnyCommand || !hasTimeRemaining) {
+            break;
+          }
+        }
+      }
+    }
+
+    @Override
+    public int getQueueDepth(CommandType commandType) {
+      return 0;
+    }
+
+    @Override
+    public ScheduledCommand schedule(Command command, int atFrame) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledCommand scheduleEvery(Command command, int periodFrames) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public EnqueueStatus addCommand(Command command) {
+      MyQueue myQueue;
+
+      //is myQueue to handle this type present
+      try {
+        lock.readLock().lock();
+        myQueue = queues.get(command.getCommandType());
+      } finally {
+        lock.readLock().unlock();
+      }
+
+      //create new myQueue to handle new types of commands
+      if (myQueue == null) {
+        try {
+          lock.writeLock().lock();
+          myQueue = new MyQueue(command.getCommandType());
+          queues.put(myQueue.commandType, myQueue);
+          orderOfMyQueues.add(myQueue);
+        } finally {
+          lock.writeLock().unlock();
+        }
+      }
+      myQueue.addCommand(command);
+      return EnqueueStatus.QUEUED;
+    }
+
+    /**
+     * Maintains queue for command type
+     */
+    @EqualsAndHashCode(of = "commandType")
+    private static class MyQueue {
+
+      private final CommandType commandType;
+      private final Object queueMonitor = new Object();
+      private final Queue<Command> commands = new LinkedList<>();
+      private long averageExecution = 0;
+      private int countOfExecutions = 0;
+
+      MyQueue(CommandType commandType) {
+        this.commandType = commandType;
+      }
+
+      void addCommand(Command command) {
+        synchronized (queueMonitor) {
+          commands.add(command);
+        }
+      }
+
+      boolean canBeExpectedToBeExecuteInInterval(long interval) {
+        return interval > averageExecution;
+      }
+
+      boolean executedCommand() {
+        Optional<Command> command;
+        synchronized (queueMonitor) {
+          command = Optional.ofNullable(commands.poll());
+        }
+        if (command.isPresent()) {
+
+          //execute command and update average execution time
+          long start = System.currentTimeMillis(), duration;
+          command.get().execute();
+          duration = System.currentTimeMillis() - start;
+          averageExecution =
+              ((averageExecution * countOfExecutions) + duration) / (countOfExecutions + 1);
+          countOfExecutions++;
+          return true;
+        }
+        return false;
+      }
+
+    }
+
+  }
+
+}
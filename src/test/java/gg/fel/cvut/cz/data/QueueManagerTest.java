@@ -0,0 +1,444 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gg.fel.cvut.cz.facades.managers.UpdateManager;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandType;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandWithResponse;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandWithoutResponse;
+import gg.fel.cvut.cz.facades.queue.implementation.EnqueueStatus;
+import gg.fel.cvut.cz.facades.queue.implementation.ExecutionLane;
+import gg.fel.cvut.cz.facades.queue.implementation.LatencyHistogram;
+import gg.fel.cvut.cz.facades.queue.implementation.OverflowPolicy;
+import gg.fel.cvut.cz.facades.queue.implementation.ParsingQueueManager;
+import gg.fel.cvut.cz.facades.queue.implementation.PriorityClass;
+import gg.fel.cvut.cz.facades.queue.implementation.QueueManager;
+import gg.fel.cvut.cz.facades.queue.implementation.ScheduledCommand;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+/**
+ * Checks scheduling and fairness of commands with fake clock - commands move the clock by their
+ * cost
+ */
+public class QueueManagerTest {
+
+  private static final CommandType SLOW = CommandType.getCommandType("TEST_SLOW");
+  private static final CommandType CRITICAL = CommandType
+      .getCommandType("TEST_CRITICAL", PriorityClass.CRITICAL, 1);
+  private static final CommandType BACKGROUND = CommandType
+      .getCommandType("TEST_BACKGROUND", PriorityClass.BACKGROUND, 1);
+  private static final CommandType HEAVY = CommandType.getCommandType("TEST_HEAVY",
+      PriorityClass.NORMAL, 3);
+  private static final CommandType LIGHT = CommandType.getCommandType("TEST_LIGHT",
+      PriorityClass.NORMAL, 1);
+  private static final CommandType FLOOD = CommandType.getCommandType("TEST_FLOOD",
+      PriorityClass.NORMAL, 1);
+  private static final CommandType BOUNDED_REJECT = CommandType.getCommandType(
+      "TEST_BOUNDED_REJECT", PriorityClass.NORMAL, 1, 2, OverflowPolicy.REJECT);
+  private static final CommandType BOUNDED_DROP_OLDEST = CommandType.getCommandType(
+      "TEST_BOUNDED_DROP_OLDEST", PriorityClass.NORMAL, 1, 2, OverflowPolicy.DROP_OLDEST);
+  private static final CommandType BOUNDED_DROP_NEWEST = CommandType.getCommandType(
+      "TEST_BOUNDED_DROP_NEWEST", PriorityClass.NORMAL, 1, 2, OverflowPolicy.DROP_NEWEST);
+  private static final CommandType BOUNDED_COALESCE = CommandType.getCommandType(
+      "TEST_BOUNDED_COALESCE", PriorityClass.NORMAL, 1, 2, OverflowPolicy.COALESCE);
+  private static final CommandType ANALYTICS = CommandType.getCommandType("TEST_ANALYTICS",
+      ExecutionLane.WORKER_WITH_ORDERED_RESPONSE, Integer.MAX_VALUE, OverflowPolicy.REJECT);
+
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicInteger executed = new AtomicInteger();
+  private final List<CommandType> order = new ArrayList<>();
+  private final List<String> executedNames = new ArrayList<>();
+
+  @Test
+  public void testPercentileIgnoresOutlier() {
+    LatencyHistogram histogram = new LatencyHistogram(0.98);
+    for (int i = 0; i < 99; i++) {
+      histogram.record(1000);
+    }
+    histogram.record(1000000);
+    long p95 = histogram.percentile(0.95);
+    assertTrue(p95 >= 1000 && p95 < 1200);
+    assertTrue(histogram.percentile(1) >= 1000000);
+  }
+
+  @Test
+  public void testHistogramForgetsOldSamples() {
+    LatencyHistogram histogram = new LatencyHistogram(0.98);
+    for (int i = 0; i < 100; i++) {
+      histogram.record(1000000);
+    }
+    for (int i = 0; i < 300; i++) {
+      histogram.record(1000);
+    }
+    assertTrue(histogram.percentile(0.95) < 1200);
+  }
+
+  @Test
+  public void testCommandIsAdmittedOnlyWhenItsCostFits() {
+    QueueManager queueManager = new QueueManager(clock::get, true);
+    for (int i = 0; i < 5; i++) {
+      queueManager.addCommand(command(10));
+    }
+
+    //third command would not fit 30 ms
+    queueManager.executeCommands(30);
+    assertEquals(2, executed.get());
+    assertEquals(0, queueManager.getExceededDeadlines());
+    assertEquals(1, queueManager.getExecutions());
+  }
+
+  @Test
+  public void testExceededDeadlinesAreCounted() {
+    QueueManager queueManager = new QueueManager(clock::get, true);
+    queueManager.addCommand(command(40));
+    queueManager.executeCommands(30);
+    queueManager.executeCommands(30);
+    assertEquals(1, executed.get());
+    assertEquals(1, queueManager.getExceededDeadlines());
+    assertEquals(2, queueManager.getExecutions());
+  }
+
+  @Test(timeout = 10000)
+  public void testDebtOfQueueIsRepaidWithoutIdleLaps() {
+    QueueManager queueManager = new QueueManager(clock::get, false);
+
+    //command costing billions of quanta leaves its type deep in debt
+    queueManager.addCommand(command(1000000000000L));
+    queueManager.addCommand(command(1));
+    queueManager.addCommand(command(LIGHT, 1));
+    queueManager.executeCommands(30);
+    assertEquals(1, executed.get());
+
+    //type in debt waits for other types, then it is charged at once instead of lap by lap. Frame
+    //is long enough for predicted cost of type
+    queueManager.executeCommands(2000000000000L);
+    assertEquals(3, executed.get());
+    assertEquals(Arrays.asList(SLOW, LIGHT, SLOW), order);
+  }
+
+  @Test
+  public void testCriticalCommandsRunBeforeBackground() {
+    QueueManager queueManager = new QueueManager(clock::get, false);
+    for (int i = 0; i < 10; i++) {
+      queueManager.addCommand(command(BACKGROUND, 1));
+    }
+    for (int i = 0; i < 3; i++) {
+      queueManager.addCommand(command(CRITICAL, 1));
+    }
+    queueManager.executeCommands(30);
+    assertEquals(13, order.size());
+    assertEquals(Arrays.asList(CRITICAL, CRITICAL, CRITICAL), order.subList(0, 3));
+  }
+
+  @Test
+  public void testTypesInClassShareTimeByWeight() {
+    QueueManager queueManager = new QueueManager(clock::get, false);
+    for (int i = 0; i < 100; i++) {
+      queueManager.addCommand(command(HEAVY, 1));
+      queueManager.addCommand(command(LIGHT, 1));
+    }
+
+    //20 commands fit, rounds of 4 ms are split 3:1
+    queueManager.executeCommands(21);
+    assertEquals(15, Collections.frequency(order, HEAVY));
+    assertEquals(5, Collections.frequency(order, LIGHT));
+  }
+
+  @Test
+  public void testFloodOfTypeDoesNotStarveOtherTypeInClass() {
+    QueueManager queueManager = new QueueManager(clock::get, false);
+    for (int i = 0; i < 1000; i++) {
+      queueManager.addCommand(command(FLOOD, 1));
+    }
+    queueManager.addCommand(command(LIGHT, 1));
+    queueManager.executeCommands(30);
+    assertTrue(order.indexOf(LIGHT) >= 0 && order.indexOf(LIGHT) <= 2);
+  }
+
+  @Test
+  public void testStarvingClassIsServed() {
+    QueueManager queueManager = new QueueManager(clock::get, false);
+    queueManager.addCommand(command(BACKGROUND, 1));
+
+    //critical commands take whole frame, each of them adds new one
+    for (int i = 0; i < 30; i++) {
+      queueManager.addCommand(endlessCommand(queueManager));
+    }
+    int frame = 0;
+    while (!order.contains(BACKGROUND) && frame < 100) {
+      queueManager.executeCommands(30);
+      frame++;
+    }
+    assertTrue(order.contains(BACKGROUND));
+    assertTrue(frame <= 10);
+
+    //critical commands still ran in each frame
+    assertTrue(order.stream().filter(CRITICAL::equals).count() >= 29 * (frame - 1));
+  }
+
+  @Test
+  public void testOverflowPolicies() {
+    QueueManager queueManager = new QueueManager(clock::get, false);
+    assertEquals(EnqueueStatus.QUEUED, queueManager.addCommand(named(BOUNDED_REJECT, "a")));
+    assertEquals(EnqueueStatus.QUEUED, queueManager.addCommand(named(BOUNDED_REJECT, "b")));
+    assertEquals(EnqueueStatus.REJECTED, queueManager.addCommand(named(BOUNDED_REJECT, "c")));
+    assertEquals(2, queueManager.getQueueDepth(BOUNDED_REJECT));
+
+    queueManager.addCommand(named(BOUNDED_DROP_OLDEST, "d"));
+    queueManager.addCommand(named(BOUNDED_DROP_OLDEST, "e"));
+    assertEquals(EnqueueStatus.QUEUED_DROPPED_OLDEST,
+        queueManager.addCommand(named(BOUNDED_DROP_OLDEST, "f")));
+
+    queueManager.addCommand(named(BOUNDED_DROP_NEWEST, "g"));
+    queueManager.addCommand(named(BOUNDED_DROP_NEWEST, "h"));
+    assertEquals(EnqueueStatus.DROPPED, queueManager.addCommand(named(BOUNDED_DROP_NEWEST, "i")));
+
+    queueManager.addCommand(new CommandWithoutResponse(BOUNDED_COALESCE, 1, () -> {
+      executedNames.add("j");
+    }));
+    queueManager.addCommand(named(BOUNDED_COALESCE, "k"));
+    assertEquals(EnqueueStatus.COALESCED, queueManager
+        .addCommand(new CommandWithoutResponse(BOUNDED_COALESCE, 1, () -> {
+          executedNames.add("l");
+        })));
+    assertEquals(EnqueueStatus.REJECTED, queueManager.addCommand(named(BOUNDED_COALESCE, "m")));
+
+    queueManager.executeCommands(30);
+    assertEquals(new HashSet<>(Arrays.asList("a", "b", "e", "f", "g", "h", "k", "l")),
+        new HashSet<>(executedNames));
+    assertEquals(8, executedNames.size());
+    assertEquals(0, queueManager.getQueueDepth(BOUNDED_REJECT));
+  }
+
+  @Test
+  public void testCoalescedCommandKeepsPlaceOfReplacedOne() {
+    QueueManager queueManager = new QueueManager(clock::get, false);
+    CompletableFuture<String> replaced = new CompletableFuture<>();
+    queueManager.addCommand(new CommandWithResponse<>(BOUNDED_COALESCE, 1, replaced::complete,
+        () -> "j", () -> replaced.complete("discarded")));
+    queueManager.addCommand(named(BOUNDED_COALESCE, "k"));
+    assertEquals(EnqueueStatus.COALESCED, queueManager
+        .addCommand(new CommandWithoutResponse(BOUNDED_COALESCE, 1, () -> {
+          executedNames.add("l");
+        })));
+
+    //receiver of replaced command is answered at once
+    assertEquals("discarded", replaced.getNow(null));
+    assertEquals(2, queueManager.getQueueDepth(BOUNDED_COALESCE));
+    queueManager.executeCommands(30);
+    assertEquals(Arrays.asList("l", "k"), executedNames);
+
+    //executed slot can not be replaced anymore, new command with the key is queued
+    assertEquals(EnqueueStatus.QUEUED, queueManager
+        .addCommand(new CommandWithoutResponse(BOUNDED_COALESCE, 1, () -> {
+          executedNames.add("m");
+        })));
+    queueManager.executeCommands(30);
+    assertEquals(Arrays.asList("l", "k", "m"), executedNames);
+  }
+
+  @Test
+  public void testFuturesOfDiscardedCommandsAreCompleted() {
+    QueueManager queueManager = new QueueManager(clock::get, false);
+    List<CompletableFuture<String>> futures = new ArrayList<>();
+    for (String name : Arrays.asList("a", "b", "c")) {
+      CompletableFuture<String> future = new CompletableFuture<>();
+      queueManager.addCommand(CommandWithResponse.completing(BOUNDED_DROP_OLDEST, future,
+          () -> name));
+      futures.add(future);
+    }
+
+    //the oldest command was dropped from full queue
+    assertTrue(futures.get(0).isCompletedExceptionally());
+    assertFalse(futures.get(1).isDone());
+    queueManager.executeCommands(30);
+    assertEquals("b", futures.get(1).getNow(null));
+    assertEquals("c", futures.get(2).getNow(null));
+
+    //parser of replay discards all commands
+    CompletableFuture<String> parsed = new CompletableFuture<>();
+    assertEquals(EnqueueStatus.DROPPED, new ParsingQueueManager(new UpdateManager())
+        .addCommand(CommandWithResponse.completing(SLOW, parsed, () -> "d")));
+    assertTrue(parsed.isCompletedExceptionally());
+
+    //receiver of update is answered by false
+    List<Boolean> responses = new ArrayList<>();
+    new ParsingQueueManager(new UpdateManager()).addCommand(new CommandWithResponse<>(SLOW,
+        responses::add, () -> true, () -> responses.add(false)));
+    assertEquals(Collections.singletonList(false), responses);
+  }
+
+  @Test
+  public void testWorkerLaneDeliversResponsesInOrderOnGameThread() throws Exception {
+    ExecutorService workers = Executors.newFixedThreadPool(4);
+    QueueManager queueManager = new QueueManager(clock::get, false);
+    queueManager.setWorkerPool(workers);
+    List<Integer> responses = new ArrayList<>();
+    Set<Thread> executingThreads = ConcurrentHashMap.newKeySet();
+    CountDownLatch executed = new CountDownLatch(20);
+    for (int i = 0; i < 20; i++) {
+      int response = i;
+      assertEquals(EnqueueStatus.QUEUED, queueManager.addCommand(
+          new CommandWithResponse<>(ANALYTICS, responses::add, () -> {
+
+            //later commands finish first
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20 - response));
+            executingThreads.add(Thread.currentThread());
+            executed.countDown();
+            return response;
+          })));
+    }
+    assertTrue(executed.await(10, TimeUnit.SECONDS));
+    workers.shutdown();
+    assertTrue(workers.awaitTermination(10, TimeUnit.SECONDS));
+    assertFalse(executingThreads.contains(Thread.currentThread()));
+    assertTrue(responses.isEmpty());
+
+    //responses are delivered by game thread in order of commands and cost no frame time
+    queueManager.executeCommands(30);
+    assertEquals(IntStream.range(0, 20).boxed().collect(Collectors.toList()), responses);
+    assertEquals(0, clock.get());
+    assertEquals(0, queueManager.getQueueDepth(ANALYTICS));
+  }
+
+  @Test
+  public void testRejectedCommandDoesNotBlockOrderedResponses() throws Exception {
+
+    //single worker with space for single waiting command
+    ThreadPoolExecutor workers = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(1));
+    QueueManager queueManager = new QueueManager(clock::get, false);
+    queueManager.setWorkerPool(workers);
+    List<Integer> responses = new ArrayList<>();
+    CountDownLatch release = new CountDownLatch(1), finished = new CountDownLatch(2);
+    List<EnqueueStatus> statuses = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      int response = i;
+      statuses.add(queueManager.addCommand(
+          new CommandWithResponse<>(ANALYTICS, responses::add, () -> {
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+            return response;
+          })));
+    }
+    release.countDown();
+    assertTrue(finished.await(10, TimeUnit.SECONDS));
+    statuses.add(queueManager.addCommand(
+        new CommandWithResponse<>(ANALYTICS, responses::add, () -> 3)));
+
+    //pool which is shut down rejects command as well
+    workers.shutdown();
+    assertTrue(workers.awaitTermination(10, TimeUnit.SECONDS));
+    statuses.add(queueManager.addCommand(
+        new CommandWithResponse<>(ANALYTICS, responses::add, () -> 4)));
+    assertEquals(Arrays.asList(EnqueueStatus.QUEUED, EnqueueStatus.QUEUED,
+        EnqueueStatus.REJECTED, EnqueueStatus.QUEUED, EnqueueStatus.REJECTED), statuses);
+
+    //responses of accepted commands are delivered, rejected commands do not hold them
+    queueManager.executeCommands(30);
+    assertEquals(Arrays.asList(0, 1, 3), responses);
+  }
+
+  @Test
+  public void testScheduledCommandsEnterQueueInTheirFrames() {
+    QueueManager queueManager = new QueueManager(clock::get, false);
+    List<Integer> frames = new ArrayList<>();
+    int[] frame = new int[1];
+    queueManager.schedule(new CommandWithoutResponse(SLOW, () -> frames.add(frame[0])), 3);
+    ScheduledCommand cancelled = queueManager
+        .schedule(new CommandWithoutResponse(SLOW, () -> frames.add(-1)), 4);
+
+    //period is longer than wheel, so command waits for later rotation of its slot
+    ScheduledCommand periodic = queueManager
+        .scheduleEvery(new CommandWithoutResponse(SLOW, () -> frames.add(frame[0])), 300);
+    assertTrue(cancelled.cancel());
+    assertFalse(cancelled.cancel());
+    for (frame[0] = 1; frame[0] <= 700; frame[0]++) {
+      queueManager.executeCommands(30);
+    }
+    assertEquals(Arrays.asList(1, 3, 301, 601), frames);
+    assertEquals(901, periodic.getDueFrame());
+    assertTrue(periodic.cancel());
+    for (; frame[0] <= 1000; frame[0]++) {
+      queueManager.executeCommands(30);
+    }
+    assertEquals(4, frames.size());
+  }
+
+  @Test
+  public void testConcurrentlyRegisteredTypesGetUniqueOrdinals() throws Exception {
+    ExecutorService workers = Executors.newFixedThreadPool(4);
+    List<Future<List<CommandType>>> registrations = new ArrayList<>();
+    for (int worker = 0; worker < 4; worker++) {
+      registrations.add(workers.submit(() -> IntStream.range(0, 500)
+          .mapToObj(i -> CommandType.getCommandType("TEST_ORDINAL_" + i))
+          .collect(Collectors.toList())));
+    }
+
+    //types are compared by identity, equal types would hide duplicate instances
+    Set<CommandType> types = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Future<List<CommandType>> registration : registrations) {
+      types.addAll(registration.get());
+    }
+    workers.shutdown();
+
+    //same instance is returned to all threads
+    assertEquals(500, types.size());
+    Set<Integer> ordinals = types.stream().map(CommandType::getOrdinal)
+        .collect(Collectors.toSet());
+    assertEquals(500, ordinals.size());
+    assertTrue(ordinals.stream().allMatch(ordinal -> ordinal < CommandType.count()));
+  }
+
+  private CommandWithoutResponse named(CommandType commandType, String name) {
+    return new CommandWithoutResponse(commandType, () -> executedNames.add(name));
+  }
+
+  private CommandWithoutResponse command(long costInMillis) {
+    return command(SLOW, costInMillis);
+  }
+
+  private CommandWithoutResponse command(CommandType commandType, long costInMillis) {
+    return new CommandWithoutResponse(commandType, () -> {
+      clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(costInMillis));
+      executed.incrementAndGet();
+      order.add(commandType);
+    });
+  }
+
+  private CommandWithoutResponse endlessCommand(QueueManager queueManager) {
+    return new CommandWithoutResponse(CRITICAL, () -> {
+      clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+      order.add(CRITICAL);
+      queueManager.addCommand(endlessCommand(queueManager));
+    });
+  }
+
+}
@@ -0,0 +1,81 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gg.fel.cvut.cz.facades.queue.implementation.CommandType;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandWithoutResponse;
+import gg.fel.cvut.cz.facades.queue.implementation.OverflowPolicy;
+import gg.fel.cvut.cz.facades.queue.implementation.PriorityClass;
+import gg.fel.cvut.cz.facades.queue.implementation.QueueManager;
+import gg.fel.cvut.cz.facades.queue.metrics.CommandTypeMetrics;
+import gg.fel.cvut.cz.facades.queue.metrics.QueueMetrics;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Test;
+
+/**
+ * Checks metrics of queue manager with fake clock
+ */
+public class QueueMetricsTest {
+
+  private static final CommandType METERED = CommandType.getCommandType("TEST_METERED",
+      PriorityClass.NORMAL, 1, 3, OverflowPolicy.REJECT);
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  public void testQueuesAndFramesAreMeasured() throws Exception {
+    QueueManager queueManager = new QueueManager(clock::get, false);
+    QueueMetrics metrics = new QueueMetrics("test");
+    List<Integer> reportedFrames = new ArrayList<>();
+    metrics.setReporter((frame, reported) -> reportedFrames.add(frame), 2);
+    queueManager.setMetrics(metrics);
+    for (int i = 0; i < 4; i++) {
+      queueManager.addCommand(new CommandWithoutResponse(METERED,
+          () -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10))));
+    }
+    CommandTypeMetrics typeMetrics = metrics.forCommandType(METERED);
+    assertEquals(3, typeMetrics.getQueueDepth());
+    assertEquals(3, typeMetrics.getEnqueued());
+    assertEquals(1, typeMetrics.getNotQueued());
+
+    //commands wait 5 ms before frame starts, two of them fit first frame
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5));
+    queueManager.executeCommands(25);
+    queueManager.executeCommands(25);
+    assertEquals(3, typeMetrics.getExecuted());
+    assertEquals(0, typeMetrics.getQueueDepth());
+    assertTrue(typeMetrics.getExecutionTimeP50Micros() >= 10000);
+    assertTrue(typeMetrics.getQueueLatencyP95Micros() >= 25000);
+    assertEquals(2, metrics.getFrames());
+    assertEquals(0, metrics.getExceededDeadlines());
+    assertEquals(1, metrics.getCommandsInLastFrame());
+    assertEquals(1.5, metrics.getAverageCommandsPerFrame(), 1e-9);
+    assertEquals(1, reportedFrames.size());
+
+    //command does not fit frame, it is postponed and then executed first, so it overruns frame
+    queueManager.addCommand(new CommandWithoutResponse(METERED,
+        () -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10))));
+    queueManager.executeCommands(5);
+    queueManager.executeCommands(5);
+    assertEquals(1, metrics.getExceededDeadlines());
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName("gg.fel.cvut.cz:type=QueueMetrics,name=\"test\"");
+    metrics.registerMBeans();
+    assertEquals(4L, server.getAttribute(name, "Frames"));
+    assertArrayEquals(new String[]{"TEST_METERED"},
+        (String[]) server.getAttribute(name, "CommandTypes"));
+    metrics.unregisterMBeans();
+    assertFalse(server.isRegistered(name));
+  }
+
+}
@@ -0,0 +1,93 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import gg.fel.cvut.cz.counters.BWReplayCounter;
+import gg.fel.cvut.cz.data.events.UpdatableEventsRegister;
+import gg.fel.cvut.cz.data.readonly.Unit;
+import gg.fel.cvut.cz.facades.managers.ReplayGameFacade;
+import gg.fel.cvut.cz.facades.managers.SkippedEventsDelivery;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+
+/**
+ * Checks random access to replay with synthetic events - unit is shown in each frame, other one in
+ * each tenth frame
+ */
+public class ReplaySeekTest {
+
+  private static final int LENGTH = 1000;
+
+  private final Unit unit = new Unit(null, 1), other = new Unit(null, 2);
+  private final List<Integer> frames = new ArrayList<>();
+  private final List<Unit> shown = new ArrayList<>();
+
+  @Test
+  public void testSeekDeliversAggregatedEventsOrNone() {
+    ReplayGameFacade replay = createReplay();
+    replay.seek(500);
+    assertEquals(500, replay.getCurrentFrame());
+    assertTrue(frames.isEmpty());
+    assertTrue(shown.isEmpty());
+
+    //events of skipped frames are delivered once
+    replay.seek(525, SkippedEventsDelivery.AGGREGATED);
+    assertEquals(525, replay.getCurrentFrame());
+    assertEquals(Collections.singletonList(525), frames);
+    assertEquals(Arrays.asList(unit, other), shown);
+
+    //moving backward delivers events of target frame only
+    frames.clear();
+    shown.clear();
+    replay.seek(15, SkippedEventsDelivery.AGGREGATED);
+    assertEquals(Collections.singletonList(15), frames);
+    assertEquals(Collections.singletonList(unit), shown);
+
+    //clock is kept in replay
+    replay.seek(LENGTH + 100);
+    assertEquals(LENGTH, replay.getCurrentFrame());
+    replay.seek(-1);
+    assertEquals(0, replay.getCurrentFrame());
+  }
+
+  @Test
+  public void testPlayVisitsFramesWithoutSubscribers() {
+    ReplayGameFacade replay = createReplay();
+    replay.seek(LENGTH - 10);
+    List<Integer> visited = new ArrayList<>();
+    replay.play(LENGTH + 10, frame -> visited.add(frame));
+    assertEquals(10, visited.size());
+    assertEquals(LENGTH - 9, (int) visited.get(0));
+    assertEquals(LENGTH, replay.getCurrentFrame());
+    assertTrue(frames.isEmpty());
+    assertTrue(shown.isEmpty());
+
+    //stepping notifies subscribers again
+    replay.decreaseClock();
+    assertEquals(Collections.singletonList(LENGTH - 1), frames);
+    assertEquals(Collections.singletonList(unit), shown);
+  }
+
+  private ReplayGameFacade createReplay() {
+    UpdatableEventsRegister eventsRegister = new UpdatableEventsRegister();
+    for (int frame = 1; frame <= LENGTH; frame++) {
+      eventsRegister.onUnitShow(unit);
+      if (frame % 10 == 0) {
+        eventsRegister.onUnitShow(other);
+      }
+      eventsRegister.saveEvents(frame);
+    }
+    return ReplayGameFacade.builder()
+        .bwCounter(new BWReplayCounter(LENGTH))
+        .eventsRegister(eventsRegister)
+        .onFrame(Optional.of(frames::add))
+        .onUnitShow(Optional.of(shown::add))
+        .build();
+  }
+
+}
@@ -23,7 +23,7 @@ import org.junit.Test;
 @Slf4j
 public class SerializationTest {
 
-  private static final ObjectMapper mapper = new ObjectMapper().registerModule(new GuavaModule());
+  static final ObjectMapper mapper = new ObjectMapper().registerModule(new GuavaModule());
 
   static {
     mapper.setVisibility(
@@ -0,0 +1,87 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import gg.fel.cvut.cz.counters.BWReplayCounter;
+import gg.fel.cvut.cz.data.readonly.StaticMapLayer;
+import gg.fel.cvut.cz.data.readonly.TileGrid;
+import gg.fel.cvut.cz.data.readonly.TilePosition;
+import gg.fel.cvut.cz.facades.managers.StaticMapCache;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class StaticMapCacheTest {
+
+  private static final int WIDTH = 128, HEIGHT = 96;
+  private static final String MAP_NAME = "(4)Fighting Spirit 1.3", MAP_HASH = "a1b2c3";
+
+  @Test
+  public void testGridFilledFromCacheEqualsGridFilledFromAnalysedLayer() throws IOException {
+    Path directory = Files.createTempDirectory("map-cache");
+    AtomicInteger analyses = new AtomicInteger();
+
+    //synthetic map analysed as map of game
+    Random random = new Random(42);
+    int[] groundHeights = new int[WIDTH * HEIGHT];
+    for (int i = 0; i < groundHeights.length; i++) {
+      groundHeights[i] = random.nextInt(6);
+    }
+    Supplier<StaticMapLayer> analysis = () -> {
+      analyses.incrementAndGet();
+      return StaticMapLayer.analyze(MAP_NAME, MAP_HASH, WIDTH, HEIGHT,
+          (x, y) -> groundHeights[y * WIDTH + x]);
+    };
+
+    //first game analyses map and stores layer, next one loads it
+    TileGrid analysedGrid = createGrid(), loadedGrid = createGrid();
+    new StaticMapCache(directory).getOrAnalyze(MAP_NAME, MAP_HASH, analysis)
+        .fillGrid(analysedGrid);
+    new StaticMapCache(directory).getOrAnalyze(MAP_NAME, MAP_HASH, analysis)
+        .fillGrid(loadedGrid);
+    assertEquals(1, analyses.get());
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(1, files.count());
+    }
+
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        assertEquals(groundHeights[y * WIDTH + x],
+            (int) analysedGrid.getTile(x, y).getGroundHeight().get());
+        assertEquals(analysedGrid.getTile(x, y).getGroundHeight(),
+            loadedGrid.getTile(x, y).getGroundHeight());
+      }
+    }
+
+    //layer of other version of map is not loaded
+    assertFalse(new StaticMapCache(directory).load(MAP_NAME, "other").isPresent());
+  }
+
+  @Test
+  public void testFailedStoreLeavesNoTemporaryFile() throws IOException {
+    Path directory = Files.createTempDirectory("map-cache");
+
+    //file of layer can not be replaced by non-empty directory
+    Path blocking = Files.createDirectories(directory.resolve("map-hash.json"));
+    Files.createFile(blocking.resolve("content"));
+    StaticMapCache cache = new StaticMapCache(directory);
+    cache.store(StaticMapLayer.analyze("map", "hash", 4, 4, (x, y) -> 0));
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(Collections.singletonList(blocking), files.collect(Collectors.toList()));
+    }
+  }
+
+  private static TileGrid createGrid() {
+    BWReplayCounter counter = new BWReplayCounter();
+    return new TileGrid(WIDTH, HEIGHT, (grid, x, y) -> new TilePosition(counter, x, y, grid));
+  }
+
+}
@@ -0,0 +1,37 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import gg.fel.cvut.cz.counters.BWReplayCounter;
+import gg.fel.cvut.cz.data.readonly.TileGrid;
+import gg.fel.cvut.cz.data.readonly.TilePosition;
+import org.junit.Test;
+
+public class TileGridTest {
+
+  private final BWReplayCounter counter = new BWReplayCounter();
+  private final TileGrid grid = new TileGrid(256, 128,
+      (tileGrid, x, y) -> new TilePosition(counter, x, y, tileGrid));
+
+  @Test
+  public void testLookup() {
+    assertEquals(256 * 128, grid.getTiles().count());
+    assertEquals(new TilePosition(counter, 17, 93), grid.getTile(17, 93));
+    assertSame(grid.getTile(255, 127), grid.getTile(255, 127));
+    assertNull(grid.getTile(256, 0));
+    assertNull(grid.getTile(0, 128));
+    assertNull(grid.getTile(-1, 5));
+  }
+
+  @Test
+  public void testNeighbours() {
+    assertEquals(3, grid.getTile(0, 0).getNeighbours().get().count());
+    assertEquals(5, grid.getTile(100, 127).getNeighbours().get().count());
+    assertEquals(8, grid.getTile(100, 50).getNeighbours().get().count());
+    assertEquals(0, grid.getTile(100, 50).getNeighbours().get()
+        .filter(tile -> tile.equals(grid.getTile(100, 50))).count());
+  }
+
+}
@@ -0,0 +1,119 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gg.fel.cvut.cz.data.events.EventType;
+import gg.fel.cvut.cz.data.events.UnitEventBus;
+import gg.fel.cvut.cz.data.events.UnitEventBus.Subscription;
+import gg.fel.cvut.cz.data.events.UnitEventBus.UnitEventContext;
+import gg.fel.cvut.cz.data.events.UnitEventFilter;
+import gg.fel.cvut.cz.data.readonly.Player;
+import gg.fel.cvut.cz.data.readonly.Region;
+import gg.fel.cvut.cz.data.readonly.Unit;
+import gg.fel.cvut.cz.enums.UnitTypeEnum;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+
+public class UnitEventBusTest {
+
+  private final Player self = new Player(null, 0), enemy = new Player(null, 1);
+  private final Region base = new Region(null, 10, 10), natural = new Region(null, 50, 50);
+
+  @Test
+  public void testEventsAreDeliveredToMatchingSubscribers() {
+    UnitEventBus bus = new UnitEventBus();
+    List<String> received = new ArrayList<>();
+    bus.subscribe(UnitEventFilter.builder().build(),
+        (type, unit) -> received.add("all " + type));
+    bus.subscribe(UnitEventFilter.builder()
+            .eventType(EventType.UNIT_DESTROY)
+            .player(Optional.of(enemy))
+            .build(),
+        (type, unit) -> received.add("enemy destroyed"));
+    bus.subscribe(UnitEventFilter.builder()
+            .eventType(EventType.UNIT_CREATE)
+            .eventType(EventType.UNIT_COMPLETE)
+            .player(Optional.of(self))
+            .unitType(Optional.of(UnitTypeEnum.TerranMarine))
+            .build(),
+        (type, unit) -> received.add("own marine " + type));
+    Subscription inNatural = bus.subscribe(UnitEventFilter.builder()
+            .region(Optional.of(natural))
+            .build(),
+        (type, unit) -> received.add("natural " + type));
+    assertEquals(4, bus.getSubscriberCount());
+    assertTrue(bus.hasSubscribers(EventType.UNIT_SHOW));
+    assertTrue(bus.filtersRegion(EventType.UNIT_SHOW));
+
+    bus.publish(EventType.UNIT_CREATE, new Unit(null, 1),
+        context(self, UnitTypeEnum.TerranMarine, base));
+    assertEquals(Arrays.asList("all UNIT_CREATE", "own marine UNIT_CREATE"), received);
+    received.clear();
+
+    bus.publish(EventType.UNIT_CREATE, new Unit(null, 2),
+        context(enemy, UnitTypeEnum.TerranMarine, natural));
+    assertEquals(Arrays.asList("all UNIT_CREATE", "natural UNIT_CREATE"), received);
+    received.clear();
+
+    bus.publish(EventType.UNIT_DESTROY, new Unit(null, 2),
+        context(enemy, UnitTypeEnum.TerranMarine, base));
+    assertEquals(Arrays.asList("all UNIT_DESTROY", "enemy destroyed"), received);
+    received.clear();
+
+    //cancelled subscriber receives nothing
+    inNatural.cancel();
+    bus.publish(EventType.UNIT_SHOW, new Unit(null, 3),
+        context(enemy, UnitTypeEnum.ZergZergling, natural));
+    assertEquals(Collections.singletonList("all UNIT_SHOW"), received);
+    assertEquals(3, bus.getSubscriberCount());
+    received.clear();
+
+    //unit without known owner and type passes only filters without them
+    bus.publish(EventType.UNIT_DESTROY, new Unit(null, 4), UnitEventContext.UNKNOWN);
+    assertEquals(Collections.singletonList("all UNIT_DESTROY"), received);
+    assertFalse(bus.filtersRegion(EventType.UNIT_CREATE));
+  }
+
+  @Test
+  public void testBusWithoutUnitAttributesRejectsFiltersByThem() {
+    UnitEventBus bus = new UnitEventBus(false);
+    bus.subscribe(UnitEventFilter.builder().eventType(EventType.UNIT_SHOW).build(),
+        (type, unit) -> {
+        });
+    try {
+      bus.subscribe(UnitEventFilter.builder().player(Optional.of(enemy)).build(),
+          (type, unit) -> {
+          });
+    } catch (IllegalArgumentException e) {
+      assertEquals(1, bus.getSubscriberCount());
+      return;
+    }
+    throw new AssertionError("Subscription filtered by player was accepted.");
+  }
+
+  @Test
+  public void testOnlyUnitEventsCanBeSubscribed() {
+    UnitEventBus bus = new UnitEventBus();
+    assertFalse(bus.hasSubscribers(EventType.UNIT_SHOW));
+    try {
+      bus.subscribe(UnitEventFilter.builder().eventType(EventType.SEND_TEXT).build(),
+          (type, unit) -> {
+          });
+    } catch (IllegalArgumentException e) {
+      assertEquals(0, bus.getSubscriberCount());
+      return;
+    }
+    throw new AssertionError("Subscription of text events was accepted.");
+  }
+
+  private static UnitEventContext context(Player player, UnitTypeEnum unitType, Region region) {
+    return new UnitEventContext(Optional.of(player), Optional.of(unitType), Optional.of(region));
+  }
+
+}
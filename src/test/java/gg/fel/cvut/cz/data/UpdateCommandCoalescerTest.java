@@ -0,0 +1,90 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gg.fel.cvut.cz.data.readonly.Unit;
+import gg.fel.cvut.cz.facades.queue.Command;
+import gg.fel.cvut.cz.facades.queue.implementation.CommandType;
+import gg.fel.cvut.cz.facades.queue.implementation.UpdateCommandCoalescer;
+import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class UpdateCommandCoalescerTest {
+
+  private static final CommandType UNIT_UPDATE = CommandType.getCommandType("TEST_UNIT_UPDATE");
+
+  private final UpdateCommandCoalescer coalescer = new UpdateCommandCoalescer();
+  private final UpdateStrategy updateStrategy = UpdateStrategy.builder().build();
+  private final AtomicInteger executions = new AtomicInteger(), responses = new AtomicInteger();
+
+  @Test
+  public void testSameUpdatesAreExecutedOnce() {
+    Unit unit = new Unit(null, 1);
+    Optional<Command> command = request(unit, updateStrategy);
+    for (int i = 0; i < 9; i++) {
+      assertFalse(request(unit, updateStrategy).isPresent());
+    }
+    assertTrue(command.isPresent());
+    command.get().execute();
+    assertEquals(1, executions.get());
+    assertEquals(10, responses.get());
+    assertEquals(10, coalescer.getRequests());
+    assertEquals(9, coalescer.getSavedExecutions());
+    assertEquals(0, coalescer.getPendingCount());
+
+    //executed update is not pending anymore
+    assertTrue(request(unit, updateStrategy).isPresent());
+  }
+
+  @Test
+  public void testDifferentUpdatesAreNotCoalesced() {
+    Unit unit = new Unit(null, 1);
+    assertTrue(request(unit, updateStrategy).isPresent());
+    assertTrue(request(new Unit(null, 2), updateStrategy).isPresent());
+    assertTrue(request(unit, UpdateStrategy.builder().build()).isPresent());
+    assertEquals(0, coalescer.getSavedExecutions());
+  }
+
+  @Test
+  public void testFuturesAreCompletedWhenUpdateFails() {
+    Unit unit = new Unit(null, 1);
+    CompletableFuture<Boolean> first = new CompletableFuture<>(), second = new CompletableFuture<>();
+    Optional<Command> command = coalescer.coalesce(UNIT_UPDATE, unit, updateStrategy,
+        Optional.of(first::complete), () -> {
+          throw new IllegalStateException();
+        });
+    coalescer.coalesce(UNIT_UPDATE, unit, updateStrategy, Optional.of(second::complete),
+        () -> true);
+    try {
+      command.get().execute();
+    } catch (IllegalStateException e) {
+      //failure is propagated to queue
+    }
+    assertFalse(first.join());
+    assertFalse(second.join());
+  }
+
+  @Test
+  public void testDiscardedUpdateIsNotPending() {
+    Unit unit = new Unit(null, 1);
+    Optional<Command> command = request(unit, updateStrategy);
+    command.get().discard();
+    assertEquals(0, executions.get());
+    assertEquals(1, responses.get());
+    assertTrue(request(unit, updateStrategy).isPresent());
+  }
+
+  private Optional<Command> request(Unit unit, UpdateStrategy updateStrategy) {
+    return coalescer.coalesce(UNIT_UPDATE, unit, updateStrategy,
+        Optional.of(response -> responses.incrementAndGet()), () -> {
+          executions.incrementAndGet();
+          return true;
+        });
+  }
+
+}
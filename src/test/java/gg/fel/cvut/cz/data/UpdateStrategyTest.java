@@ -0,0 +1,312 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gg.fel.cvut.cz.data.readonly.Game;
+import gg.fel.cvut.cz.data.readonly.Player;
+import gg.fel.cvut.cz.data.readonly.TileGrid;
+import gg.fel.cvut.cz.data.readonly.TilePosition;
+import gg.fel.cvut.cz.data.readonly.Unit;
+import gg.fel.cvut.cz.facades.data.UpdateTreeExecutor;
+import gg.fel.cvut.cz.facades.managers.UpdateManager;
+import gg.fel.cvut.cz.facades.strategies.IUpdateContainerStrategy;
+import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
+import gg.fel.cvut.cz.wrappers.WGame;
+import gg.fel.cvut.cz.wrappers.WPlayer;
+import gg.fel.cvut.cz.wrappers.WTilePosition;
+import gg.fel.cvut.cz.wrappers.WUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+/**
+ * Checks built-in strategies. Run main to compare default strategy with tiered one on synthetic
+ * game with 400 units.
+ */
+@Slf4j
+public class UpdateStrategyTest {
+
+  private static final int MAP_SIZE = 64, UNITS = 400, ENEMY_UNIT_INTERVAL = 8;
+
+  //number of executed updates of containers
+  private static final AtomicLong updates = new AtomicLong();
+
+  @Test
+  public void testBuiltInStrategies() {
+    Unit unit = new Unit(null, 0);
+    assertTrue(IUpdateContainerStrategy.<Unit>once().shouldBeUpdated(unit, Integer.MAX_VALUE, 5));
+    assertFalse(IUpdateContainerStrategy.<Unit>once().shouldBeUpdated(unit, 100, 0));
+    assertFalse(IUpdateContainerStrategy.<Unit>everyNthFrame(8).shouldBeUpdated(unit, 7, 0));
+    assertTrue(IUpdateContainerStrategy.<Unit>everyNthFrame(8).shouldBeUpdated(unit, 8, 0));
+    assertFalse(IUpdateContainerStrategy.<Unit>maxDepth(1).shouldBeUpdated(unit, 1, 2));
+    assertFalse(IUpdateContainerStrategy.<Unit>always().shouldBeUpdated(unit, 0, 0));
+
+    IUpdateContainerStrategy<Unit> composed = IUpdateContainerStrategy.<Unit>everyNthFrame(8)
+        .and(IUpdateContainerStrategy.maxDepth(1))
+        .or(IUpdateContainerStrategy.once());
+    assertFalse(composed.shouldBeUpdated(unit, 8, 2));
+    assertTrue(composed.shouldBeUpdated(unit, 8, 1));
+    assertTrue(composed.shouldBeUpdated(unit, Integer.MAX_VALUE, 2));
+
+    IUpdateContainerStrategy<Unit> byOwner = IUpdateContainerStrategy
+        .when(u -> ((SyntheticUnit) u).own, IUpdateContainerStrategy.always(),
+            IUpdateContainerStrategy.everyNthFrame(ENEMY_UNIT_INTERVAL));
+    assertTrue(byOwner.shouldBeUpdated(new SyntheticUnit(1, true), 1, 1));
+    assertFalse(byOwner.shouldBeUpdated(new SyntheticUnit(2, false), 1, 1));
+  }
+
+  @Test
+  public void testTieredStrategyUpdatesStaticDataOnce() {
+    SyntheticGame game = createGame();
+    UpdateStrategy tiered = tieredStrategy();
+    UpdateTreeExecutor.executeUpdate(game, tiered, 1, null);
+    long firstFrame = updates.getAndSet(0);
+
+    //all containers are parsed in first frame
+    assertEquals(1 + 2 + UNITS + MAP_SIZE * MAP_SIZE, firstFrame);
+
+    //then only game, players and own units. units of enemy in each n-th frame
+    for (int frame = 2; frame <= ENEMY_UNIT_INTERVAL; frame++) {
+      UpdateTreeExecutor.executeUpdate(game, tiered, frame, null);
+      assertEquals(1 + 2 + UNITS / 2, updates.getAndSet(0));
+    }
+    UpdateTreeExecutor.executeUpdate(game, tiered, ENEMY_UNIT_INTERVAL + 1, null);
+    assertEquals(1 + 2 + UNITS, updates.getAndSet(0));
+  }
+
+  public static void main(String[] args) {
+    UpdateStrategy defaultStrategy = UpdateStrategy.builder().build();
+    UpdateStrategy tiered = tieredStrategy();
+    SyntheticGame defaultGame = createGame(), tieredGame = createGame();
+    for (int frame = 1; frame <= 200; frame++) {
+      updates.set(0);
+      long start = System.nanoTime();
+      UpdateTreeExecutor.executeUpdate(defaultGame, defaultStrategy, frame, null);
+      long defaultTime = System.nanoTime() - start;
+      long defaultUpdates = updates.getAndSet(0);
+      start = System.nanoTime();
+      UpdateTreeExecutor.executeUpdate(tieredGame, tiered, frame, null);
+      long tieredTime = System.nanoTime() - start;
+      if (frame % 20 == 0) {
+        log.info("Frame " + frame + " - default: " + (defaultTime / 1000) + " us ("
+            + defaultUpdates + " updates), tiered: " + (tieredTime / 1000) + " us ("
+            + updates.get() + " updates)");
+      }
+    }
+  }
+
+  /**
+   * Own units every frame, units of enemy every n-th frame, static map once
+   */
+  private static UpdateStrategy tieredStrategy() {
+    return UpdateStrategy.tiered(2)
+        .unitUpdateContainerStrategy(IUpdateContainerStrategy
+            .when(unit -> ((SyntheticUnit) unit).own, IUpdateContainerStrategy.always(),
+                IUpdateContainerStrategy.everyNthFrame(ENEMY_UNIT_INTERVAL)))
+        .build();
+  }
+
+  /**
+   * Game with two players, each of them has half of units standing on random tiles
+   */
+  private static SyntheticGame createGame() {
+    SyntheticGame game = new SyntheticGame();
+    TileGrid grid = new TileGrid(MAP_SIZE, MAP_SIZE, SyntheticTile::new);
+    grid.getTiles().forEach(game.references::add);
+    SyntheticPlayer self = new SyntheticPlayer(0), enemy = new SyntheticPlayer(1);
+    game.references.add(self);
+    game.references.add(enemy);
+    Random random = new Random(UNITS);
+    for (int id = 0; id < UNITS; id++) {
+      SyntheticUnit unit = new SyntheticUnit(id, id % 2 == 0);
+      unit.references.add(grid.getTile(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE)));
+      (unit.own ? self : enemy).references.add(unit);
+      game.references.add(unit);
+    }
+    return game;
+  }
+
+  /**
+   * Simulates reading of data from game
+   */
+  private static void update(AContainer container, int work) {
+    double value = 0;
+    for (int i = 0; i < work; i++) {
+      value += Math.sqrt(i + container.hashCode());
+    }
+    if (value >= 0) {
+      updates.incrementAndGet();
+    }
+  }
+
+  private static class SyntheticGame extends Game implements
+      IUpdatableContainer<WGame, SyntheticGame> {
+
+    private final List<AContainer> references = new ArrayList<>();
+
+    private SyntheticGame() {
+      super(null);
+    }
+
+    @Override
+    public WGame getWrappedSCInstance() {
+      return null;
+    }
+
+    @Override
+    public SyntheticGame getContainer() {
+      return this;
+    }
+
+    @Override
+    public Stream<? extends AContainer> getReferencedContainers(int currentFrame) {
+      return references.stream();
+    }
+
+    @Override
+    public boolean shouldBeUpdated(UpdateStrategy updateStrategy, int depth, int currentFrame) {
+      return updateStrategy.shouldBeUpdated(this, deltaOfUpdate(currentFrame), depth);
+    }
+
+    @Override
+    public void update(UpdateManager updateManager, int currentFrame) {
+      UpdateStrategyTest.update(this, 200);
+      updatedInFrame = currentFrame;
+    }
+
+    @Override
+    public void update(UpdateManager updateManager, UpdateStrategy updateStrategy) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static class SyntheticPlayer extends Player implements
+      IUpdatableContainer<WPlayer, SyntheticPlayer> {
+
+    private final List<AContainer> references = new ArrayList<>();
+
+    private SyntheticPlayer(int id) {
+      super(null, id);
+    }
+
+    @Override
+    public WPlayer getWrappedSCInstance() {
+      return null;
+    }
+
+    @Override
+    public SyntheticPlayer getContainer() {
+      return this;
+    }
+
+    @Override
+    public Stream<? extends AContainer> getReferencedContainers(int currentFrame) {
+      return references.stream();
+    }
+
+    @Override
+    public boolean shouldBeUpdated(UpdateStrategy updateStrategy, int depth, int currentFrame) {
+      return updateStrategy.shouldBeUpdated(this, deltaOfUpdate(currentFrame), depth);
+    }
+
+    @Override
+    public void update(UpdateManager updateManager, int currentFrame) {
+      UpdateStrategyTest.update(this, 200);
+      updatedInFrame = currentFrame;
+    }
+
+    @Override
+    public void update(UpdateManager updateManager, UpdateStrategy updateStrategy) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static class SyntheticUnit extends Unit implements
+      IUpdatableContainer<WUnit, SyntheticUnit> {
+
+    private final boolean own;
+    private final List<AContainer> references = new ArrayList<>();
+
+    private SyntheticUnit(int id, boolean own) {
+      super(null, id);
+      this.own = own;
+    }
+
+    @Override
+    public WUnit getWrappedSCInstance() {
+      return null;
+    }
+
+    @Override
+    public SyntheticUnit getContainer() {
+      return this;
+    }
+
+    @Override
+    public Stream<? extends AContainer> getReferencedContainers(int currentFrame) {
+      return references.stream();
+    }
+
+    @Override
+    public boolean shouldBeUpdated(UpdateStrategy updateStrategy, int depth, int currentFrame) {
+      return updateStrategy.shouldBeUpdated(this, deltaOfUpdate(currentFrame), depth);
+    }
+
+    @Override
+    public void update(UpdateManager updateManager, int currentFrame) {
+      UpdateStrategyTest.update(this, 100);
+      updatedInFrame = currentFrame;
+    }
+
+    @Override
+    public void update(UpdateManager updateManager, UpdateStrategy updateStrategy) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static class SyntheticTile extends TilePosition implements
+      IUpdatableContainer<WTilePosition, SyntheticTile> {
+
+    private SyntheticTile(TileGrid grid, int x, int y) {
+      super(null, x, y, grid);
+    }
+
+    @Override
+    public WTilePosition getWrappedSCInstance() {
+      return null;
+    }
+
+    @Override
+    public SyntheticTile getContainer() {
+      return this;
+    }
+
+    @Override
+    public Stream<? extends AContainer> getReferencedContainers(int currentFrame) {
+      return grid.getNeighbours(x, y);
+    }
+
+    @Override
+    public boolean shouldBeUpdated(UpdateStrategy updateStrategy, int depth, int currentFrame) {
+      return updateStrategy.shouldBeUpdated(this, deltaOfUpdate(currentFrame), depth);
+    }
+
+    @Override
+    public void update(UpdateManager updateManager, int currentFrame) {
+      UpdateStrategyTest.update(this, 20);
+      updatedInFrame = currentFrame;
+    }
+
+    @Override
+    public void update(UpdateManager updateManager, UpdateStrategy updateStrategy) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+}
@@ -0,0 +1,92 @@
+package gg.fel.cvut.cz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import gg.fel.cvut.cz.data.ParallelUpdateTreeExecutorTest.SyntheticContainer;
+import gg.fel.cvut.cz.facades.data.UpdateTreeExecutor;
+import gg.fel.cvut.cz.facades.strategies.UpdateStrategy;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Checks that traversal of update tree does not allocate once executor of thread is warmed up
+ */
+@Slf4j
+public class UpdateTreeExecutorTest {
+
+  private static final UpdateStrategy updateStrategy = UpdateStrategy.builder().build();
+
+  @Test
+  public void testEachContainerIsUpdatedOnce() {
+    List<SyntheticContainer> graph = ParallelUpdateTreeExecutorTest
+        .createGraph(500, 4, Integer.MAX_VALUE, 0);
+    for (int frame = 1; frame <= 10; frame++) {
+      UpdateTreeExecutor.executeUpdate(graph.get(0), updateStrategy, frame, null);
+    }
+    int updated = (int) graph.stream().filter(container -> container.updatedInFrame() == 10)
+        .count();
+    assertEquals(updated * 10, graph.stream().mapToInt(SyntheticContainer::updatesCount).sum());
+  }
+
+  @Test
+  public void testNestedTraversalDoesNotUpdateContainersAgain() {
+    List<SyntheticContainer> graph = ParallelUpdateTreeExecutorTest
+        .createGraph(500, 4, Integer.MAX_VALUE, 0);
+    AtomicInteger frame = new AtomicInteger(), nestedTraversals = new AtomicInteger();
+
+    //update of container referenced by root starts traversal from other part of graph
+    List<AContainer> referencedByRoot = new ArrayList<>();
+    graph.get(0).forEachReferencedContainer(0, referencedByRoot::add);
+    ((SyntheticContainer) referencedByRoot.get(0)).setAfterUpdate(() -> {
+      nestedTraversals.incrementAndGet();
+      UpdateTreeExecutor.executeUpdate(graph.get(graph.size() - 1), updateStrategy, frame.get(),
+          null);
+    });
+    for (frame.set(1); frame.get() <= 10; frame.incrementAndGet()) {
+      UpdateTreeExecutor.executeUpdate(graph.get(0), updateStrategy, frame.get(), null);
+    }
+    assertEquals(10, nestedTraversals.get());
+    int updated = (int) graph.stream().filter(container -> container.updatedInFrame() == 10)
+        .count();
+    assertEquals(updated * 10, graph.stream().mapToInt(SyntheticContainer::updatesCount).sum());
+  }
+
+  @Test
+  public void testSteadyStateTraversalDoesNotAllocate() {
+    Assume.assumeTrue(
+        ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory
+        .getThreadMXBean();
+    Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+    threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+    List<SyntheticContainer> graph = ParallelUpdateTreeExecutorTest
+        .createGraph(2000, 4, Integer.MAX_VALUE, 0);
+    int frame = 0;
+
+    //warm up - grow reused arrays and let JIT compile traversal
+    for (; frame < 20000; frame++) {
+      UpdateTreeExecutor.executeUpdate(graph.get(0), updateStrategy, frame + 1, null);
+    }
+
+    int traversals = 1000;
+    long threadId = Thread.currentThread().getId();
+    long before = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < traversals; i++, frame++) {
+      UpdateTreeExecutor.executeUpdate(graph.get(0), updateStrategy, frame + 1, null);
+    }
+    long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    log.info("Allocated " + allocated + " B by " + traversals + " traversals of " + graph.size()
+        + " containers");
+
+    //leave space for allocations of measurement itself
+    assertTrue(allocated / traversals < 16);
+  }
+
+}